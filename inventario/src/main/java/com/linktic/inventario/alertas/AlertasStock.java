@@ -0,0 +1,95 @@
+package com.linktic.inventario.alertas;
+
+import com.linktic.inventario.dto.AlertaStockDto;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Canal SSE de alertas de stock bajo. El envío se hace en un hilo propio para que un suscriptor lento
+// no añada latencia a la compra que cruzó el umbral; un suscriptor que falla se descarta.
+@Component
+public class AlertasStock {
+
+    private static final Logger log = LoggerFactory.getLogger(AlertasStock.class);
+    private static final String EVENTO = "stock-bajo";
+
+    private final List<SseEmitter> suscriptores = new CopyOnWriteArrayList<>();
+    private final ExecutorService despachador = Executors.newSingleThreadExecutor(r -> new Thread(r, "alertas-stock"));
+    private final AtomicLong secuencia = new AtomicLong();
+    private final Duration timeoutSuscripcion;
+
+    public AlertasStock(@Value("${inventario.alertas.timeout-suscripcion:30m}") Duration timeoutSuscripcion) {
+        this.timeoutSuscripcion = timeoutSuscripcion;
+    }
+
+    public SseEmitter suscribir() {
+        SseEmitter emisor = new SseEmitter(timeoutSuscripcion.toMillis());
+        emisor.onCompletion(() -> suscriptores.remove(emisor));
+        emisor.onTimeout(() -> suscriptores.remove(emisor));
+        emisor.onError(e -> suscriptores.remove(emisor));
+        suscriptores.add(emisor);
+        return emisor;
+    }
+
+    public void publicar(AlertaStockDto alerta) {
+        log.info("Stock bajo el umbral de reposición. productoId: {}, disponible: {}, umbral: {}",
+                alerta.getProductoId(), alerta.getDisponible(), alerta.getUmbralReposicion());
+        despachar(() -> {
+            String id = String.valueOf(secuencia.incrementAndGet());
+            // Un SseEventBuilder no se puede reutilizar: cada build() le añade otro fin de evento.
+            suscriptores.forEach(emisor -> enviar(emisor, SseEmitter.event()
+                    .id(id)
+                    .name(EVENTO)
+                    .data(alerta, MediaType.APPLICATION_JSON)));
+        });
+    }
+
+    // Comentario SSE periódico: evita que proxies intermedios corten conexiones ociosas y detecta clientes caídos.
+    @Scheduled(fixedDelayString = "${inventario.alertas.intervalo-latido-ms:30000}")
+    public void latido() {
+        despachar(() -> suscriptores.forEach(emisor -> enviar(emisor, SseEmitter.event().comment("latido"))));
+    }
+
+    public int numeroSuscriptores() {
+        return suscriptores.size();
+    }
+
+    @PreDestroy
+    public void detener() {
+        despachador.shutdown();
+        suscriptores.forEach(SseEmitter::complete);
+    }
+
+    // Durante el apagado el despachador ya no acepta tareas; la compra que cruzó el umbral no debe fallar por ello.
+    private void despachar(Runnable envio) {
+        try {
+            despachador.execute(envio);
+        } catch (RejectedExecutionException e) {
+            log.debug("Alerta de stock descartada: el canal SSE se está deteniendo");
+        }
+    }
+
+    private void enviar(SseEmitter emisor, SseEmitter.SseEventBuilder evento) {
+        try {
+            emisor.send(evento);
+        } catch (IOException | IllegalStateException e) {
+            suscriptores.remove(emisor);
+            emisor.completeWithError(e);
+        }
+    }
+}
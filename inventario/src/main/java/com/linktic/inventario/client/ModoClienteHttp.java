@@ -0,0 +1,6 @@
+package com.linktic.inventario.client;
+
+public enum ModoClienteHttp {
+    BLOQUEANTE,
+    NO_BLOQUEANTE
+}
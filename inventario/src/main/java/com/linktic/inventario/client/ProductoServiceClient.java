@@ -1,53 +1,252 @@
 package com.linktic.inventario.client;
 
+import com.linktic.inventario.config.CacheConfig;
 import com.linktic.inventario.dto.ProductoDto;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Caching;
+import org.springframework.core.ParameterizedTypeReference;
 import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
-import org.springframework.retry.annotation.Backoff;
-import org.springframework.retry.annotation.Retryable;
 import org.springframework.stereotype.Component;
 import org.springframework.web.bind.annotation.GetMapping;
-import org.springframework.web.client.RestClientException;
 import org.springframework.web.client.RestTemplate;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
 
 @Component
 @RequiredArgsConstructor
 public class ProductoServiceClient {
 
     private final RestTemplate restTemplate;
+    private final WebClient productoWebClient;
+    private final CacheManager cacheManager;
+    private final CircuitBreakerRegistry circuitBreakerRegistry;
+    private final BulkheadRegistry bulkheadRegistry;
+    private final MeterRegistry meterRegistry;
+
+    public static final String PRODUCTO_SERVICE = "productoService";
+
+    private static final Logger log = LoggerFactory.getLogger(ProductoServiceClient.class);
 
     @Value("${client.producto-service.url}")
     private String productoServiceUrl;
 
+    @Value("${client.producto-service.modo:BLOQUEANTE}")
+    private ModoClienteHttp modo;
+
+    @Value("${client.producto-service.tamano-lote:50}")
+    private int tamanoLote;
+
+    @Value("${client.producto-service.concurrencia:4}")
+    private int concurrencia;
+
     @Value("${service.api.key}")
     private String serviceApiKey;
 
-    @Retryable(
-        value = { RestClientException.class }, 
-        maxAttempts = 2, 
-        backoff = @Backoff(delay = 1000)
-    )
     @GetMapping("/productos/internal/{id}")
     public ProductoDto obtenerProducto(Long productoId) {
-        String url = productoServiceUrl + "/productos/internal/" + productoId;
+        Cache cache = cacheManager.getCache(CacheConfig.PRODUCTOS_CACHE);
+        ProductoDto enCache = cache.get(productoId, ProductoDto.class);
+        if (enCache != null) {
+            return enCache;
+        }
+
+        // Plantilla con variables: la etiqueta uri de http.client.requests queda fija y no crea una serie por producto.
+        String url = productoServiceUrl + "/productos/internal/{id}";
+
+        // Si hay una copia anterior se revalida: con 304 solo viajan cabeceras y se reutiliza la copia.
+        ProductoDto ultimoConocido = ultimoConocido(productoId);
+        HttpHeaders headers = createAuthHeaders();
+        if (ultimoConocido != null && ultimoConocido.getVersion() != null) {
+            headers.setIfNoneMatch("W/\"" + ultimoConocido.getVersion() + "\"");
+        }
+
+        try {
+            ResponseEntity<ProductoDto> respuesta = protegido(() -> restTemplate.exchange(
+                url, 
+                HttpMethod.GET, 
+                new HttpEntity<>(headers), 
+                ProductoDto.class,
+                productoId
+            ));
+            return recordar(respuesta.getStatusCode() == HttpStatus.NOT_MODIFIED ? ultimoConocido : respuesta.getBody());
+        } catch (RuntimeException e) {
+            contarRespaldo("individual", ultimoConocido != null ? 1 : 0, ultimoConocido != null ? 0 : 1);
+            if (ultimoConocido != null) {
+                log.warn("producto-service no disponible ({}). Se usa la última versión conocida del productoId: {}", e.getClass().getSimpleName(), productoId);
+                return ultimoConocido;
+            }
+            throw new RuntimeException("Error al obtener producto: " + e.getMessage(), e);
+        }
+    }
+    
+    @GetMapping("/productos/internal/batch")
+    public Map<Long, ProductoDto> obtenerProductos(Collection<Long> productoIds) {
+        if (productoIds.isEmpty()) {
+            return Collections.emptyMap();
+        }
+
+        Cache cache = cacheManager.getCache(CacheConfig.PRODUCTOS_CACHE);
+        Map<Long, ProductoDto> productos = new HashMap<>();
+        List<Long> faltantes = new ArrayList<>();
+        for (Long productoId : productoIds) {
+            ProductoDto enCache = cache.get(productoId, ProductoDto.class);
+            if (enCache != null) {
+                productos.put(productoId, enCache);
+            } else {
+                faltantes.add(productoId);
+            }
+        }
+
+        if (faltantes.isEmpty()) {
+            return productos;
+        }
 
         try {
-            ResponseEntity<ProductoDto> response = restTemplate.exchange(
+            List<ProductoDto> obtenidos = protegido(() -> modo == ModoClienteHttp.NO_BLOQUEANTE
+                    ? obtenerLotesConcurrentes(faltantes)
+                    : obtenerLote(faltantes));
+            for (ProductoDto productoDto : obtenidos) {
+                ProductoDto vigente = recordar(productoDto);
+                productos.put(vigente.getId(), vigente);
+            }
+        } catch (RuntimeException e) {
+            log.warn("producto-service no disponible ({}). Se usan las últimas versiones conocidas para {} productos", e.getClass().getSimpleName(), faltantes.size());
+            int recuperados = 0;
+            for (Long productoId : faltantes) {
+                ProductoDto ultimoConocido = ultimoConocido(productoId);
+                if (ultimoConocido != null) {
+                    productos.put(productoId, ultimoConocido);
+                    recuperados++;
+                }
+            }
+            contarRespaldo("lote", recuperados, faltantes.size() - recuperados);
+        }
+        return productos;
+    }
+
+    // Se ejecuta dentro del circuit breaker: la RestClientException sale tal cual para que ignore-exceptions
+    // reconozca los 4xx (HttpClientErrorException); obtenerProductos la trata fuera del breaker.
+    private List<ProductoDto> obtenerLote(List<Long> productoIds) {
+        String url = productoServiceUrl + "/productos/internal/batch?ids={ids}";
+        List<ProductoDto> obtenidos = new ArrayList<>(productoIds.size());
+
+        for (List<Long> lote : partirEnLotes(productoIds)) {
+            ResponseEntity<List<ProductoDto>> response = restTemplate.exchange(
                 url, 
                 HttpMethod.GET, 
                 new HttpEntity<>(createAuthHeaders()), 
-                ProductoDto.class
+                new ParameterizedTypeReference<List<ProductoDto>>() {},
+                unirIds(lote)
             );
-            return response.getBody();
-        } catch (RestClientException e) {
-            throw new RuntimeException("Error al obtener producto (reintentos agotados): " + e.getMessage(), e);
+            if (response.getBody() != null) {
+                obtenidos.addAll(response.getBody());
+            }
         }
+        return obtenidos;
     }
     
+    // Parte los ids en lotes y los pide en paralelo sobre el pool de reactor-netty; solo se espera al final.
+    private List<ProductoDto> obtenerLotesConcurrentes(List<Long> productoIds) {
+        List<ProductoDto> obtenidos = Flux.fromIterable(partirEnLotes(productoIds))
+                .flatMap(lote -> productoWebClient.get()
+                        .uri("/productos/internal/batch?ids={ids}", unirIds(lote))
+                        .retrieve()
+                        .bodyToFlux(ProductoDto.class), concurrencia)
+                .collectList()
+                .block();
+        return obtenidos != null ? obtenidos : Collections.emptyList();
+    }
+
+    // Los ids van en la query string: sin partirlos, un lote grande supera el límite de la línea de petición
+    // de Tomcat (8 KB) y producto-service responde 400.
+    private List<List<Long>> partirEnLotes(List<Long> productoIds) {
+        List<List<Long>> lotes = new ArrayList<>();
+        for (int i = 0; i < productoIds.size(); i += tamanoLote) {
+            lotes.add(productoIds.subList(i, Math.min(i + tamanoLote, productoIds.size())));
+        }
+        return lotes;
+    }
+
+    public Optional<ProductoDto> obtenerProductoEnCache(Long productoId) {
+        Cache cache = cacheManager.getCache(CacheConfig.PRODUCTOS_CACHE);
+        return Optional.ofNullable(cache.get(productoId, ProductoDto.class));
+    }
+
+    // Devuelve false si el evento trae una versión anterior a la ya conocida y se ha descartado.
+    public boolean refrescarProducto(ProductoDto productoDto) {
+        return recordar(productoDto) == productoDto;
+    }
+
+    @Caching(evict = {
+        @CacheEvict(cacheNames = CacheConfig.PRODUCTOS_CACHE, key = "#productoId"),
+        @CacheEvict(cacheNames = CacheConfig.PRODUCTOS_ULTIMO_CONOCIDO_CACHE, key = "#productoId")
+    })
+    public void invalidarProducto(Long productoId) {
+    }
+
+    // El bulkhead limita cuántas peticiones pueden estar esperando a producto-service a la vez y el circuit
+    // breaker corta las llamadas mientras la tasa de fallos o de llamadas lentas supere el umbral.
+    // Ambos rechazan de inmediato, así que el llamador pasa directo al respaldo sin ocupar su hilo.
+    private <T> T protegido(Supplier<T> llamada) {
+        Bulkhead bulkhead = bulkheadRegistry.bulkhead(PRODUCTO_SERVICE);
+        CircuitBreaker circuitBreaker = circuitBreakerRegistry.circuitBreaker(PRODUCTO_SERVICE);
+        return CircuitBreaker.decorateSupplier(circuitBreaker, Bulkhead.decorateSupplier(bulkhead, llamada)).get();
+    }
+
+    // Productos servidos desde el respaldo (última versión conocida) o que se quedaron sin él, por operación.
+    private void contarRespaldo(String operacion, int conUltimoConocido, int sinRespaldo) {
+        meterRegistry.counter("cliente.producto.respaldos", "operacion", operacion, "resultado", "ultimo-conocido").increment(conUltimoConocido);
+        meterRegistry.counter("cliente.producto.respaldos", "operacion", operacion, "resultado", "sin-respaldo").increment(sinRespaldo);
+    }
+
+    // Los eventos de producto-service y las respuestas a GET no llegan en orden: una copia con versión anterior a
+    // la ya conocida (un GET lento que termina tras el evento de la actualización) no la pisa hasta que caduque
+    // la caché. Devuelve la copia que queda vigente.
+    private synchronized ProductoDto recordar(ProductoDto productoDto) {
+        if (productoDto == null) {
+            return null;
+        }
+        ProductoDto conocido = ultimoConocido(productoDto.getId());
+        ProductoDto vigente = conocido != null && conocido.getVersion() != null && productoDto.getVersion() != null
+                && productoDto.getVersion() < conocido.getVersion() ? conocido : productoDto;
+        cacheManager.getCache(CacheConfig.PRODUCTOS_CACHE).put(vigente.getId(), vigente);
+        cacheManager.getCache(CacheConfig.PRODUCTOS_ULTIMO_CONOCIDO_CACHE).put(vigente.getId(), vigente);
+        return vigente;
+    }
+
+    private ProductoDto ultimoConocido(Long productoId) {
+        return cacheManager.getCache(CacheConfig.PRODUCTOS_ULTIMO_CONOCIDO_CACHE).get(productoId, ProductoDto.class);
+    }
+
+    private static String unirIds(List<Long> productoIds) {
+        return productoIds.stream().map(String::valueOf).collect(Collectors.joining(","));
+    }
+
     private HttpHeaders createAuthHeaders() {
         HttpHeaders headers = new HttpHeaders();
         headers.set("SERVICE_API_KEY", serviceApiKey);
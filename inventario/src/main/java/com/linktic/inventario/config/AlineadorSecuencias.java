@@ -0,0 +1,36 @@
+package com.linktic.inventario.config;
+
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+
+// La tabla de secuencia se crea empezando en 1 aunque inventario ya tenga filas con ids generados
+// antes con IDENTITY. Al arrancar se adelanta por encima del id máximo.
+@Component
+@DependsOn("entityManagerFactory")
+@RequiredArgsConstructor
+public class AlineadorSecuencias {
+
+    private static final Logger log = LoggerFactory.getLogger(AlineadorSecuencias.class);
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @PostConstruct
+    public void alinear() {
+        alinear("inventario_seq", "inventario");
+    }
+
+    private void alinear(String secuencia, String tabla) {
+        String maximo = "(SELECT COALESCE(MAX(id), 0) FROM " + tabla + ")";
+        int actualizadas = jdbcTemplate.update(
+                "UPDATE " + secuencia + " SET next_val = " + maximo + " + 1 WHERE next_val <= " + maximo);
+        if (actualizadas > 0) {
+            log.info("Secuencia {} adelantada por encima del id máximo de {}", secuencia, tabla);
+        }
+    }
+}
@@ -1,20 +1,106 @@
 package com.linktic.inventario.config;
 
+import io.netty.channel.ChannelOption;
+import org.apache.http.client.HttpClient;
+import org.apache.http.impl.client.HttpClients;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.retry.support.RetryTemplate;
 import org.springframework.web.client.RestTemplate;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.resources.ConnectionProvider;
 
 import java.time.Duration;
+import java.util.concurrent.TimeUnit;
 
 @Configuration
 public class AppConfig {
 
+    @Value("${client.http.timeout-conexion:5s}")
+    private Duration timeoutConexion;
+
+    @Value("${client.http.timeout-lectura:5s}")
+    private Duration timeoutLectura;
+
+    @Value("${client.http.pool.max-conexiones:100}")
+    private int maxConexiones;
+
+    @Value("${client.http.pool.max-por-ruta:50}")
+    private int maxConexionesPorRuta;
+
+    @Value("${client.http.pool.keep-alive:30s}")
+    private Duration keepAlive;
+
+    @Bean(destroyMethod = "close")
+    public PoolingHttpClientConnectionManager httpConnectionManager() {
+        PoolingHttpClientConnectionManager connectionManager = new PoolingHttpClientConnectionManager();
+        connectionManager.setMaxTotal(maxConexiones);
+        connectionManager.setDefaultMaxPerRoute(maxConexionesPorRuta);
+        connectionManager.setValidateAfterInactivity((int) Duration.ofSeconds(2).toMillis());
+        return connectionManager;
+    }
+
+    @Bean
+    public HttpClient httpClient(PoolingHttpClientConnectionManager httpConnectionManager) {
+        return HttpClients.custom()
+            .setConnectionManager(httpConnectionManager)
+            .evictExpiredConnections()
+            .evictIdleConnections(keepAlive.toMillis(), TimeUnit.MILLISECONDS)
+            .build();
+    }
+
     @Bean
-    public RestTemplate restTemplate(RestTemplateBuilder builder) {
+    public RestTemplate restTemplate(RestTemplateBuilder builder, HttpClient httpClient) {
         return builder
-            .setConnectTimeout(Duration.ofSeconds(5))
-            .setReadTimeout(Duration.ofSeconds(5))
+            .requestFactory(() -> {
+                HttpComponentsClientHttpRequestFactory requestFactory = new HttpComponentsClientHttpRequestFactory(httpClient);
+                requestFactory.setConnectionRequestTimeout((int) timeoutConexion.toMillis());
+                return requestFactory;
+            })
+            .setConnectTimeout(timeoutConexion)
+            .setReadTimeout(timeoutLectura)
+            .build();
+    }
+
+    // reactor-netty mantiene un pool por host remoto, así que maxConnections equivale al límite por ruta.
+    @Bean
+    public WebClient productoWebClient(WebClient.Builder builder,
+                                       @Value("${client.producto-service.url}") String productoServiceUrl,
+                                       @Value("${service.api.key}") String serviceApiKey) {
+        ConnectionProvider connectionProvider = ConnectionProvider.builder("producto-service")
+            .maxConnections(maxConexionesPorRuta)
+            .pendingAcquireTimeout(timeoutConexion)
+            .maxIdleTime(keepAlive)
+            .build();
+
+        reactor.netty.http.client.HttpClient httpClient = reactor.netty.http.client.HttpClient.create(connectionProvider)
+            .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) timeoutConexion.toMillis())
+            .responseTimeout(timeoutLectura)
+            .keepAlive(true);
+
+        return builder
+            .baseUrl(productoServiceUrl)
+            .defaultHeader("SERVICE_API_KEY", serviceApiKey)
+            .clientConnector(new ReactorClientHttpConnector(httpClient))
+            .build();
+    }
+
+    @Bean
+    public RetryTemplate compraRetryTemplate(
+            @Value("${inventario.compra.reintentos.max-intentos:5}") int maxIntentos,
+            @Value("${inventario.compra.reintentos.retardo-inicial-ms:10}") long retardoInicial,
+            @Value("${inventario.compra.reintentos.multiplicador:2.0}") double multiplicador,
+            @Value("${inventario.compra.reintentos.retardo-maximo-ms:200}") long retardoMaximo) {
+        return RetryTemplate.builder()
+            .maxAttempts(maxIntentos)
+            .exponentialBackoff(retardoInicial, multiplicador, retardoMaximo, true)
+            .retryOn(ObjectOptimisticLockingFailureException.class)
             .build();
     }
-}
\ No newline at end of file
+}
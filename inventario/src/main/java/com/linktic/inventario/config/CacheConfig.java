@@ -0,0 +1,37 @@
+package com.linktic.inventario.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    public static final String PRODUCTOS_CACHE = "productos";
+    // Última versión conocida de cada producto, sin expiración: es el respaldo cuando producto-service no responde.
+    public static final String PRODUCTOS_ULTIMO_CONOCIDO_CACHE = "productosUltimoConocido";
+
+    @Bean
+    public CacheManager cacheManager(
+            @Value("${client.producto-service.cache.max-size:10000}") long maxSize,
+            @Value("${client.producto-service.cache.ttl:10m}") Duration ttl) {
+
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager(PRODUCTOS_CACHE);
+        cacheManager.setCaffeine(Caffeine.newBuilder()
+            .maximumSize(maxSize)
+            .expireAfterWrite(ttl)
+            .recordStats());
+        cacheManager.registerCustomCache(PRODUCTOS_ULTIMO_CONOCIDO_CACHE, Caffeine.newBuilder()
+            .maximumSize(maxSize)
+            .recordStats()
+            .build());
+        return cacheManager;
+    }
+}
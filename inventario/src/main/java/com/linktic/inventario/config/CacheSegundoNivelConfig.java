@@ -0,0 +1,79 @@
+package com.linktic.inventario.config;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.SharedCacheMode;
+import java.net.URI;
+import java.time.Duration;
+import java.util.List;
+import java.util.OptionalLong;
+
+// Caché de segundo nivel de Hibernate (opt-in). Las regiones se crean aquí con tamaño máximo y, si
+// falta alguna, Hibernate falla al arrancar en lugar de crearla sin límite. Los UPDATE masivos de
+// compras y reservas vacían la región de Inventario completa: solo compensa con cargas de mayoría lectura.
+// Copia deliberada de la misma clase en producto-service (no hay módulo compartido): un cambio aquí va también allí.
+@Configuration
+@ConditionalOnProperty(name = "cache.segundo-nivel.habilitado", havingValue = "true")
+public class CacheSegundoNivelConfig {
+
+    public static final String REGION_INVENTARIO = "inventario";
+    public static final String REGION_CONSULTAS = "default-query-results-region";
+    // Marca de la última escritura por tabla; no debe expirar antes que los resultados de consulta que valida.
+    public static final String REGION_MARCAS_TIEMPO = "default-update-timestamps-region";
+
+    @Bean(destroyMethod = "close")
+    public CacheManager cacheManagerSegundoNivel(
+            @Value("${cache.segundo-nivel.inventario.max-elementos:10000}") long maxInventarios,
+            @Value("${cache.segundo-nivel.consultas.max-elementos:1000}") long maxConsultas,
+            @Value("${cache.segundo-nivel.ttl:10m}") Duration ttl) {
+
+        CacheManager cacheManager = Caching.getCachingProvider(CaffeineCachingProvider.class.getName())
+                .getCacheManager(URI.create("inventario-segundo-nivel"), getClass().getClassLoader());
+        cacheManager.createCache(REGION_INVENTARIO, region(maxInventarios, ttl));
+        cacheManager.createCache(REGION_CONSULTAS, region(maxConsultas, ttl));
+        cacheManager.createCache(REGION_MARCAS_TIEMPO, region(1000, null));
+        return cacheManager;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer cacheSegundoNivelHibernate(CacheManager cacheManagerSegundoNivel) {
+        return propiedades -> {
+            propiedades.put(AvailableSettings.USE_SECOND_LEVEL_CACHE, true);
+            propiedades.put(AvailableSettings.USE_QUERY_CACHE, true);
+            propiedades.put(AvailableSettings.CACHE_REGION_FACTORY, "jcache");
+            propiedades.put(ConfigSettings.CACHE_MANAGER, cacheManagerSegundoNivel);
+            propiedades.put(ConfigSettings.MISSING_CACHE_STRATEGY, "fail");
+            propiedades.put(AvailableSettings.JPA_SHARED_CACHE_MODE, SharedCacheMode.ENABLE_SELECTIVE);
+            propiedades.put(AvailableSettings.GENERATE_STATISTICS, true);
+        };
+    }
+
+    @Bean
+    public CacheSegundoNivelEndpoint cacheSegundoNivelEndpoint(EntityManagerFactory entityManagerFactory,
+                                                               CacheManager cacheManagerSegundoNivel) {
+        return new CacheSegundoNivelEndpoint(entityManagerFactory, cacheManagerSegundoNivel,
+                List.of(REGION_INVENTARIO, REGION_CONSULTAS, REGION_MARCAS_TIEMPO));
+    }
+
+    // Por referencia: las entradas de Hibernate ya son estado desensamblado, copiarlas solo añade coste.
+    private static CaffeineConfiguration<Object, Object> region(long maxElementos, Duration ttl) {
+        CaffeineConfiguration<Object, Object> configuracion = new CaffeineConfiguration<>();
+        configuracion.setStoreByValue(false);
+        configuracion.setMaximumSize(OptionalLong.of(maxElementos));
+        if (ttl != null) {
+            configuracion.setExpireAfterWrite(OptionalLong.of(ttl.toNanos()));
+        }
+        return configuracion;
+    }
+}
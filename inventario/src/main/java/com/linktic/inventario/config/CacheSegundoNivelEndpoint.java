@@ -0,0 +1,50 @@
+package com.linktic.inventario.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+
+import javax.cache.CacheManager;
+import javax.persistence.EntityManagerFactory;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// GET /actuator/cacheregiones: aciertos, fallos y tamaño de cada región de la caché de segundo nivel.
+// Copia deliberada de la misma clase en producto-service (no hay módulo compartido): un cambio aquí va también allí.
+@Endpoint(id = "cacheregiones")
+public class CacheSegundoNivelEndpoint {
+
+    private final Statistics estadisticas;
+    private final CacheManager cacheManager;
+    private final List<String> regiones;
+
+    public CacheSegundoNivelEndpoint(EntityManagerFactory entityManagerFactory, CacheManager cacheManager, List<String> regiones) {
+        this.estadisticas = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        this.cacheManager = cacheManager;
+        this.regiones = regiones;
+    }
+
+    @ReadOperation
+    public Map<String, Map<String, Object>> regiones() {
+        Map<String, Map<String, Object>> resultado = new LinkedHashMap<>();
+        for (String region : regiones) {
+            CacheRegionStatistics estadisticasRegion = estadisticas.getCacheRegionStatistics(region);
+            long aciertos = estadisticasRegion != null ? estadisticasRegion.getHitCount() : 0;
+            long fallos = estadisticasRegion != null ? estadisticasRegion.getMissCount() : 0;
+            long consultas = aciertos + fallos;
+
+            Map<String, Object> datos = new LinkedHashMap<>();
+            datos.put("aciertos", aciertos);
+            datos.put("fallos", fallos);
+            datos.put("escrituras", estadisticasRegion != null ? estadisticasRegion.getPutCount() : 0);
+            datos.put("tasaAciertos", consultas == 0 ? 0.0 : (double) aciertos / consultas);
+            datos.put("elementos", cacheManager.getCache(region).unwrap(Cache.class).estimatedSize());
+            resultado.put(region, datos);
+        }
+        return resultado;
+    }
+}
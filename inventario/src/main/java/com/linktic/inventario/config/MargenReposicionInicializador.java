@@ -0,0 +1,31 @@
+package com.linktic.inventario.config;
+
+import com.linktic.inventario.repository.InventarioRepository;
+
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PostConstruct;
+
+// Con ddl-auto=update la columna margenReposicion llega vacía a las filas existentes; se calcula una
+// sola vez al arrancar para que entren en la consulta de stock bajo.
+@Component
+@RequiredArgsConstructor
+public class MargenReposicionInicializador {
+
+    private static final Logger log = LoggerFactory.getLogger(MargenReposicionInicializador.class);
+
+    private final InventarioRepository inventarioRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    @PostConstruct
+    public void calcularPendientes() {
+        Integer filas = transactionTemplate.execute(status -> inventarioRepository.calcularMargenesPendientes());
+        if (filas != null && filas > 0) {
+            log.info("Margen de reposición calculado para inventarios existentes. filas: {}", filas);
+        }
+    }
+}
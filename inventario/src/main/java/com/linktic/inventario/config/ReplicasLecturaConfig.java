@@ -0,0 +1,69 @@
+package com.linktic.inventario.config;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+// Réplicas de lectura (opt-in). El pool primario se declara aquí con las mismas propiedades que usaría
+// Spring Boot (spring.datasource.*, spring.datasource.hikari.*) y cada réplica copia sus ajustes salvo la URL.
+// El proxy perezoso retrasa la conexión física hasta la primera sentencia, cuando ya se sabe si la transacción
+// es de solo lectura.
+// Copia deliberada de la misma clase en producto-service (no hay módulo compartido): un cambio aquí va también allí.
+@Configuration
+@ConditionalOnProperty(name = "datasource.replicas.habilitado", havingValue = "true")
+public class ReplicasLecturaConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource dataSourcePrimario(DataSourceProperties propiedades) {
+        return propiedades.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    @Bean(destroyMethod = "close")
+    public EnrutadorLecturaDataSource enrutadorLectura(
+            HikariDataSource dataSourcePrimario,
+            @Value("${datasource.replicas.urls}") List<String> urls,
+            @Value("${datasource.replicas.timeout-conexion:1s}") Duration timeoutConexion) {
+
+        List<HikariDataSource> replicas = new ArrayList<>();
+        for (String url : urls) {
+            HikariConfig configuracion = new HikariConfig();
+            dataSourcePrimario.copyStateTo(configuracion);
+            configuracion.setJdbcUrl(url.trim());
+            configuracion.setPoolName("replica-" + (replicas.size() + 1));
+            configuracion.setReadOnly(true);
+            // Una réplica caída al arrancar no impide el arranque: queda no disponible hasta que responda.
+            configuracion.setInitializationFailTimeout(-1);
+            configuracion.setConnectionTimeout(timeoutConexion.toMillis());
+            replicas.add(new HikariDataSource(configuracion));
+        }
+        return new EnrutadorLecturaDataSource(dataSourcePrimario, replicas, timeoutConexion);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(EnrutadorLecturaDataSource enrutadorLectura) {
+        return new LazyConnectionDataSourceProxy(enrutadorLectura);
+    }
+
+    @Bean
+    public MeterBinder replicasLecturaMetricas(EnrutadorLecturaDataSource enrutadorLectura) {
+        return registry -> Gauge.builder("datasource.replicas.disponibles", enrutadorLectura, EnrutadorLecturaDataSource::replicasDisponibles)
+                .description("Réplicas de lectura que reciben transacciones de solo lectura")
+                .register(registry);
+    }
+}
@@ -17,6 +17,12 @@ public class WebConfig implements WebMvcConfigurer {
         
         registry.addInterceptor(apiKeyAuthInterceptor)
                 .addPathPatterns("/inventarios")
-                .addPathPatterns("/inventarios/producto/**");
+                .addPathPatterns("/inventarios/compras")
+                .addPathPatterns("/inventarios/bajo-umbral")
+                .addPathPatterns("/inventarios/alertas")
+                .addPathPatterns("/inventarios/exportacion")
+                .addPathPatterns("/inventarios/producto/**")
+                .addPathPatterns("/inventarios/reservas/**")
+                .addPathPatterns("/inventarios/internal/**");
     }
 }
\ No newline at end of file
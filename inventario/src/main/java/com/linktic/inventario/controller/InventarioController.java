@@ -1,7 +1,16 @@
 package com.linktic.inventario.controller;
 
+import com.linktic.inventario.alertas.AlertasStock;
+import com.linktic.inventario.dto.CompraMultipleRequestDto;
+import com.linktic.inventario.dto.FormatoExportacion;
 import com.linktic.inventario.dto.InventarioRequestDto;
 import com.linktic.inventario.dto.InventarioResponseDto;
+import com.linktic.inventario.dto.ModoPaginacion;
+import com.linktic.inventario.dto.ModoRespuestaCompra;
+import com.linktic.inventario.dto.PaginaCursor;
+import com.linktic.inventario.dto.ProductoDto;
+import com.linktic.inventario.dto.ProductoEventoDto;
+import com.linktic.inventario.dto.UmbralReposicionDto;
 import com.linktic.inventario.model.Inventario;
 import com.linktic.inventario.service.InventarioService;
 import lombok.RequiredArgsConstructor;
@@ -16,12 +25,26 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.web.PageableDefault;
 import org.springframework.data.web.PagedResourcesAssembler;
+import org.springframework.hateoas.CollectionModel;
 import org.springframework.hateoas.EntityModel;
+import org.springframework.hateoas.IanaLinkRelations;
 import org.springframework.hateoas.Link;
 import org.springframework.hateoas.PagedModel;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+
+import javax.servlet.http.HttpServletResponse;
+import javax.validation.Valid;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
 
 import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
 import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.methodOn;
@@ -35,6 +58,7 @@ public class InventarioController {
 
     private final InventarioService inventarioService;
     private final PagedResourcesAssembler<InventarioResponseDto> pagedResourcesAssembler;
+    private final AlertasStock alertasStock;
 
     @Operation(summary = "Crear un registro de inventario (Interno)",
                description = "Endpoint interno llamado por producto-service cuando se crea un producto. Requiere API Key.")
@@ -67,6 +91,7 @@ public class InventarioController {
                description = "Consulta la cantidad de inventario y la combina con los detalles del producto. Requiere API Key.")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Inventario encontrado"),
+            @ApiResponse(responseCode = "304", description = "Sin cambios respecto al ETag enviado en If-None-Match"),
             @ApiResponse(responseCode = "401", description = "No autorizado (API Key inválida)"),
             @ApiResponse(responseCode = "404", description = "Inventario no encontrado")
     })
@@ -76,11 +101,13 @@ public class InventarioController {
             @PathVariable Long productoId) {
         
         InventarioResponseDto inventarioDto = inventarioService.obtenerInventarioCombinado(productoId);
-        return ResponseEntity.ok(toModel(inventarioDto));
+        return ResponseEntity.ok().eTag(etag(inventarioDto)).body(toModel(inventarioDto));
     }
 
     @Operation(summary = "Procesar una 'compra' de un producto",
-               description = "Descuenta una cantidad del inventario de un producto específico. Requiere API Key.")
+               description = "Descuenta una cantidad del inventario de un producto específico. Con respuesta=ENTIDAD la respuesta se arma "
+                       + "con el inventario ya actualizado sin volver a consultarlo; con respuesta=CACHE además solo usa los detalles "
+                       + "del producto presentes en la caché local, sin llamar a producto-service. Requiere API Key.")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Compra procesada, devuelve el estado actualizado del inventario"),
             @ApiResponse(responseCode = "401", description = "No autorizado"),
@@ -90,22 +117,108 @@ public class InventarioController {
     public ResponseEntity<EntityModel<InventarioResponseDto>> procesarCompra(
             @Parameter(description = "ID del producto que se está comprando")
             @PathVariable Long productoId,
+            @Parameter(description = "Cómo se arma la respuesta: COMBINADA (por defecto), ENTIDAD o CACHE")
+            @RequestParam(defaultValue = "COMBINADA") ModoRespuestaCompra respuesta,
             @RequestBody CompraDto compraDto) {
                 
-        inventarioService.procesarCompra(productoId, compraDto.getCantidad());
+        Inventario inventarioActualizado = inventarioService.procesarCompra(productoId, compraDto.getCantidad());
         
-        InventarioResponseDto inventarioActualizadoDto = inventarioService.obtenerInventarioCombinado(productoId);
+        InventarioResponseDto inventarioActualizadoDto = (respuesta == ModoRespuestaCompra.COMBINADA)
+                ? inventarioService.obtenerInventarioCombinado(productoId)
+                : inventarioService.combinarInventario(inventarioActualizado, respuesta == ModoRespuestaCompra.CACHE);
 
         return ResponseEntity.ok(toModel(inventarioActualizadoDto));
     }
     
+    @Operation(summary = "Definir el umbral de reposición de un producto",
+               description = "Cuando una compra deja el stock disponible igual o por debajo de este umbral se emite una alerta en /inventarios/alertas "
+                       + "y el producto aparece en /inventarios/bajo-umbral. Requiere API Key.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Umbral actualizado, devuelve el inventario con el nuevo umbral"),
+            @ApiResponse(responseCode = "400", description = "Umbral negativo"),
+            @ApiResponse(responseCode = "401", description = "No autorizado"),
+            @ApiResponse(responseCode = "404", description = "Inventario no encontrado")
+    })
+    @PutMapping(value = "/producto/{productoId}/umbral-reposicion", consumes = "application/json")
+    public ResponseEntity<EntityModel<InventarioResponseDto>> actualizarUmbralReposicion(
+            @Parameter(description = "ID del producto")
+            @PathVariable Long productoId,
+            @Valid @RequestBody UmbralReposicionDto umbralDto) {
+
+        Inventario inventario = inventarioService.actualizarUmbralReposicion(productoId, umbralDto.getUmbral());
+        return ResponseEntity.ok(toModel(inventarioService.combinarInventario(inventario, true)));
+    }
+
+    @Operation(summary = "Listar productos con stock bajo el umbral de reposición",
+               description = "Devuelve, del más al menos urgente, los inventarios cuyo disponible es igual o menor que su umbral. "
+                       + "La consulta recorre solo el rango afectado de un índice y resuelve los productos en una única llamada por página. Requiere API Key.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Página de inventarios bajo el umbral"),
+            @ApiResponse(responseCode = "401", description = "No autorizado")
+    })
+    @GetMapping("/bajo-umbral")
+    public ResponseEntity<PagedModel<EntityModel<InventarioResponseDto>>> listarInventarioBajoUmbral(
+            @Parameter(hidden = true)
+            @PageableDefault(size = 20, sort = {"margenReposicion", "id"}) Pageable pageable) {
+
+        Page<InventarioResponseDto> pagina = inventarioService.listarInventarioBajoUmbral(pageable);
+        return ResponseEntity.ok(pagedResourcesAssembler.toModel(pagina, this::toModel));
+    }
+
+    @Operation(summary = "Suscribirse a las alertas de stock bajo (SSE)",
+               description = "Flujo Server-Sent Events con un evento 'stock-bajo' cada vez que una compra cruza el umbral de reposición de un producto. "
+                       + "Para conocer el estado actual al conectar, consultar /inventarios/bajo-umbral. Requiere API Key.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Flujo de eventos abierto"),
+            @ApiResponse(responseCode = "401", description = "No autorizado")
+    })
+    @GetMapping(value = "/alertas", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter suscribirAlertas() {
+        return alertasStock.suscribir();
+    }
+
+    @Operation(summary = "Procesar una compra de varios productos (checkout)",
+               description = "Descuenta todas las líneas en una sola transacción: o se aplican todas o ninguna. Requiere API Key.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Compra procesada, devuelve el inventario resultante de cada producto"),
+            @ApiResponse(responseCode = "401", description = "No autorizado"),
+            @ApiResponse(responseCode = "400", description = "Cantidad insuficiente en alguna línea o solicitud inválida"),
+            @ApiResponse(responseCode = "404", description = "Inventario no encontrado para algún producto")
+    })
+    @PostMapping(value = "/compras", consumes = "application/json")
+    public ResponseEntity<CollectionModel<EntityModel<InventarioResponseDto>>> procesarCompraMultiple(
+            @Valid @RequestBody CompraMultipleRequestDto compraDto) {
+
+        List<EntityModel<InventarioResponseDto>> inventarios = inventarioService.procesarCompraMultiple(compraDto.getLineas())
+                .stream()
+                .map(this::toModel)
+                .collect(Collectors.toList());
+
+        return ResponseEntity.ok(CollectionModel.of(inventarios));
+    }
+
     @Operation(summary = "Listar todo el inventario (paginado)",
-               description = "Devuelve una lista paginada de todos los registros de inventario. Requiere API Key.")
+               description = "Devuelve una lista paginada de todos los registros de inventario. Con paginacion=CURSOR (o al enviar un cursor) "
+                       + "se pagina por id sin count(*) y los enlaces next/prev llevan cursores opacos; page y sort se ignoran en ese modo. Requiere API Key.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Página de inventario"),
+            @ApiResponse(responseCode = "400", description = "Cursor inválido"),
+            @ApiResponse(responseCode = "401", description = "No autorizado")
+    })
     @GetMapping
     public ResponseEntity<PagedModel<EntityModel<InventarioResponseDto>>> listarInventario(
+            @Parameter(description = "OFFSET (por defecto, con totales) o CURSOR (keyset por id, sin totales)")
+            @RequestParam(defaultValue = "OFFSET") ModoPaginacion paginacion,
+            @Parameter(description = "Cursor opaco tomado de los enlaces next/prev; implica paginacion=CURSOR")
+            @RequestParam(required = false) String cursor,
             @Parameter(hidden = true)
             @PageableDefault(size = 20, sort = "id") Pageable pageable) {
-        
+
+        if (paginacion == ModoPaginacion.CURSOR || cursor != null) {
+            PaginaCursor<InventarioResponseDto> pagina = inventarioService.listarInventarioPorCursor(cursor, pageable.getPageSize());
+            return ResponseEntity.ok(toModel(pagina));
+        }
+
         Page<InventarioResponseDto> pagina = inventarioService.listarInventario(pageable);
         
         PagedModel<EntityModel<InventarioResponseDto>> pagedModel = 
@@ -114,11 +227,65 @@ public class InventarioController {
         return ResponseEntity.ok(pagedModel);
     }
 
+    @Operation(summary = "Crear registros de inventario por lote (Interno)",
+               description = "Endpoint interno llamado por el relay del outbox de producto-service. Cada solicitud trae una clave de idempotencia; las ya aplicadas se ignoran, por lo que el lote puede reenviarse sin riesgo. Requiere API Key.",
+               hidden = true)
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Lote aplicado; devuelve solo los inventarios creados en esta llamada"),
+            @ApiResponse(responseCode = "401", description = "No autorizado")
+    })
+    @PostMapping(value = "/internal/lote", consumes = "application/json")
+    public ResponseEntity<List<Inventario>> crearRegistrosInventario(@RequestBody List<InventarioRequestDto> solicitudes) {
+        return ResponseEntity.ok(inventarioService.crearRegistrosInventario(solicitudes));
+    }
+
+    @Operation(summary = "Exportar todo el inventario",
+               description = "Escribe todos los registros de inventario, con nombre y precio del producto, directamente en la respuesta. "
+                       + "Las filas se leen con un cursor de solo avance y los productos se resuelven por lotes, por lo que la memoria no depende del tamaño de la tabla. Requiere API Key.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Exportación en NDJSON (application/x-ndjson) o CSV (text/csv)"),
+            @ApiResponse(responseCode = "401", description = "No autorizado")
+    })
+    @GetMapping("/exportacion")
+    public void exportarInventario(
+            @Parameter(description = "NDJSON (por defecto) o CSV")
+            @RequestParam(defaultValue = "NDJSON") FormatoExportacion formato,
+            HttpServletResponse response) throws IOException {
+
+        boolean csv = formato == FormatoExportacion.CSV;
+        response.setContentType(csv ? "text/csv" : "application/x-ndjson");
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=inventario." + (csv ? "csv" : "ndjson"));
+        inventarioService.exportarInventario(formato, response.getOutputStream());
+    }
+
+    @Operation(summary = "Recibir un evento de cambio de producto (Interno)",
+               description = "Webhook llamado por producto-service cuando un producto se actualiza o elimina, para refrescar o invalidar la caché local. Requiere API Key.",
+               hidden = true)
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "204", description = "Evento procesado"),
+            @ApiResponse(responseCode = "401", description = "No autorizado")
+    })
+    @PostMapping(value = "/internal/eventos-producto", consumes = "application/json")
+    public ResponseEntity<Void> recibirEventoProducto(@RequestBody ProductoEventoDto evento) {
+        inventarioService.procesarEventoProducto(evento);
+        return ResponseEntity.noContent().build();
+    }
+
     @lombok.Data
     static class CompraDto {
         private int cantidad;
     }
 
+    // ETag débil: versión de la fila, cantidades (el ledger las cambia sin tocar la versión) y versión del
+    // producto ("x" si la respuesta lleva datos de producto de respaldo). Si coincide, Spring responde 304 sin cuerpo.
+    private static String etag(InventarioResponseDto inventarioDto) {
+        ProductoDto producto = inventarioDto.getProducto();
+        String versionProducto = producto != null && producto.getVersion() != null ? producto.getVersion().toString() : "x";
+        return "W/\"" + inventarioDto.getVersion() + "." + inventarioDto.getCantidad() + "." + inventarioDto.getDisponible()
+                + "-" + versionProducto + "\"";
+    }
+
     private EntityModel<InventarioResponseDto> toModel(InventarioResponseDto inventarioDto) {
         
         Long productoId = (inventarioDto.getProducto() != null) ? inventarioDto.getProducto().getId() : 0L;
@@ -128,4 +295,28 @@ public class InventarioController {
         
         return EntityModel.of(inventarioDto, selfLink);
     }
-}
\ No newline at end of file
+
+    // Sin PageMetadata: en modo cursor no hay totales ni número de página.
+    private PagedModel<EntityModel<InventarioResponseDto>> toModel(PaginaCursor<InventarioResponseDto> pagina) {
+        List<Link> links = new ArrayList<>();
+        links.add(Link.of(ServletUriComponentsBuilder.fromCurrentRequest().toUriString()).withSelfRel());
+        if (pagina.getSiguiente() != null) {
+            links.add(Link.of(conCursor(pagina.getSiguiente()), IanaLinkRelations.NEXT));
+        }
+        if (pagina.getAnterior() != null) {
+            links.add(Link.of(conCursor(pagina.getAnterior()), IanaLinkRelations.PREV));
+        }
+
+        List<EntityModel<InventarioResponseDto>> contenido = pagina.getContenido().stream()
+                .map(this::toModel)
+                .collect(Collectors.toList());
+        return PagedModel.of(contenido, null, links);
+    }
+
+    private String conCursor(String cursor) {
+        return ServletUriComponentsBuilder.fromCurrentRequest()
+                .replaceQueryParam("paginacion")
+                .replaceQueryParam("cursor", cursor)
+                .toUriString();
+    }
+}
@@ -0,0 +1,101 @@
+package com.linktic.inventario.controller;
+
+import com.linktic.inventario.dto.ReservaRequestDto;
+import com.linktic.inventario.model.Reserva;
+import com.linktic.inventario.service.ReservaService;
+import lombok.RequiredArgsConstructor;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+
+import org.springframework.hateoas.EntityModel;
+import org.springframework.hateoas.Link;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import javax.validation.Valid;
+
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.methodOn;
+
+@RestController
+@RequestMapping(value = "/inventarios/reservas")
+@RequiredArgsConstructor
+@Tag(name = "API de Reservas", description = "Endpoints para retener stock temporalmente antes de confirmar una compra")
+public class ReservaController {
+
+    private final ReservaService reservaService;
+
+    @Operation(summary = "Crear una reserva de stock",
+               description = "Retiene una cantidad de un producto durante ttlSegundos (o el TTL por defecto). Mientras la reserva esté activa "
+                       + "esa cantidad no está disponible para otras compras ni reservas. Requiere API Key.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "201", description = "Reserva creada"),
+            @ApiResponse(responseCode = "400", description = "Cantidad insuficiente en inventario o solicitud inválida"),
+            @ApiResponse(responseCode = "401", description = "No autorizado"),
+            @ApiResponse(responseCode = "404", description = "Inventario no encontrado")
+    })
+    @PostMapping(consumes = "application/json")
+    public ResponseEntity<EntityModel<Reserva>> crearReserva(@Valid @RequestBody ReservaRequestDto requestDto) {
+        Reserva reserva = reservaService.crearReserva(requestDto);
+        return new ResponseEntity<>(toModel(reserva), HttpStatus.CREATED);
+    }
+
+    @Operation(summary = "Obtener una reserva por su ID", description = "Requiere API Key.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Reserva encontrada"),
+            @ApiResponse(responseCode = "401", description = "No autorizado"),
+            @ApiResponse(responseCode = "404", description = "Reserva no encontrada")
+    })
+    @GetMapping("/{reservaId}")
+    public ResponseEntity<EntityModel<Reserva>> obtenerReserva(
+            @Parameter(description = "ID de la reserva")
+            @PathVariable Long reservaId) {
+
+        return ResponseEntity.ok(toModel(reservaService.obtenerReserva(reservaId)));
+    }
+
+    @Operation(summary = "Confirmar una reserva",
+               description = "Convierte la retención en una compra: descuenta definitivamente la cantidad reservada. Requiere API Key.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Reserva confirmada"),
+            @ApiResponse(responseCode = "401", description = "No autorizado"),
+            @ApiResponse(responseCode = "404", description = "Reserva no encontrada"),
+            @ApiResponse(responseCode = "409", description = "La reserva ya no está activa (confirmada, liberada o expirada)")
+    })
+    @PostMapping("/{reservaId}/confirmacion")
+    public ResponseEntity<EntityModel<Reserva>> confirmarReserva(
+            @Parameter(description = "ID de la reserva a confirmar")
+            @PathVariable Long reservaId) {
+
+        return ResponseEntity.ok(toModel(reservaService.confirmarReserva(reservaId)));
+    }
+
+    @Operation(summary = "Liberar una reserva",
+               description = "Devuelve la cantidad retenida al stock disponible. Requiere API Key.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "204", description = "Reserva liberada"),
+            @ApiResponse(responseCode = "401", description = "No autorizado"),
+            @ApiResponse(responseCode = "404", description = "Reserva no encontrada"),
+            @ApiResponse(responseCode = "409", description = "La reserva ya no está activa")
+    })
+    @DeleteMapping("/{reservaId}")
+    public ResponseEntity<Void> liberarReserva(
+            @Parameter(description = "ID de la reserva a liberar")
+            @PathVariable Long reservaId) {
+
+        reservaService.liberarReserva(reservaId);
+        return ResponseEntity.noContent().build();
+    }
+
+    private EntityModel<Reserva> toModel(Reserva reserva) {
+        Link selfLink = linkTo(methodOn(ReservaController.class)
+                .obtenerReserva(reserva.getId())).withSelfRel();
+
+        return EntityModel.of(reserva, selfLink);
+    }
+}
@@ -0,0 +1,18 @@
+package com.linktic.inventario.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AlertaStockDto {
+    private Long productoId;
+    private Long inventarioId;
+    private int disponible;
+    private int umbralReposicion;
+    private Instant instante;
+}
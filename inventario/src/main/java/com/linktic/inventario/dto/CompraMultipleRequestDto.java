@@ -0,0 +1,18 @@
+package com.linktic.inventario.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.validation.Valid;
+import javax.validation.constraints.NotEmpty;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CompraMultipleRequestDto {
+
+    @NotEmpty
+    private List<@Valid LineaCompraDto> lineas;
+}
@@ -0,0 +1,21 @@
+package com.linktic.inventario.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+// Fila plana de la exportación de inventario; nombre y precio quedan vacíos si producto-service no resolvió el producto.
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class FilaExportacionDto {
+    private Long inventarioId;
+    private Long productoId;
+    private String nombre;
+    private BigDecimal precio;
+    private int cantidad;
+    private int reservado;
+    private int disponible;
+}
@@ -0,0 +1,6 @@
+package com.linktic.inventario.dto;
+
+public enum FormatoExportacion {
+    NDJSON,
+    CSV
+}
@@ -8,4 +8,5 @@ import lombok.NoArgsConstructor;
 public class InventarioRequestDto {
     private Long productoId;
     private int cantidad;
-}
\ No newline at end of file
+    private String claveIdempotencia;
+}
@@ -1,5 +1,6 @@
 package com.linktic.inventario.dto;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.toedter.spring.hateoas.jsonapi.JsonApiId;
 import lombok.AllArgsConstructor;
 import lombok.Data;
@@ -15,10 +16,19 @@ public class InventarioResponseDto {
 
     private int cantidad;
 
+    private int disponible;
+
+    private int umbralReposicion;
+
     private ProductoDto producto;
 
+    // Versión de la fila de inventario; solo se usa para el ETag.
+    @JsonIgnore
+    private long version;
+
     public InventarioResponseDto(int cantidad, ProductoDto producto) {
         this.cantidad = cantidad;
+        this.disponible = cantidad;
         this.producto = producto;
     }
 }
\ No newline at end of file
@@ -0,0 +1,20 @@
+package com.linktic.inventario.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.validation.constraints.NotNull;
+import javax.validation.constraints.Positive;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class LineaCompraDto {
+
+    @NotNull
+    private Long productoId;
+
+    @Positive
+    private int cantidad;
+}
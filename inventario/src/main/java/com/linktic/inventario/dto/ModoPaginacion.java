@@ -0,0 +1,8 @@
+package com.linktic.inventario.dto;
+
+public enum ModoPaginacion {
+    // page/size con OFFSET y count(*) total
+    OFFSET,
+    // keyset sobre id con cursores opacos; sin count(*) y coste constante en páginas profundas
+    CURSOR
+}
@@ -0,0 +1,7 @@
+package com.linktic.inventario.dto;
+
+public enum ModoRespuestaCompra {
+    COMBINADA,
+    ENTIDAD,
+    CACHE
+}
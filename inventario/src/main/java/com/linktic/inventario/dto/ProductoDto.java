@@ -12,4 +12,12 @@ public class ProductoDto {
     private Long id;
     private String nombre;
     private BigDecimal precio;
+    // Versión de la entidad en producto-service; con ella se revalida la copia en caché (If-None-Match).
+    private Long version;
+
+    public ProductoDto(Long id, String nombre, BigDecimal precio) {
+        this.id = id;
+        this.nombre = nombre;
+        this.precio = precio;
+    }
 }
\ No newline at end of file
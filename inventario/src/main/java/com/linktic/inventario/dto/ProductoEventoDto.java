@@ -0,0 +1,22 @@
+package com.linktic.inventario.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductoEventoDto {
+
+    public enum TipoEvento {
+        PRODUCTO_ACTUALIZADO,
+        PRODUCTO_ELIMINADO
+    }
+
+    private TipoEvento tipo;
+
+    private Long productoId;
+
+    private ProductoDto producto;
+}
@@ -0,0 +1,16 @@
+package com.linktic.inventario.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.validation.constraints.PositiveOrZero;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UmbralReposicionDto {
+
+    @PositiveOrZero
+    private int umbral;
+}
@@ -0,0 +1,12 @@
+package com.linktic.inventario.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.BAD_REQUEST)
+public class CursorInvalidoException extends RuntimeException {
+
+    public CursorInvalidoException(String message) {
+        super(message);
+    }
+}
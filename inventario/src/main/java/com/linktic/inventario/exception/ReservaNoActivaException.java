@@ -0,0 +1,12 @@
+package com.linktic.inventario.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.CONFLICT)
+public class ReservaNoActivaException extends RuntimeException {
+
+    public ReservaNoActivaException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,355 @@
+package com.linktic.inventario.ledger;
+
+import com.linktic.inventario.exception.InventarioNotFoundException;
+import com.linktic.inventario.exception.StockInsuficienteException;
+import com.linktic.inventario.model.Inventario;
+import com.linktic.inventario.model.LedgerCheckpoint;
+import com.linktic.inventario.repository.InventarioRepository;
+import com.linktic.inventario.repository.LedgerCheckpointRepository;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Paths;
+import java.util.Map;
+import java.util.OptionalInt;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+
+// Ledger en memoria para los productos "calientes": las compras se resuelven con CAS sobre un
+// contador por SKU, se registran en un journal local antes de confirmarse y los deltas se vuelcan
+// a la tabla Inventario por lotes. El checkpoint se guarda en la misma transacción que el volcado,
+// de modo que al reiniciar solo se reaplican los registros del journal que aún no llegaron a la BD.
+@Component
+public class StockLedger {
+
+    private static final Logger log = LoggerFactory.getLogger(StockLedger.class);
+    private static final String CHECKPOINT = "stock-ledger";
+
+    private static final class Cuenta {
+        final Long inventarioId;
+        final AtomicInteger reservado;
+        final AtomicInteger disponible;
+        final AtomicInteger pendiente = new AtomicInteger();
+        volatile int umbralReposicion;
+
+        Cuenta(Long inventarioId, int reservado, int disponible, int umbralReposicion) {
+            this.inventarioId = inventarioId;
+            this.reservado = new AtomicInteger(reservado);
+            this.disponible = new AtomicInteger(disponible);
+            this.umbralReposicion = umbralReposicion;
+        }
+    }
+
+    private final InventarioRepository inventarioRepository;
+    private final LedgerCheckpointRepository checkpointRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean habilitado;
+    private final Set<Long> productosCalientes;
+    private final LedgerJournal journal;
+    private final ReentrantReadWriteLock[] shards;
+    private final Map<Long, Cuenta> cuentas = new ConcurrentHashMap<>();
+
+    public StockLedger(InventarioRepository inventarioRepository,
+                       LedgerCheckpointRepository checkpointRepository,
+                       TransactionTemplate transactionTemplate,
+                       @Value("${inventario.ledger.habilitado:false}") boolean habilitado,
+                       @Value("${inventario.ledger.productos:}") Set<Long> productosCalientes,
+                       @Value("${inventario.ledger.directorio:./ledger}") String directorio,
+                       @Value("${inventario.ledger.fsync:true}") boolean fsync,
+                       @Value("${inventario.ledger.shards:16}") int numeroShards) {
+        this.inventarioRepository = inventarioRepository;
+        this.checkpointRepository = checkpointRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.habilitado = habilitado;
+        this.productosCalientes = productosCalientes;
+        this.journal = new LedgerJournal(Paths.get(directorio), fsync);
+        this.shards = new ReentrantReadWriteLock[numeroShards];
+        for (int i = 0; i < numeroShards; i++) {
+            shards[i] = new ReentrantReadWriteLock();
+        }
+    }
+
+    @PostConstruct
+    public void recuperar() {
+        if (!habilitado) {
+            return;
+        }
+        long checkpoint = checkpointRepository.findById(CHECKPOINT).map(LedgerCheckpoint::getSecuencia).orElse(0L);
+
+        TreeMap<Long, Integer> deltas = new TreeMap<>();
+        long ultimaSecuencia = checkpoint;
+        for (LedgerJournal.Registro registro : journal.leerRegistros()) {
+            ultimaSecuencia = Math.max(ultimaSecuencia, registro.secuencia);
+            if (registro.secuencia > checkpoint) {
+                deltas.merge(registro.productoId, registro.delta, Integer::sum);
+            }
+        }
+
+        if (!deltas.isEmpty()) {
+            aplicar(deltas, ultimaSecuencia);
+            log.info("Ledger recuperado desde el journal. productos: {}, hastaSecuencia: {}", deltas.size(), ultimaSecuencia);
+        }
+
+        try {
+            journal.eliminarSegmentosHasta(Long.MAX_VALUE);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        journal.abrir(ultimaSecuencia + 1);
+    }
+
+    public boolean esCaliente(Long productoId) {
+        return habilitado && productosCalientes.contains(productoId);
+    }
+
+    public OptionalInt cantidadDisponible(Long productoId) {
+        Cuenta cuenta = cuentas.get(productoId);
+        return cuenta == null ? OptionalInt.empty() : OptionalInt.of(cuenta.disponible.get());
+    }
+
+    public Inventario descontar(Long productoId, int cantidad) {
+        Cuenta cuenta = cuenta(productoId);
+        ReentrantReadWriteLock.ReadLock lock = shard(productoId).readLock();
+
+        int nuevaCantidad;
+        long secuencia;
+        lock.lock();
+        try {
+            while (true) {
+                int actual = cuenta.disponible.get();
+                if (cantidad > actual) {
+                    throw new StockInsuficienteException("Cantidad solicitada (" + cantidad + ") excede el stock disponible (" + actual + ").");
+                }
+                if (cuenta.disponible.compareAndSet(actual, actual - cantidad)) {
+                    nuevaCantidad = actual - cantidad;
+                    break;
+                }
+            }
+            secuencia = registrar(cuenta, productoId, cantidad);
+        } finally {
+            lock.unlock();
+        }
+
+        sincronizar(secuencia);
+        int reservado = cuenta.reservado.get();
+        Inventario inventario = new Inventario(cuenta.inventarioId, productoId, nuevaCantidad + reservado, reservado, 0L);
+        inventario.setUmbralReposicion(cuenta.umbralReposicion);
+        return inventario;
+    }
+
+    public void reponer(Long productoId, int cantidad) {
+        // Una reserva retenida en el ledger puede terminar con el ledger ya deshabilitado o el producto fuera de la
+        // lista de calientes (tras un reinicio): su descuento ya se volcó a la BD y se repone allí.
+        if (!esCaliente(productoId)) {
+            transactionTemplate.executeWithoutResult(status -> inventarioRepository.ajustarStock(productoId, -cantidad));
+            return;
+        }
+        Cuenta cuenta = cuenta(productoId);
+        ReentrantReadWriteLock.ReadLock lock = shard(productoId).readLock();
+
+        long secuencia;
+        lock.lock();
+        try {
+            cuenta.disponible.addAndGet(cantidad);
+            secuencia = registrar(cuenta, productoId, -cantidad);
+        } finally {
+            lock.unlock();
+        }
+        sincronizar(secuencia);
+    }
+
+    // Cambios hechos en la tabla, dentro de la transacción en curso, sobre un producto que puede tener cuenta
+    // (umbral, o reservas creadas antes de que el producto fuera caliente). Se llaman con la fila ya escrita:
+    // desde aquí hasta el commit se retiene el shard y no se debe esperar a otro bloqueo de fila.
+    public void actualizarUmbral(Long productoId, int umbralReposicion) {
+        trasConfirmar(productoId, cuenta -> cuenta.umbralReposicion = umbralReposicion);
+    }
+
+    public void reservaFinalizadaEnBd(Long productoId, int cantidad, boolean liberada) {
+        trasConfirmar(productoId, cuenta -> {
+            cuenta.reservado.addAndGet(-cantidad);
+            if (liberada) {
+                cuenta.disponible.addAndGet(cantidad);
+            }
+        });
+    }
+
+    public void descartar(Long productoId) {
+        cuentas.remove(productoId);
+    }
+
+    @Scheduled(fixedDelayString = "${inventario.ledger.intervalo-flush-ms:200}")
+    public void volcar() {
+        if (!habilitado) {
+            return;
+        }
+
+        TreeMap<Long, Integer> deltas = new TreeMap<>();
+        long segmento;
+        long hastaSecuencia;
+        for (ReentrantReadWriteLock shard : shards) {
+            shard.writeLock().lock();
+        }
+        try {
+            cuentas.forEach((productoId, cuenta) -> {
+                int delta = cuenta.pendiente.getAndSet(0);
+                if (delta != 0) {
+                    deltas.put(productoId, delta);
+                }
+            });
+            hastaSecuencia = journal.ultimaSecuencia();
+            segmento = deltas.isEmpty() ? -1 : journal.rotar();
+        } catch (IOException e) {
+            devolverPendientes(deltas);
+            log.error("No se pudo rotar el journal del ledger", e);
+            return;
+        } finally {
+            for (ReentrantReadWriteLock shard : shards) {
+                shard.writeLock().unlock();
+            }
+        }
+
+        if (deltas.isEmpty()) {
+            return;
+        }
+
+        try {
+            aplicar(deltas, hastaSecuencia);
+        } catch (RuntimeException e) {
+            devolverPendientes(deltas);
+            log.error("Error al volcar el ledger a la base de datos. Se reintentará en el próximo ciclo", e);
+            return;
+        }
+
+        try {
+            journal.eliminarSegmentosHasta(segmento);
+        } catch (IOException e) {
+            log.warn("No se pudieron eliminar los segmentos ya volcados del journal", e);
+        }
+    }
+
+    @PreDestroy
+    public void detener() throws IOException {
+        if (!habilitado) {
+            return;
+        }
+        volcar();
+        journal.cerrar();
+    }
+
+    // La carga toma el shard en exclusiva, así que espera a que terminen las transacciones con cambios pendientes
+    // de aplicar (trasConfirmar) y lee la fila ya confirmada.
+    private Cuenta cuenta(Long productoId) {
+        Cuenta cuenta = cuentas.get(productoId);
+        if (cuenta != null) {
+            return cuenta;
+        }
+        ReentrantReadWriteLock shard = shard(productoId);
+        if (shard.getReadHoldCount() > 0) {
+            throw new IllegalStateException("No se puede cargar la cuenta del productoId " + productoId
+                    + " en una transacción con cambios del ledger pendientes de confirmar");
+        }
+        shard.writeLock().lock();
+        try {
+            return cuentas.computeIfAbsent(productoId, id -> {
+                Inventario inventario = inventarioRepository.findByProductoId(id)
+                        .orElseThrow(() -> new InventarioNotFoundException("Inventario no encontrado para el productoId: " + id));
+                return new Cuenta(inventario.getId(), inventario.getReservado(), inventario.getDisponible(), inventario.getUmbralReposicion());
+            });
+        } finally {
+            shard.writeLock().unlock();
+        }
+    }
+
+    // Aplica el cambio a la cuenta tras el commit y lo descarta con un rollback. Hasta que termina la transacción
+    // se retiene el lock de lectura del shard: una cuenta que se cargue entretanto espera y lee la fila ya
+    // confirmada, y una cargada antes (con el valor previo) recibe el cambio una sola vez, en afterCommit.
+    private void trasConfirmar(Long productoId, Consumer<Cuenta> cambio) {
+        if (!habilitado) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            aplicarSiCargada(productoId, cambio);
+            return;
+        }
+        ReentrantReadWriteLock.ReadLock lock = shard(productoId).readLock();
+        lock.lock();
+        try {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    aplicarSiCargada(productoId, cambio);
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    lock.unlock();
+                }
+            });
+        } catch (RuntimeException e) {
+            lock.unlock();
+            throw e;
+        }
+    }
+
+    private void aplicarSiCargada(Long productoId, Consumer<Cuenta> cambio) {
+        Cuenta cuenta = cuentas.get(productoId);
+        if (cuenta != null) {
+            cambio.accept(cuenta);
+        }
+    }
+
+    private ReentrantReadWriteLock shard(Long productoId) {
+        return shards[Math.floorMod(productoId.hashCode(), shards.length)];
+    }
+
+    private long registrar(Cuenta cuenta, Long productoId, int delta) {
+        try {
+            long secuencia = journal.registrar(productoId, delta);
+            cuenta.pendiente.addAndGet(delta);
+            return secuencia;
+        } catch (IOException e) {
+            cuenta.disponible.addAndGet(delta);
+            throw new UncheckedIOException("No se pudo registrar la operación en el journal del ledger", e);
+        }
+    }
+
+    private void sincronizar(long secuencia) {
+        try {
+            journal.sincronizar(secuencia);
+        } catch (IOException e) {
+            throw new UncheckedIOException("No se pudo sincronizar el journal del ledger", e);
+        }
+    }
+
+    private void aplicar(Map<Long, Integer> deltas, long hastaSecuencia) {
+        transactionTemplate.executeWithoutResult(status -> {
+            deltas.forEach(inventarioRepository::ajustarStock);
+            checkpointRepository.save(new LedgerCheckpoint(CHECKPOINT, hastaSecuencia));
+        });
+    }
+
+    private void devolverPendientes(Map<Long, Integer> deltas) {
+        deltas.forEach((productoId, delta) -> {
+            Cuenta cuenta = cuentas.get(productoId);
+            if (cuenta != null) {
+                cuenta.pendiente.addAndGet(delta);
+            }
+        });
+    }
+}
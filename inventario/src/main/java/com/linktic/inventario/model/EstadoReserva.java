@@ -0,0 +1,8 @@
+package com.linktic.inventario.model;
+
+public enum EstadoReserva {
+    ACTIVA,
+    CONFIRMADA,
+    LIBERADA,
+    EXPIRADA
+}
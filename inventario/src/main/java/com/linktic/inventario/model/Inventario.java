@@ -5,21 +5,42 @@ import com.toedter.spring.hateoas.jsonapi.JsonApiId;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Parameter;
 
+import javax.persistence.Cacheable;
 import javax.persistence.Column;
 import javax.persistence.Entity;
 import javax.persistence.GeneratedValue;
 import javax.persistence.GenerationType;
 import javax.persistence.Id;
+import javax.persistence.Index;
+import javax.persistence.PrePersist;
+import javax.persistence.PreUpdate;
+import javax.persistence.Table;
+import javax.persistence.Version;
 
 @Entity
+@Table(indexes = @Index(name = "idx_inventario_margen_reposicion", columnList = "margenReposicion"))
+// Solo se usa con cache.segundo-nivel.habilitado=true (ver CacheSegundoNivelConfig).
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "inventario")
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class Inventario {
 
+    // Generador por tabla con bloques de ids (pooled-lo): con IDENTITY Hibernate no puede agrupar los INSERT en lotes JDBC.
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "inventario_seq")
+    @GenericGenerator(name = "inventario_seq", strategy = "org.hibernate.id.enhanced.SequenceStyleGenerator", parameters = {
+            @Parameter(name = "sequence_name", value = "inventario_seq"),
+            @Parameter(name = "increment_size", value = "100"),
+            @Parameter(name = "optimizer", value = "pooled-lo"),
+            @Parameter(name = "force_table_use", value = "true")
+    })
     @JsonApiId
     private Long id;
 
@@ -28,4 +49,43 @@ public class Inventario {
 
     @Column(nullable = false)
     private int cantidad;
-}
\ No newline at end of file
+
+    @Column(nullable = false)
+    private int reservado;
+
+    @Column(nullable = false)
+    private int umbralReposicion;
+
+    // Disponible menos umbral, desnormalizado para que "bajo umbral" sea un rango sobre un índice
+    // (margenReposicion <= 0) y no una comparación entre columnas que obliga a recorrer la tabla.
+    // Lo mantienen las actualizaciones masivas del repositorio y, en escrituras por entidad, recalcularMargen().
+    private Integer margenReposicion;
+
+    @Version
+    @Column(nullable = false)
+    private long version;
+
+    public Inventario(Long id, Long productoId, int cantidad) {
+        this.id = id;
+        this.productoId = productoId;
+        this.cantidad = cantidad;
+    }
+
+    public Inventario(Long id, Long productoId, int cantidad, int reservado, long version) {
+        this.id = id;
+        this.productoId = productoId;
+        this.cantidad = cantidad;
+        this.reservado = reservado;
+        this.version = version;
+    }
+
+    @PrePersist
+    @PreUpdate
+    void recalcularMargen() {
+        margenReposicion = getDisponible() - umbralReposicion;
+    }
+
+    public int getDisponible() {
+        return cantidad - reservado;
+    }
+}
@@ -0,0 +1,6 @@
+package com.linktic.inventario.model;
+
+public enum ModoCompra {
+    ATOMICO,
+    OPTIMISTA
+}
@@ -0,0 +1,47 @@
+package com.linktic.inventario.model;
+
+import com.toedter.spring.hateoas.jsonapi.JsonApiId;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.EnumType;
+import javax.persistence.Enumerated;
+import javax.persistence.GeneratedValue;
+import javax.persistence.GenerationType;
+import javax.persistence.Id;
+import javax.persistence.Index;
+import javax.persistence.Table;
+import java.time.Instant;
+
+@Entity
+@Table(indexes = @Index(name = "idx_reserva_estado_expira", columnList = "estado, expiraEn"))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class Reserva {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @JsonApiId
+    private Long id;
+
+    @Column(nullable = false)
+    private Long productoId;
+
+    @Column(nullable = false)
+    private int cantidad;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private EstadoReserva estado;
+
+    @Column(nullable = false)
+    private Instant expiraEn;
+
+    @Column(nullable = false)
+    private boolean enLedger;
+}
@@ -0,0 +1,53 @@
+package com.linktic.inventario.model;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.domain.Persistable;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.PostLoad;
+import javax.persistence.PostPersist;
+import javax.persistence.Transient;
+import java.time.Instant;
+
+// Claves de idempotencia ya aplicadas; permiten que producto-service reenvíe un lote sin duplicar efectos.
+// Con id asignado, save() haría un SELECT por fila para decidir entre persist y merge; se marcan como nuevas
+// hasta cargarlas o persistirlas para que el lote se inserte directamente (y en lotes JDBC).
+@Entity
+@Data
+@NoArgsConstructor
+public class SolicitudProcesada implements Persistable<String> {
+
+    @Id
+    @Column(length = 64)
+    private String clave;
+
+    @Column(nullable = false)
+    private Instant procesadaEn;
+
+    @Transient
+    private boolean nueva = true;
+
+    public SolicitudProcesada(String clave, Instant procesadaEn) {
+        this.clave = clave;
+        this.procesadaEn = procesadaEn;
+    }
+
+    @Override
+    public String getId() {
+        return clave;
+    }
+
+    @Override
+    public boolean isNew() {
+        return nueva;
+    }
+
+    @PostLoad
+    @PostPersist
+    void marcarPersistida() {
+        nueva = false;
+    }
+}
@@ -1,13 +1,75 @@
 package com.linktic.inventario.repository;
 
 import com.linktic.inventario.model.Inventario;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import javax.persistence.QueryHint;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface InventarioRepository extends JpaRepository<Inventario, Long> {
     
+    // Con la caché de segundo nivel habilitada el id sale de la caché de consultas y la fila de la región
+    // de Inventario; cualquier escritura en la tabla invalida ambas. Sin ella la pista se ignora.
+    @QueryHints(@QueryHint(name = org.hibernate.jpa.QueryHints.HINT_CACHEABLE, value = "true"))
     Optional<Inventario> findByProductoId(Long productoId);
-}
\ No newline at end of file
+
+    List<Inventario> findByProductoIdInOrderByProductoId(Collection<Long> productoIds);
+
+    // Paginación keyset: el Pageable solo aporta el LIMIT; al devolver List no se ejecuta count(*).
+    List<Inventario> findByOrderByIdAsc(Pageable limite);
+
+    List<Inventario> findByIdGreaterThanOrderByIdAsc(Long id, Pageable limite);
+
+    List<Inventario> findByIdLessThanOrderByIdDesc(Long id, Pageable limite);
+
+    // Tramo de la exportación por keyset: cada consulta trae como mucho un lote, así que la memoria no depende
+    // del número de filas ni de cómo el driver lea el resultado. La expresión constructora devuelve instancias
+    // no gestionadas, así que el contexto de persistencia no crece con el número de filas.
+    @Query("SELECT new com.linktic.inventario.model.Inventario(i.id, i.productoId, i.cantidad, i.reservado, i.version) " +
+           "FROM Inventario i WHERE i.id > :despuesDe ORDER BY i.id")
+    List<Inventario> leerTramoExportacion(@Param("despuesDe") Long despuesDe, Pageable limite);
+
+    // Inventarios con disponible <= umbral de reposición, del más urgente al menos urgente.
+    Page<Inventario> findByMargenReposicionLessThanEqual(int margen, Pageable pageable);
+
+    // Filas creadas antes de existir margenReposicion; con todas ya calculadas no actualiza nada.
+    @Modifying
+    @Query("UPDATE Inventario i SET i.margenReposicion = i.cantidad - i.reservado - i.umbralReposicion " +
+           "WHERE i.margenReposicion IS NULL")
+    int calcularMargenesPendientes();
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Inventario i SET i.cantidad = i.cantidad - :cantidad, i.margenReposicion = i.margenReposicion - :cantidad, " +
+           "i.version = i.version + 1 WHERE i.productoId = :productoId AND i.cantidad - i.reservado >= :cantidad")
+    int descontarStock(@Param("productoId") Long productoId, @Param("cantidad") int cantidad);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Inventario i SET i.reservado = i.reservado + :cantidad, i.margenReposicion = i.margenReposicion - :cantidad, " +
+           "i.version = i.version + 1 WHERE i.productoId = :productoId AND i.cantidad - i.reservado >= :cantidad")
+    int reservarStock(@Param("productoId") Long productoId, @Param("cantidad") int cantidad);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Inventario i SET i.reservado = i.reservado - :cantidad, i.margenReposicion = i.margenReposicion + :cantidad, " +
+           "i.version = i.version + 1 WHERE i.productoId = :productoId AND i.reservado >= :cantidad")
+    int liberarStockReservado(@Param("productoId") Long productoId, @Param("cantidad") int cantidad);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Inventario i SET i.cantidad = i.cantidad - :cantidad, i.reservado = i.reservado - :cantidad, " +
+           "i.version = i.version + 1 WHERE i.productoId = :productoId AND i.reservado >= :cantidad")
+    int confirmarStockReservado(@Param("productoId") Long productoId, @Param("cantidad") int cantidad);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Inventario i SET i.cantidad = i.cantidad - :delta, i.margenReposicion = i.margenReposicion - :delta, " +
+           "i.version = i.version + 1 WHERE i.productoId = :productoId")
+    int ajustarStock(@Param("productoId") Long productoId, @Param("delta") int delta);
+}
@@ -0,0 +1,22 @@
+package com.linktic.inventario.repository;
+
+import com.linktic.inventario.model.EstadoReserva;
+import com.linktic.inventario.model.Reserva;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.List;
+
+@Repository
+public interface ReservaRepository extends JpaRepository<Reserva, Long> {
+
+    List<Reserva> findTop500ByEstadoAndExpiraEnBeforeOrderByExpiraEn(EstadoReserva estado, Instant limite);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Reserva r SET r.estado = :hacia WHERE r.id = :id AND r.estado = :desde")
+    int cambiarEstado(@Param("id") Long id, @Param("desde") EstadoReserva desde, @Param("hacia") EstadoReserva hacia);
+}
@@ -0,0 +1,9 @@
+package com.linktic.inventario.repository;
+
+import com.linktic.inventario.model.SolicitudProcesada;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface SolicitudProcesadaRepository extends JpaRepository<SolicitudProcesada, String> {
+}
@@ -1,18 +1,33 @@
 package com.linktic.inventario.service;
 
+import com.linktic.inventario.dto.FormatoExportacion;
 import com.linktic.inventario.dto.InventarioRequestDto;
 import com.linktic.inventario.dto.InventarioResponseDto;
+import com.linktic.inventario.dto.LineaCompraDto;
+import com.linktic.inventario.dto.PaginaCursor;
+import com.linktic.inventario.dto.ProductoEventoDto;
 import com.linktic.inventario.model.Inventario;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
+import java.io.OutputStream;
+import java.util.List;
+
 public interface InventarioService {
 
     Inventario crearRegistroInventario(InventarioRequestDto requestDto);
+    List<Inventario> crearRegistrosInventario(List<InventarioRequestDto> solicitudes);
     void eliminarRegistroInventarioPorProductoId(Long productoId);
     Inventario obtenerInventarioPorProductoId(Long productoId);
+    Inventario actualizarUmbralReposicion(Long productoId, int umbralReposicion);
     Inventario procesarCompra(Long productoId, int cantidadComprada);
+    List<InventarioResponseDto> procesarCompraMultiple(List<LineaCompraDto> lineas);
     Page<InventarioResponseDto> listarInventario(Pageable pageable);
+    Page<InventarioResponseDto> listarInventarioBajoUmbral(Pageable pageable);
+    PaginaCursor<InventarioResponseDto> listarInventarioPorCursor(String cursor, int tamano);
+    long exportarInventario(FormatoExportacion formato, OutputStream salida);
     InventarioResponseDto obtenerInventarioCombinado(Long productoId);
+    InventarioResponseDto combinarInventario(Inventario inventario, boolean soloCache);
+    void procesarEventoProducto(ProductoEventoDto evento);
     
 }
\ No newline at end of file
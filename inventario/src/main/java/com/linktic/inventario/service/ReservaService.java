@@ -0,0 +1,13 @@
+package com.linktic.inventario.service;
+
+import com.linktic.inventario.dto.ReservaRequestDto;
+import com.linktic.inventario.model.Reserva;
+
+public interface ReservaService {
+
+    Reserva crearReserva(ReservaRequestDto requestDto);
+    Reserva obtenerReserva(Long reservaId);
+    Reserva confirmarReserva(Long reservaId);
+    Reserva liberarReserva(Long reservaId);
+    int expirarReservasVencidas();
+}
@@ -1,29 +1,65 @@
 package com.linktic.inventario.service.ServiceImpl;
 
+import com.linktic.inventario.alertas.AlertasStock;
 import com.linktic.inventario.client.ProductoServiceClient;
+import com.linktic.inventario.dto.AlertaStockDto;
+import com.linktic.inventario.dto.CursorPaginacion;
+import com.linktic.inventario.dto.FilaExportacionDto;
+import com.linktic.inventario.dto.FormatoExportacion;
 import com.linktic.inventario.dto.InventarioRequestDto;
 import com.linktic.inventario.dto.InventarioResponseDto;
+import com.linktic.inventario.dto.LineaCompraDto;
+import com.linktic.inventario.dto.PaginaCursor;
 import com.linktic.inventario.dto.ProductoDto;
+import com.linktic.inventario.dto.ProductoEventoDto;
+import com.linktic.inventario.exception.ConflictoConcurrenciaException;
 import com.linktic.inventario.exception.InventarioNotFoundException; 
 import com.linktic.inventario.exception.StockInsuficienteException;
+import com.linktic.inventario.ledger.StockLedger;
 import com.linktic.inventario.model.Inventario;
+import com.linktic.inventario.model.ModoCompra;
+import com.linktic.inventario.model.SolicitudProcesada;
 import com.linktic.inventario.repository.InventarioRepository;
+import com.linktic.inventario.repository.SolicitudProcesadaRepository;
 import com.linktic.inventario.service.InventarioService;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.RequiredArgsConstructor;
 import net.logstash.logback.argument.StructuredArguments;
 
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Map;
+import java.util.OptionalInt;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.retry.support.RetryTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 @Service
 @RequiredArgsConstructor
@@ -31,29 +67,42 @@ public class InventarioServiceImpl implements InventarioService {
 
     private final InventarioRepository inventarioRepository;
     private final ProductoServiceClient productoServiceClient;
+    private final TransactionTemplate transactionTemplate;
+    private final RetryTemplate compraRetryTemplate;
+    private final MeterRegistry meterRegistry;
+    private final StockLedger stockLedger;
+    private final SolicitudProcesadaRepository solicitudProcesadaRepository;
+    private final ObjectMapper objectMapper;
+    private final AlertasStock alertasStock;
+
+    @Value("${inventario.compra.modo:ATOMICO}")
+    private ModoCompra modoCompra;
+
+    @Value("${inventario.exportacion.tamano-lote:500}")
+    private int tamanoLoteExportacion;
+
+    private static final String CABECERA_CSV = "inventarioId,productoId,nombre,precio,cantidad,reservado,disponible\n";
     
     private static final Logger log = LoggerFactory.getLogger(InventarioServiceImpl.class);
 
     @Override
-    @Transactional(readOnly = true)
+    @Timed(value = "inventario.consulta.combinada", description = "Consulta de inventario combinada con el detalle del producto")
     public InventarioResponseDto obtenerInventarioCombinado(Long productoId) {
 
-        Inventario inventario = obtenerInventarioPorProductoId(productoId);
-        
-        ProductoDto productoDto;
-        try {
-            productoDto = productoServiceClient.obtenerProducto(productoId);
-        } catch (Exception e) {
-            log.warn("Error al llamar a producto-service. productoId: {}", productoId, e);
-            productoDto = new ProductoDto();
-            productoDto.setId(productoId);
-            productoDto.setNombre("Error al obtener detalles del producto");
-        }
+        Inventario inventario = leer(() -> conStockVigente(buscarInventario(productoId)));
 
-        return new InventarioResponseDto(
-            inventario.getCantidad(), 
-            productoDto
-        );
+        return respuesta(inventario, obtenerProducto(productoId));
+    }
+
+    @Override
+    public InventarioResponseDto combinarInventario(Inventario inventario, boolean soloCache) {
+        Long productoId = inventario.getProductoId();
+
+        ProductoDto productoDto = soloCache
+                ? productoServiceClient.obtenerProductoEnCache(productoId).orElseGet(() -> new ProductoDto(productoId, null, null))
+                : obtenerProducto(productoId);
+
+        return respuesta(inventario, productoDto);
     }
 
     @Override
@@ -69,12 +118,48 @@ public class InventarioServiceImpl implements InventarioService {
         return inventarioGuardado;
     }
 
+    @Override
+    @Transactional
+    public List<Inventario> crearRegistrosInventario(List<InventarioRequestDto> solicitudes) {
+        Set<String> procesadas = solicitudProcesadaRepository.findAllById(solicitudes.stream()
+                        .map(InventarioRequestDto::getClaveIdempotencia)
+                        .collect(Collectors.toList())).stream()
+                .map(SolicitudProcesada::getClave)
+                .collect(Collectors.toSet());
+        Set<Long> existentes = inventarioRepository.findByProductoIdInOrderByProductoId(solicitudes.stream()
+                        .map(InventarioRequestDto::getProductoId)
+                        .collect(Collectors.toList())).stream()
+                .map(Inventario::getProductoId)
+                .collect(Collectors.toSet());
+
+        Instant ahora = Instant.now();
+        List<Inventario> nuevos = new ArrayList<>();
+        List<SolicitudProcesada> claves = new ArrayList<>();
+        for (InventarioRequestDto solicitud : solicitudes) {
+            if (!procesadas.add(solicitud.getClaveIdempotencia())) {
+                continue;
+            }
+            claves.add(new SolicitudProcesada(solicitud.getClaveIdempotencia(), ahora));
+            // Un producto creado antes por la vía síncrona ya tiene inventario: la solicitud se da por aplicada.
+            if (existentes.add(solicitud.getProductoId())) {
+                nuevos.add(new Inventario(null, solicitud.getProductoId(), solicitud.getCantidad()));
+            }
+        }
+
+        List<Inventario> guardados = inventarioRepository.saveAll(nuevos);
+        solicitudProcesadaRepository.saveAll(claves);
+        guardados.forEach(inventario -> emitirEventoInventario("Inventario Creado", inventario));
+
+        return guardados;
+    }
+
     @Override
     @Transactional
     public void eliminarRegistroInventarioPorProductoId(Long productoId) {
-        Inventario inventario = obtenerInventarioPorProductoId(productoId);
+        Inventario inventario = buscarInventario(productoId);
         
         inventarioRepository.delete(inventario);
+        stockLedger.descartar(productoId);
         
         emitirEventoInventario("Inventario Eliminado", inventario);
     }
@@ -82,23 +167,51 @@ public class InventarioServiceImpl implements InventarioService {
     @Override
     @Transactional(readOnly = true)
     public Inventario obtenerInventarioPorProductoId(Long productoId) {
-        return inventarioRepository.findByProductoId(productoId)
-                .orElseThrow(() -> new InventarioNotFoundException("Inventario no encontrado para el productoId: " + productoId));
+        return conStockVigente(buscarInventario(productoId));
     }
 
     @Override
     @Transactional
-    public Inventario procesarCompra(Long productoId, int cantidadComprada) {
-        Inventario inventario = obtenerInventarioPorProductoId(productoId);
+    public Inventario actualizarUmbralReposicion(Long productoId, int umbralReposicion) {
+        Inventario inventario = buscarInventario(productoId);
+        inventario.setUmbralReposicion(umbralReposicion);
+
+        Inventario inventarioGuardado = inventarioRepository.saveAndFlush(inventario);
+        stockLedger.actualizarUmbral(productoId, umbralReposicion);
 
-        if (cantidadComprada > inventario.getCantidad()) {
-            throw new StockInsuficienteException("Cantidad solicitada (" + cantidadComprada + ") excede el stock disponible (" + inventario.getCantidad() + ").");
+        return conStockVigente(inventarioGuardado);
+    }
+
+    @Override
+    @Timed(value = "inventario.compra", description = "Compra de un producto")
+    public Inventario procesarCompra(Long productoId, int cantidadComprada) {
+        Inventario inventarioActualizado;
+        try {
+            if (stockLedger.esCaliente(productoId)) {
+                inventarioActualizado = stockLedger.descontar(productoId, cantidadComprada);
+                emitirEventoInventario("Compra Procesada", inventarioActualizado);
+            } else if (modoCompra == ModoCompra.OPTIMISTA) {
+                inventarioActualizado = procesarCompraOptimista(productoId, cantidadComprada);
+            } else {
+                inventarioActualizado = transactionTemplate.execute(status -> procesarCompraAtomica(productoId, cantidadComprada));
+            }
+        } catch (StockInsuficienteException e) {
+            contarRechazo("compra");
+            throw e;
         }
-        
-        int nuevaCantidad = inventario.getCantidad() - cantidadComprada;
-        inventario.setCantidad(nuevaCantidad);
 
-        Inventario inventarioActualizado = inventarioRepository.save(inventario);
+        avisarSiCruzaUmbral(inventarioActualizado, cantidadComprada);
+        return inventarioActualizado;
+    }
+
+    private Inventario procesarCompraAtomica(Long productoId, int cantidadComprada) {
+        int filasActualizadas = inventarioRepository.descontarStock(productoId, cantidadComprada);
+
+        Inventario inventarioActualizado = buscarInventario(productoId);
+
+        if (filasActualizadas == 0) {
+            throw new StockInsuficienteException("Cantidad solicitada (" + cantidadComprada + ") excede el stock disponible (" + inventarioActualizado.getDisponible() + ").");
+        }
         
         emitirEventoInventario("Compra Procesada", inventarioActualizado);
         
@@ -106,32 +219,290 @@ public class InventarioServiceImpl implements InventarioService {
     }
 
     @Override
-    @Transactional(readOnly = true)
-    public Page<InventarioResponseDto> listarInventario(Pageable pageable) {
-        Page<Inventario> paginaInventarios = inventarioRepository.findAll(pageable);
-        
-        List<InventarioResponseDto> listaCombinada = paginaInventarios.getContent().stream()
-                .map(inventario -> {
-                    ProductoDto productoDto;
-                    try {
-                        productoDto = productoServiceClient.obtenerProducto(inventario.getProductoId());
-                    } catch (Exception e) {
-                        log.warn("Error en N+1 al listar. No se pudo obtener productoId: {}", inventario.getProductoId());
-                        productoDto = new ProductoDto();
-                        productoDto.setId(inventario.getProductoId());
-                        productoDto.setNombre("Producto no disponible");
+    public List<InventarioResponseDto> procesarCompraMultiple(List<LineaCompraDto> lineas) {
+        // Se agrupan y ordenan por productoId para que dos compras concurrentes bloqueen filas en el mismo orden.
+        TreeMap<Long, Integer> cantidadesPorProducto = lineas.stream()
+                .collect(Collectors.toMap(LineaCompraDto::getProductoId, LineaCompraDto::getCantidad, Integer::sum, TreeMap::new));
+
+        // Los productos calientes se descuentan en el ledger; si después falla alguna línea en BD se reponen.
+        TreeMap<Long, Integer> lineasEnLedger = new TreeMap<>();
+        TreeMap<Long, Integer> lineasEnBd = new TreeMap<>();
+        cantidadesPorProducto.forEach((productoId, cantidad) ->
+                (stockLedger.esCaliente(productoId) ? lineasEnLedger : lineasEnBd).put(productoId, cantidad));
+
+        List<Inventario> inventariosActualizados = new ArrayList<>();
+        List<Long> descontadosEnLedger = new ArrayList<>();
+        try {
+            lineasEnLedger.forEach((productoId, cantidad) -> {
+                inventariosActualizados.add(stockLedger.descontar(productoId, cantidad));
+                descontadosEnLedger.add(productoId);
+            });
+
+            if (!lineasEnBd.isEmpty()) {
+                inventariosActualizados.addAll(transactionTemplate.execute(status -> {
+                    lineasEnBd.forEach((productoId, cantidad) -> {
+                        if (inventarioRepository.descontarStock(productoId, cantidad) == 0) {
+                            Inventario inventario = buscarInventario(productoId);
+                            throw new StockInsuficienteException("Cantidad solicitada (" + cantidad + ") para el productoId " + productoId + " excede el stock disponible (" + inventario.getDisponible() + ").");
+                        }
+                    });
+                    return inventarioRepository.findByProductoIdInOrderByProductoId(lineasEnBd.keySet());
+                }));
+            }
+        } catch (RuntimeException e) {
+            descontadosEnLedger.forEach(productoId -> stockLedger.reponer(productoId, lineasEnLedger.get(productoId)));
+            if (e instanceof StockInsuficienteException) {
+                contarRechazo("compra-multiple");
+            }
+            throw e;
+        }
+
+        inventariosActualizados.sort(Comparator.comparing(Inventario::getProductoId));
+        inventariosActualizados.forEach(inventario -> {
+            emitirEventoInventario("Compra Procesada", inventario);
+            avisarSiCruzaUmbral(inventario, cantidadesPorProducto.get(inventario.getProductoId()));
+        });
+
+        List<Long> productoIds = new ArrayList<>(cantidadesPorProducto.keySet());
+        Map<Long, ProductoDto> productosPorId = obtenerProductosPorLote(productoIds);
+
+        return inventariosActualizados.stream()
+                .map(inventario -> combinarConProducto(inventario, productosPorId))
+                .collect(Collectors.toList());
+    }
+
+    private void contarRechazo(String operacion) {
+        meterRegistry.counter("inventario.stock.rechazos", "operacion", operacion).increment();
+    }
+
+    private Inventario procesarCompraOptimista(Long productoId, int cantidadComprada) {
+        String sku = String.valueOf(productoId);
+
+        return compraRetryTemplate.execute(context -> {
+            if (context.getRetryCount() > 0) {
+                meterRegistry.counter("inventario.compra.reintentos", "productoId", sku).increment();
+            }
+            try {
+                return transactionTemplate.execute(status -> {
+                    Inventario inventario = buscarInventario(productoId);
+
+                    if (cantidadComprada > inventario.getDisponible()) {
+                        throw new StockInsuficienteException("Cantidad solicitada (" + cantidadComprada + ") excede el stock disponible (" + inventario.getDisponible() + ").");
                     }
-                    
-                    return new InventarioResponseDto(
-                        inventario.getCantidad(), 
-                        productoDto
-                    );
-                })
+
+                    inventario.setCantidad(inventario.getCantidad() - cantidadComprada);
+                    Inventario inventarioActualizado = inventarioRepository.saveAndFlush(inventario);
+
+                    emitirEventoInventario("Compra Procesada", inventarioActualizado);
+
+                    return inventarioActualizado;
+                });
+            } catch (ObjectOptimisticLockingFailureException e) {
+                meterRegistry.counter("inventario.compra.conflictos", "productoId", sku).increment();
+                throw e;
+            }
+        }, context -> {
+            log.warn("Reintentos agotados por conflictos de concurrencia. productoId: {}, intentos: {}", productoId, context.getRetryCount());
+            throw new ConflictoConcurrenciaException("No se pudo procesar la compra por alta concurrencia sobre el productoId: " + productoId);
+        });
+    }
+
+    @Override
+    @Timed(value = "inventario.listado", description = "Listado paginado de inventario")
+    public Page<InventarioResponseDto> listarInventario(Pageable pageable) {
+        Page<Inventario> paginaInventarios = leer(() -> inventarioRepository.findAll(pageable));
+
+        return new PageImpl<>(combinarConProductos(paginaInventarios.getContent()), pageable, paginaInventarios.getTotalElements());
+    }
+
+    @Override
+    public Page<InventarioResponseDto> listarInventarioBajoUmbral(Pageable pageable) {
+        Page<Inventario> paginaInventarios = leer(() -> inventarioRepository.findByMargenReposicionLessThanEqual(0, pageable));
+
+        return new PageImpl<>(combinarConProductos(paginaInventarios.getContent()), pageable, paginaInventarios.getTotalElements());
+    }
+
+    @Override
+    public PaginaCursor<InventarioResponseDto> listarInventarioPorCursor(String cursor, int tamano) {
+        CursorPaginacion posicion = cursor == null ? null : CursorPaginacion.decodificar(cursor);
+        Pageable limite = PageRequest.of(0, tamano + 1);
+
+        List<Inventario> filas = leer(() -> {
+            if (posicion == null) {
+                return inventarioRepository.findByOrderByIdAsc(limite);
+            } else if (posicion.isHaciaAtras()) {
+                return inventarioRepository.findByIdLessThanOrderByIdDesc(posicion.getId(), limite);
+            }
+            return inventarioRepository.findByIdGreaterThanOrderByIdAsc(posicion.getId(), limite);
+        });
+
+        PaginaCursor<Inventario> pagina = PaginaCursor.de(filas, tamano, posicion, Inventario::getId);
+        return new PaginaCursor<>(combinarConProductos(pagina.getContenido()), pagina.getSiguiente(), pagina.getAnterior());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public long exportarInventario(FormatoExportacion formato, OutputStream salida) {
+        long inicio = System.nanoTime();
+        long filas = 0;
+        Writer escritor = new BufferedWriter(new OutputStreamWriter(salida, StandardCharsets.UTF_8));
+        Pageable limite = PageRequest.of(0, tamanoLoteExportacion);
+        long ultimoId = 0;
+
+        try {
+            if (formato == FormatoExportacion.CSV) {
+                escritor.write(CABECERA_CSV);
+            }
+            List<Inventario> lote;
+            do {
+                lote = inventarioRepository.leerTramoExportacion(ultimoId, limite);
+                if (!lote.isEmpty()) {
+                    filas += escribirLote(lote, formato, escritor);
+                    ultimoId = lote.get(lote.size() - 1).getId();
+                }
+            } while (lote.size() == tamanoLoteExportacion);
+            escritor.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Error al escribir la exportación de inventario", e);
+        }
+
+        log.info("Exportación de inventario finalizada. formato: {}, filas: {}, duracionMs: {}",
+                formato, filas, (System.nanoTime() - inicio) / 1_000_000);
+        return filas;
+    }
+
+    private int escribirLote(List<Inventario> lote, FormatoExportacion formato, Writer escritor) throws IOException {
+        Map<Long, ProductoDto> productosPorId = obtenerProductosPorLote(lote.stream()
+                .map(Inventario::getProductoId)
+                .collect(Collectors.toList()));
+
+        for (Inventario inventario : lote) {
+            inventario = conStockVigente(inventario);
+            ProductoDto producto = productosPorId.get(inventario.getProductoId());
+            FilaExportacionDto fila = new FilaExportacionDto(inventario.getId(), inventario.getProductoId(),
+                    producto != null ? producto.getNombre() : null, producto != null ? producto.getPrecio() : null,
+                    inventario.getCantidad(), inventario.getReservado(), inventario.getDisponible());
+
+            if (formato == FormatoExportacion.CSV) {
+                escritor.write(aCsv(fila));
+            } else {
+                escritor.write(objectMapper.writeValueAsString(fila));
+            }
+            escritor.write('\n');
+        }
+        // Se vacía por lote para que el cliente reciba datos de forma progresiva.
+        escritor.flush();
+        return lote.size();
+    }
+
+    private String aCsv(FilaExportacionDto fila) {
+        String nombre = fila.getNombre() == null ? "" : "\"" + fila.getNombre().replace("\"", "\"\"") + "\"";
+        String precio = fila.getPrecio() == null ? "" : fila.getPrecio().toPlainString();
+        return fila.getInventarioId() + "," + fila.getProductoId() + "," + nombre + "," + precio + ","
+                + fila.getCantidad() + "," + fila.getReservado() + "," + fila.getDisponible();
+    }
+
+    private List<InventarioResponseDto> combinarConProductos(List<Inventario> inventarios) {
+        List<Long> productoIds = inventarios.stream()
+                .map(Inventario::getProductoId)
+                .collect(Collectors.toList());
+
+        Map<Long, ProductoDto> productosPorId = obtenerProductosPorLote(productoIds);
+
+        return inventarios.stream()
+                .map(inventario -> combinarConProducto(inventario, productosPorId))
                 .collect(Collectors.toList());
-                
-        return new PageImpl<>(listaCombinada, pageable, paginaInventarios.getTotalElements());
     }
     
+    @Override
+    public void procesarEventoProducto(ProductoEventoDto evento) {
+        if (evento.getTipo() == ProductoEventoDto.TipoEvento.PRODUCTO_ACTUALIZADO && evento.getProducto() != null) {
+            if (!productoServiceClient.refrescarProducto(evento.getProducto())) {
+                log.info("Evento de producto obsoleto ignorado. productoId: {}, version: {}",
+                        evento.getProductoId(), evento.getProducto().getVersion());
+                return;
+            }
+        } else {
+            productoServiceClient.invalidarProducto(evento.getProductoId());
+        }
+        log.info("Evento de producto recibido. tipo: {}, productoId: {}", evento.getTipo(), evento.getProductoId());
+    }
+
+    // Lectura en su propia transacción de solo lectura (la que puede ir a una réplica), cerrada antes de
+    // llamar a producto-service para no retener la conexión durante la llamada remota.
+    private <T> T leer(Supplier<T> consulta) {
+        TransactionTemplate lectura = new TransactionTemplate(transactionTemplate.getTransactionManager());
+        lectura.setReadOnly(true);
+        return lectura.execute(status -> consulta.get());
+    }
+
+    private Inventario buscarInventario(Long productoId) {
+        return inventarioRepository.findByProductoId(productoId)
+                .orElseThrow(() -> new InventarioNotFoundException("Inventario no encontrado para el productoId: " + productoId));
+    }
+
+    private Inventario conStockVigente(Inventario inventario) {
+        OptionalInt enLedger = stockLedger.cantidadDisponible(inventario.getProductoId());
+        if (enLedger.isEmpty()) {
+            return inventario;
+        }
+        Inventario vigente = new Inventario(inventario.getId(), inventario.getProductoId(), enLedger.getAsInt() + inventario.getReservado(),
+                inventario.getReservado(), inventario.getVersion());
+        vigente.setUmbralReposicion(inventario.getUmbralReposicion());
+        return vigente;
+    }
+
+    // Solo avisa la operación que lleva el disponible de por encima a igual o por debajo del umbral:
+    // cada descuento parte del estado que dejó el anterior, así que una bajada genera una única alerta.
+    private void avisarSiCruzaUmbral(Inventario inventario, int cantidadDescontada) {
+        int disponible = inventario.getDisponible();
+        int umbral = inventario.getUmbralReposicion();
+        if (disponible <= umbral && disponible + cantidadDescontada > umbral) {
+            alertasStock.publicar(new AlertaStockDto(inventario.getProductoId(), inventario.getId(), disponible, umbral, Instant.now()));
+        }
+    }
+
+    private ProductoDto obtenerProducto(Long productoId) {
+        try {
+            return productoServiceClient.obtenerProducto(productoId);
+        } catch (Exception e) {
+            log.warn("Error al llamar a producto-service. productoId: {}", productoId, e);
+            ProductoDto productoDto = new ProductoDto();
+            productoDto.setId(productoId);
+            productoDto.setNombre("Error al obtener detalles del producto");
+            return productoDto;
+        }
+    }
+
+    private Map<Long, ProductoDto> obtenerProductosPorLote(List<Long> productoIds) {
+        try {
+            return productoServiceClient.obtenerProductos(productoIds);
+        } catch (Exception e) {
+            log.warn("Error al obtener productos por lote. productoIds: {}", productoIds, e);
+            return Collections.emptyMap();
+        }
+    }
+
+    private InventarioResponseDto combinarConProducto(Inventario inventario, Map<Long, ProductoDto> productosPorId) {
+        inventario = conStockVigente(inventario);
+        ProductoDto productoDto = productosPorId.get(inventario.getProductoId());
+        if (productoDto == null) {
+            productoDto = new ProductoDto();
+            productoDto.setId(inventario.getProductoId());
+            productoDto.setNombre("Producto no disponible");
+        }
+        
+        return respuesta(inventario, productoDto);
+    }
+
+    private InventarioResponseDto respuesta(Inventario inventario, ProductoDto productoDto) {
+        InventarioResponseDto inventarioDto = new InventarioResponseDto(inventario.getCantidad(), productoDto);
+        inventarioDto.setDisponible(inventario.getDisponible());
+        inventarioDto.setUmbralReposicion(inventario.getUmbralReposicion());
+        inventarioDto.setVersion(inventario.getVersion());
+        return inventarioDto;
+    }
+
     private void emitirEventoInventario(String tipoEvento, Inventario inventario) {
         log.info(
             tipoEvento,
@@ -0,0 +1,179 @@
+package com.linktic.inventario.service.ServiceImpl;
+
+import com.linktic.inventario.dto.ReservaRequestDto;
+import com.linktic.inventario.exception.InventarioNotFoundException;
+import com.linktic.inventario.exception.ReservaNoActivaException;
+import com.linktic.inventario.exception.ReservaNotFoundException;
+import com.linktic.inventario.exception.StockInsuficienteException;
+import com.linktic.inventario.ledger.StockLedger;
+import com.linktic.inventario.model.EstadoReserva;
+import com.linktic.inventario.model.Inventario;
+import com.linktic.inventario.model.Reserva;
+import com.linktic.inventario.repository.InventarioRepository;
+import com.linktic.inventario.repository.ReservaRepository;
+import com.linktic.inventario.service.ReservaService;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import net.logstash.logback.argument.StructuredArguments;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+@Service
+@RequiredArgsConstructor
+public class ReservaServiceImpl implements ReservaService {
+
+    private final ReservaRepository reservaRepository;
+    private final InventarioRepository inventarioRepository;
+    private final StockLedger stockLedger;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${inventario.reservas.ttl-por-defecto:15m}")
+    private Duration ttlPorDefecto;
+
+    @Value("${inventario.reservas.ttl-maximo:1h}")
+    private Duration ttlMaximo;
+
+    private static final Logger log = LoggerFactory.getLogger(ReservaServiceImpl.class);
+
+    @Override
+    public Reserva crearReserva(ReservaRequestDto requestDto) {
+        try {
+            return reservar(requestDto);
+        } catch (StockInsuficienteException e) {
+            meterRegistry.counter("inventario.stock.rechazos", "operacion", "reserva").increment();
+            throw e;
+        }
+    }
+
+    private Reserva reservar(ReservaRequestDto requestDto) {
+        Long productoId = requestDto.getProductoId();
+        int cantidad = requestDto.getCantidad();
+
+        Duration ttl = requestDto.getTtlSegundos() != null ? Duration.ofSeconds(requestDto.getTtlSegundos()) : ttlPorDefecto;
+        if (ttl.compareTo(ttlMaximo) > 0) {
+            ttl = ttlMaximo;
+        }
+        Reserva reserva = new Reserva(null, productoId, cantidad, EstadoReserva.ACTIVA, Instant.now().plus(ttl), stockLedger.esCaliente(productoId));
+
+        // En productos calientes la retención se descuenta del ledger y se repone si la reserva no llega a guardarse.
+        if (reserva.isEnLedger()) {
+            stockLedger.descontar(productoId, cantidad);
+            try {
+                return guardarReserva(reserva);
+            } catch (RuntimeException e) {
+                stockLedger.reponer(productoId, cantidad);
+                throw e;
+            }
+        }
+
+        return transactionTemplate.execute(status -> {
+            if (inventarioRepository.reservarStock(productoId, cantidad) == 0) {
+                Inventario inventario = inventarioRepository.findByProductoId(productoId)
+                        .orElseThrow(() -> new InventarioNotFoundException("Inventario no encontrado para el productoId: " + productoId));
+                throw new StockInsuficienteException("Cantidad solicitada (" + cantidad + ") excede el stock disponible (" + inventario.getDisponible() + ").");
+            }
+            return guardarReserva(reserva);
+        });
+    }
+
+    @Override
+    public Reserva obtenerReserva(Long reservaId) {
+        return reservaRepository.findById(reservaId)
+                .orElseThrow(() -> new ReservaNotFoundException("Reserva no encontrada con id: " + reservaId));
+    }
+
+    @Override
+    public Reserva confirmarReserva(Long reservaId) {
+        Reserva reserva = obtenerReserva(reservaId);
+        if (reserva.getEstado() == EstadoReserva.ACTIVA && reserva.getExpiraEn().isBefore(Instant.now())) {
+            throw new ReservaNoActivaException("La reserva " + reservaId + " expiró el " + reserva.getExpiraEn() + ".");
+        }
+        return finalizarReserva(reserva, EstadoReserva.CONFIRMADA);
+    }
+
+    @Override
+    public Reserva liberarReserva(Long reservaId) {
+        return finalizarReserva(obtenerReserva(reservaId), EstadoReserva.LIBERADA);
+    }
+
+    // El barrido usa el índice (estado, expiraEn) y procesa lotes acotados; cada reserva se libera en su propia
+    // transacción con la misma transición condicionada que confirmar, así que una confirmación concurrente gana o pierde limpio.
+    @Override
+    @Scheduled(fixedDelayString = "${inventario.reservas.intervalo-barrido-ms:1000}")
+    public int expirarReservasVencidas() {
+        List<Reserva> vencidas = reservaRepository.findTop500ByEstadoAndExpiraEnBeforeOrderByExpiraEn(EstadoReserva.ACTIVA, Instant.now());
+
+        int expiradas = 0;
+        for (Reserva reserva : vencidas) {
+            try {
+                finalizarReserva(reserva, EstadoReserva.EXPIRADA);
+                expiradas++;
+            } catch (ReservaNoActivaException e) {
+                log.debug("La reserva {} cambió de estado antes de expirar", reserva.getId());
+            } catch (RuntimeException e) {
+                log.error("Error al expirar la reserva {}. Se reintentará en el próximo barrido", reserva.getId(), e);
+            }
+        }
+        return expiradas;
+    }
+
+    private Reserva guardarReserva(Reserva reserva) {
+        Reserva reservaGuardada = reservaRepository.save(reserva);
+        emitirEventoReserva("Reserva Creada", reservaGuardada);
+        return reservaGuardada;
+    }
+
+    private Reserva finalizarReserva(Reserva reserva, EstadoReserva destino) {
+        boolean finalizada = Boolean.TRUE.equals(transactionTemplate.execute(status -> {
+            if (reservaRepository.cambiarEstado(reserva.getId(), EstadoReserva.ACTIVA, destino) == 0) {
+                return false;
+            }
+            if (!reserva.isEnLedger()) {
+                int filas = destino == EstadoReserva.CONFIRMADA
+                        ? inventarioRepository.confirmarStockReservado(reserva.getProductoId(), reserva.getCantidad())
+                        : inventarioRepository.liberarStockReservado(reserva.getProductoId(), reserva.getCantidad());
+                // El producto pudo pasar a caliente después de crear la reserva: su cuenta debe ver el cambio.
+                if (filas > 0) {
+                    stockLedger.reservaFinalizadaEnBd(reserva.getProductoId(), reserva.getCantidad(), destino != EstadoReserva.CONFIRMADA);
+                }
+            }
+            return true;
+        }));
+
+        if (!finalizada) {
+            throw new ReservaNoActivaException("La reserva " + reserva.getId() + " no está activa.");
+        }
+
+        if (reserva.isEnLedger() && destino != EstadoReserva.CONFIRMADA) {
+            stockLedger.reponer(reserva.getProductoId(), reserva.getCantidad());
+        }
+
+        reserva.setEstado(destino);
+        emitirEventoReserva("Reserva " + destino, reserva);
+        return reserva;
+    }
+
+    private void emitirEventoReserva(String tipoEvento, Reserva reserva) {
+        log.info(
+            tipoEvento,
+            StructuredArguments.entries(Map.of(
+                "tipoEvento", tipoEvento,
+                "reservaId", reserva.getId(),
+                "productoId", reserva.getProductoId(),
+                "cantidad", reserva.getCantidad()
+            ))
+        );
+    }
+}
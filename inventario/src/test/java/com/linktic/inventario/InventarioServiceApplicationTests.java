@@ -1,13 +1,51 @@
 package com.linktic.inventario;
 
+import com.linktic.inventario.service.InventarioService;
+
+import io.micrometer.prometheus.PrometheusMeterRegistry;
+import org.hibernate.SessionFactory;
 import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.metrics.AutoConfigureMetrics;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+
+import javax.persistence.EntityManagerFactory;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 @SpringBootTest
+@AutoConfigureMetrics
 class InventarioServiceApplicationTests {
 
+	@Autowired
+	private InventarioService inventarioService;
+
+	@Autowired
+	private PrometheusMeterRegistry prometheusMeterRegistry;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
 	@Test
 	void contextLoads() {
 	}
 
+	@Test
+	void testCacheSegundoNivel_DeshabilitadaPorDefecto() {
+		assertFalse(entityManagerFactory.unwrap(SessionFactory.class).getSessionFactoryOptions().isSecondLevelCacheEnabled());
+	}
+
+	@Test
+	void testPrometheus_PublicaTimersConHistogramaYPoolDeConexiones() {
+		inventarioService.listarInventario(PageRequest.of(0, 20));
+
+		String exposicion = prometheusMeterRegistry.scrape();
+
+		assertTrue(exposicion.contains("inventario_listado_seconds_bucket{"), exposicion);
+		assertTrue(exposicion.contains("hikaricp_connections_pending{"));
+		assertTrue(exposicion.contains("hikaricp_connections_acquire_seconds_bucket{"));
+	}
+
 }
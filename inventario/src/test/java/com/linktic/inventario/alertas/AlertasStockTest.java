@@ -0,0 +1,23 @@
+package com.linktic.inventario.alertas;
+
+import com.linktic.inventario.dto.AlertaStockDto;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AlertasStockTest {
+
+    @Test
+    void testPublicar_TrasDetener_NoPropagaElRechazoAlLlamador() {
+        AlertasStock alertasStock = new AlertasStock(Duration.ofMinutes(1));
+        alertasStock.suscribir();
+        alertasStock.detener();
+
+        assertDoesNotThrow(() -> alertasStock.publicar(new AlertaStockDto(10L, 1L, 4, 5, Instant.now())));
+        assertDoesNotThrow(alertasStock::latido);
+    }
+}
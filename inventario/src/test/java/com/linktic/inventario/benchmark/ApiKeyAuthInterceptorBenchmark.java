@@ -0,0 +1,58 @@
+package com.linktic.inventario.benchmark;
+
+import com.linktic.inventario.interceptor.ApiKeyAuthInterceptor;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.TimeUnit;
+
+// preHandle con la clave correcta (camino de todas las peticiones) y con una incorrecta. La respuesta
+// rechazada queda confirmada tras sendError, así que en ese caso se crea una por invocación.
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ApiKeyAuthInterceptorBenchmark {
+
+    private static final String CLAVE = "MI_API_KEY_SECRETA_COMPARTIDA";
+
+    private ApiKeyAuthInterceptor interceptor;
+    private MockHttpServletRequest peticionValida;
+    private MockHttpServletRequest peticionInvalida;
+    private MockHttpServletResponse respuesta;
+
+    @Setup
+    public void iniciar() {
+        interceptor = new ApiKeyAuthInterceptor();
+        ReflectionTestUtils.setField(interceptor, "serviceApiKey", CLAVE);
+        peticionValida = new MockHttpServletRequest("GET", "/inventarios/producto/1");
+        peticionValida.addHeader("SERVICE_API_KEY", CLAVE);
+        peticionInvalida = new MockHttpServletRequest("GET", "/inventarios/producto/1");
+        peticionInvalida.addHeader("SERVICE_API_KEY", "MI_API_KEY_SECRETA_COMPARTIDO");
+        respuesta = new MockHttpServletResponse();
+    }
+
+    @Benchmark
+    public boolean claveValida() throws Exception {
+        return interceptor.preHandle(peticionValida, respuesta, null);
+    }
+
+    @Benchmark
+    public boolean claveInvalida() throws Exception {
+        return interceptor.preHandle(peticionInvalida, new MockHttpServletResponse(), null);
+    }
+}
@@ -0,0 +1,91 @@
+package com.linktic.inventario.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Lanza los benchmarks JMH del paquete (mvn test -Pbenchmark) y deja los resultados en JSON en
+// target/jmh/inventario-service.json. Con -Djmh.linea-base=<JSON de una ejecución anterior> falla si el
+// rendimiento de algún benchmark cae más de jmh.tolerancia (0.10 por defecto). -Djmh.incluir=<regex> acota
+// qué benchmarks se ejecutan y -Djmh.bd.{url,usuario,clave} apunta la escritura por lotes a una BD local.
+@Tag("benchmark")
+class BenchmarksJmhTest {
+
+    private static final Path RESULTADO = Paths.get("target", "jmh", "inventario-service.json");
+
+    @Test
+    void testBenchmarks_EscribenResultadosJsonSinRegresiones() throws Exception {
+        Files.createDirectories(RESULTADO.getParent());
+        Options opciones = new OptionsBuilder()
+                .include(System.getProperty("jmh.incluir", Pattern.quote(getClass().getPackageName()) + "\\..*Benchmark\\."))
+                .resultFormat(ResultFormatType.JSON)
+                .result(RESULTADO.toString())
+                .jvmArgsAppend(propiedadesBd())
+                .build();
+
+        Collection<RunResult> resultados = new Runner(opciones).run();
+
+        assertFalse(resultados.isEmpty());
+        String lineaBase = System.getProperty("jmh.linea-base");
+        if (lineaBase != null) {
+            double tolerancia = Double.parseDouble(System.getProperty("jmh.tolerancia", "0.10"));
+            List<String> regresiones = regresiones(Paths.get(lineaBase), RESULTADO, tolerancia);
+            assertTrue(regresiones.isEmpty(), String.join("\n", regresiones));
+        }
+    }
+
+    // Las propiedades jmh.bd.* (BD local para EscrituraLoteInventarioBenchmark) se pasan a las JVM de cada fork.
+    private static String[] propiedadesBd() {
+        return System.getProperties().stringPropertyNames().stream()
+                .filter(nombre -> nombre.startsWith("jmh.bd."))
+                .map(nombre -> "-D" + nombre + "=" + System.getProperty(nombre))
+                .toArray(String[]::new);
+    }
+
+    // Compara por benchmark y parámetros. Todos los benchmarks miden rendimiento (ops/tiempo): más es mejor.
+    static List<String> regresiones(Path lineaBase, Path actual, double tolerancia) throws IOException {
+        Map<String, JsonNode> anteriores = porClave(lineaBase);
+        List<String> regresiones = new ArrayList<>();
+        porClave(actual).forEach((clave, resultado) -> {
+            JsonNode anterior = anteriores.get(clave);
+            if (anterior == null) {
+                return;
+            }
+            double base = anterior.path("primaryMetric").path("score").asDouble();
+            double ahora = resultado.path("primaryMetric").path("score").asDouble();
+            if (ahora < base * (1 - tolerancia)) {
+                regresiones.add(String.format("%s: %.2f -> %.2f %s (%.1f%%)", clave, base, ahora,
+                        resultado.path("primaryMetric").path("scoreUnit").asText(), (ahora - base) / base * 100));
+            }
+        });
+        return regresiones;
+    }
+
+    private static Map<String, JsonNode> porClave(Path archivo) throws IOException {
+        Map<String, JsonNode> resultados = new TreeMap<>();
+        for (JsonNode resultado : new ObjectMapper().readTree(archivo.toFile())) {
+            resultados.put(resultado.path("benchmark").asText() + resultado.path("params"), resultado);
+        }
+        return resultados;
+    }
+}
@@ -0,0 +1,103 @@
+package com.linktic.inventario.benchmark;
+
+import com.linktic.inventario.exception.ConflictoConcurrenciaException;
+import com.linktic.inventario.model.Inventario;
+import com.linktic.inventario.repository.InventarioRepository;
+import com.linktic.inventario.service.InventarioService;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+// procesarCompra con HILOS hilos a la vez: todos sobre el mismo producto (contención sobre una fila) o
+// cada uno sobre el suyo, con las dos estrategias de descuento. Las compras que agotan los reintentos
+// optimistas no cuentan como operación y se publican aparte como "conflictos".
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Threads(CompraBenchmark.HILOS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CompraBenchmark {
+
+    static final int HILOS = 8;
+    private static final long PRODUCTO_COMPARTIDO = 1_000L;
+    private static final int STOCK = 1_000_000_000;
+
+    @Param({"ATOMICO", "OPTIMISTA"})
+    public String modo;
+
+    private ConfigurableApplicationContext contexto;
+    private InventarioService inventarioService;
+    private final AtomicLong siguienteProducto = new AtomicLong();
+
+    @Setup(Level.Trial)
+    public void iniciar() {
+        contexto = ContextoBenchmark.iniciar(Map.of(), "inventario.compra.modo=" + modo);
+        contexto.getBean(InventarioRepository.class).saveAll(LongStream.rangeClosed(1, HILOS).boxed()
+                .map(productoId -> new Inventario(null, productoId, STOCK))
+                .collect(Collectors.toList()));
+        contexto.getBean(InventarioRepository.class).save(new Inventario(null, PRODUCTO_COMPARTIDO, STOCK));
+        inventarioService = contexto.getBean(InventarioService.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void detener() {
+        contexto.close();
+    }
+
+    @State(Scope.Thread)
+    public static class ProductoPropio {
+        long productoId;
+
+        @Setup(Level.Trial)
+        public void asignar(CompraBenchmark benchmark) {
+            productoId = benchmark.siguienteProducto.incrementAndGet();
+        }
+    }
+
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    @State(Scope.Thread)
+    public static class Conflictos {
+        public long conflictos;
+    }
+
+    @Benchmark
+    public Inventario comprarMismoProducto(Conflictos conflictos) {
+        return comprar(PRODUCTO_COMPARTIDO, conflictos);
+    }
+
+    @Benchmark
+    public Inventario comprarProductosDistintos(ProductoPropio producto, Conflictos conflictos) {
+        return comprar(producto.productoId, conflictos);
+    }
+
+    private Inventario comprar(long productoId, Conflictos conflictos) {
+        try {
+            return inventarioService.procesarCompra(productoId, 1);
+        } catch (ConflictoConcurrenciaException e) {
+            conflictos.conflictos++;
+            return null;
+        }
+    }
+}
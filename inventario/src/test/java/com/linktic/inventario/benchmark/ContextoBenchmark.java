@@ -0,0 +1,79 @@
+package com.linktic.inventario.benchmark;
+
+import com.linktic.inventario.InventarioServiceApplication;
+import com.linktic.inventario.client.ProductoServiceClient;
+import com.linktic.inventario.dto.ProductoDto;
+
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.support.GenericApplicationContext;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+// Arranca inventario-service sobre H2 en memoria con producto-service sustituido por respuestas fijas, para
+// que los benchmarks midan solo este servicio. El cliente fijo se registra antes del escaneo de componentes,
+// que por eso descarta el ProductoServiceClient real.
+final class ContextoBenchmark {
+
+    private ContextoBenchmark() {
+    }
+
+    static ConfigurableApplicationContext iniciar(Map<Long, ProductoDto> productos, String... propiedades) {
+        String[] base = {
+                "server.port=0",
+                "spring.datasource.url=jdbc:h2:mem:benchmark",
+                "logging.level.root=WARN"
+        };
+        return new SpringApplicationBuilder(InventarioServiceApplication.class)
+                .properties(Stream.concat(Stream.of(base), Stream.of(propiedades)).toArray(String[]::new))
+                .initializers(contexto -> ((GenericApplicationContext) contexto).registerBean(
+                        "productoServiceClient", ProductoServiceClient.class, () -> new ProductoServiceClientFijo(productos)))
+                .run();
+    }
+
+    static Map<Long, ProductoDto> productos(int cantidad) {
+        Map<Long, ProductoDto> productos = new HashMap<>();
+        for (long id = 1; id <= cantidad; id++) {
+            productos.put(id, new ProductoDto(id, "Producto " + id, BigDecimal.valueOf(id, 2)));
+        }
+        return productos;
+    }
+
+    // No es final: los métodos con @CachePut/@CacheEvict hacen que Spring cree un proxy CGLIB de la clase.
+    static class ProductoServiceClientFijo extends ProductoServiceClient {
+
+        private final Map<Long, ProductoDto> productos;
+
+        ProductoServiceClientFijo(Map<Long, ProductoDto> productos) {
+            super(null, null, null, null, null, null);
+            this.productos = productos;
+        }
+
+        @Override
+        public ProductoDto obtenerProducto(Long productoId) {
+            return productos.get(productoId);
+        }
+
+        @Override
+        public Map<Long, ProductoDto> obtenerProductos(Collection<Long> productoIds) {
+            Map<Long, ProductoDto> encontrados = new HashMap<>();
+            for (Long productoId : productoIds) {
+                ProductoDto producto = productos.get(productoId);
+                if (producto != null) {
+                    encontrados.put(productoId, producto);
+                }
+            }
+            return encontrados;
+        }
+
+        @Override
+        public Optional<ProductoDto> obtenerProductoEnCache(Long productoId) {
+            return Optional.ofNullable(productos.get(productoId));
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package com.linktic.inventario.benchmark;
+
+import com.linktic.inventario.dto.InventarioRequestDto;
+import com.linktic.inventario.model.Inventario;
+import com.linktic.inventario.service.InventarioService;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.h2.tools.Server;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+// Alta de inventario por lote (la que recibe del outbox de producto-service), filas por segundo, con la
+// configuración por defecto y con el perfil rendimiento. Por defecto contra un servidor H2 local por TCP, para
+// que cada sentencia pague su viaje de red como con MySQL; con -Djmh.bd.url=jdbc:mysql://localhost:3306/<bd>
+// (y jmh.bd.usuario, jmh.bd.clave) contra un MySQL local, donde además cuentan rewriteBatchedStatements y la
+// caché de sentencias del servidor.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 3)
+@Measurement(iterations = 5, time = 3)
+@Fork(1)
+public class EscrituraLoteInventarioBenchmark {
+
+    static final int TAMANO_LOTE = 100;
+
+    @Param({"default", "rendimiento"})
+    public String perfil;
+
+    private Server servidorH2;
+    private ConfigurableApplicationContext contexto;
+    private InventarioService inventarioService;
+    private long siguienteProducto;
+
+    @Setup(Level.Trial)
+    public void iniciar() throws SQLException {
+        List<String> propiedades = new ArrayList<>(List.of("spring.profiles.active=" + perfil));
+        String url = System.getProperty("jmh.bd.url");
+        if (url == null) {
+            servidorH2 = Server.createTcpServer("-tcpPort", "0", "-ifNotExists").start();
+            propiedades.add("spring.datasource.url=jdbc:h2:tcp://localhost:" + servidorH2.getPort() + "/mem:lote-" + perfil);
+        } else {
+            propiedades.add("spring.datasource.url=" + url);
+            propiedades.add("spring.datasource.username=" + System.getProperty("jmh.bd.usuario", "root"));
+            propiedades.add("spring.datasource.password=" + System.getProperty("jmh.bd.clave", ""));
+            // El application.properties de test fija el driver y el dialecto de H2; se deducen de la URL.
+            propiedades.add("spring.datasource.driver-class-name=");
+            propiedades.add("spring.jpa.database-platform=");
+        }
+        contexto = ContextoBenchmark.iniciar(Map.of(), propiedades.toArray(String[]::new));
+        inventarioService = contexto.getBean(InventarioService.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void detener() {
+        contexto.close();
+        if (servidorH2 != null) {
+            servidorH2.stop();
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(TAMANO_LOTE)
+    public List<Inventario> crearLote() {
+        List<InventarioRequestDto> solicitudes = new ArrayList<>(TAMANO_LOTE);
+        for (int i = 0; i < TAMANO_LOTE; i++) {
+            InventarioRequestDto solicitud = new InventarioRequestDto();
+            solicitud.setProductoId(++siguienteProducto);
+            solicitud.setCantidad(100);
+            solicitud.setClaveIdempotencia("benchmark-" + siguienteProducto);
+            solicitudes.add(solicitud);
+        }
+        return inventarioService.crearRegistrosInventario(solicitudes);
+    }
+}
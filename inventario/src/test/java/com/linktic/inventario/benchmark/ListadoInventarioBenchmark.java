@@ -0,0 +1,68 @@
+package com.linktic.inventario.benchmark;
+
+import com.linktic.inventario.dto.InventarioResponseDto;
+import com.linktic.inventario.model.Inventario;
+import com.linktic.inventario.repository.InventarioRepository;
+import com.linktic.inventario.service.InventarioService;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+// listarInventario de punta a punta (consulta paginada en H2 + enriquecimiento por lote) con un
+// ProductoServiceClient fijo, de modo que solo cuenta el coste propio del servicio. Páginas al azar.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ListadoInventarioBenchmark {
+
+    private static final int INVENTARIOS = 2_000;
+
+    @Param({"20", "100"})
+    public int tamanoPagina;
+
+    private ConfigurableApplicationContext contexto;
+    private InventarioService inventarioService;
+
+    @Setup(Level.Trial)
+    public void iniciar() {
+        contexto = ContextoBenchmark.iniciar(ContextoBenchmark.productos(INVENTARIOS));
+        contexto.getBean(InventarioRepository.class).saveAll(LongStream.rangeClosed(1, INVENTARIOS).boxed()
+                .map(productoId -> new Inventario(null, productoId, 100))
+                .collect(Collectors.toList()));
+        inventarioService = contexto.getBean(InventarioService.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void detener() {
+        contexto.close();
+    }
+
+    @Benchmark
+    public Page<InventarioResponseDto> listarInventario() {
+        int pagina = ThreadLocalRandom.current().nextInt(INVENTARIOS / tamanoPagina);
+        return inventarioService.listarInventario(PageRequest.of(pagina, tamanoPagina, Sort.by("id")));
+    }
+}
@@ -0,0 +1,115 @@
+package com.linktic.inventario.benchmark;
+
+import com.linktic.inventario.dto.InventarioResponseDto;
+import com.linktic.inventario.dto.ProductoDto;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.hateoas.EntityModel;
+import org.springframework.hateoas.IanaLinkRelations;
+import org.springframework.hateoas.Link;
+import org.springframework.hateoas.PagedModel;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerAdapter;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+// Serialización de una página de InventarioResponseDto con los mismos convertidores que usa Spring MVC
+// (HAL y JSON:API), sobre un búfer reutilizado para no medir la E/S.
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 3)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SerializacionBenchmark {
+
+    private static final String BASE = "http://localhost:8082/inventarios";
+
+    @Param({"application/hal+json", "application/vnd.api+json"})
+    public String tipo;
+
+    @Param({"20", "100"})
+    public int tamanoPagina;
+
+    private ConfigurableApplicationContext contexto;
+    private HttpMessageConverter<Object> convertidor;
+    private MediaType mediaType;
+    private PagedModel<EntityModel<InventarioResponseDto>> pagina;
+    private final Salida salida = new Salida();
+
+    @Setup(Level.Trial)
+    @SuppressWarnings("unchecked")
+    public void iniciar() {
+        contexto = ContextoBenchmark.iniciar(ContextoBenchmark.productos(tamanoPagina));
+        mediaType = MediaType.parseMediaType(tipo);
+        convertidor = (HttpMessageConverter<Object>) contexto.getBean(RequestMappingHandlerAdapter.class).getMessageConverters().stream()
+                .filter(c -> c.canWrite(PagedModel.class, mediaType))
+                .findFirst()
+                .orElseThrow(() -> new IllegalStateException("Sin convertidor para " + tipo));
+
+        List<EntityModel<InventarioResponseDto>> contenido = ContextoBenchmark.productos(tamanoPagina).values().stream()
+                .map(this::inventario)
+                .collect(Collectors.toList());
+        pagina = PagedModel.of(contenido, new PagedModel.PageMetadata(tamanoPagina, 0, 10L * tamanoPagina),
+                Link.of(BASE + "?page=0&size=" + tamanoPagina).withSelfRel(),
+                Link.of(BASE + "?page=1&size=" + tamanoPagina).withRel(IanaLinkRelations.NEXT));
+    }
+
+    @TearDown(Level.Trial)
+    public void detener() {
+        contexto.close();
+    }
+
+    @Benchmark
+    public int serializarPagina() throws IOException {
+        salida.reiniciar();
+        convertidor.write(pagina, mediaType, salida);
+        return salida.cuerpo.size();
+    }
+
+    private EntityModel<InventarioResponseDto> inventario(ProductoDto producto) {
+        InventarioResponseDto dto = new InventarioResponseDto(producto.getId(), 100, 90, 10, producto, 0);
+        return EntityModel.of(dto, Link.of(BASE + "/producto/" + producto.getId()).withSelfRel());
+    }
+
+    private static final class Salida implements HttpOutputMessage {
+        private final HttpHeaders headers = new HttpHeaders();
+        private final ByteArrayOutputStream cuerpo = new ByteArrayOutputStream(64 * 1024);
+
+        void reiniciar() {
+            headers.clear();
+            cuerpo.reset();
+        }
+
+        @Override
+        public OutputStream getBody() {
+            return cuerpo;
+        }
+
+        @Override
+        public HttpHeaders getHeaders() {
+            return headers;
+        }
+    }
+}
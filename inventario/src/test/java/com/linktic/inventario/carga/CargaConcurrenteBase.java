@@ -0,0 +1,108 @@
+package com.linktic.inventario.carga;
+
+import com.linktic.inventario.client.ProductoServiceClient;
+import com.linktic.inventario.dto.ProductoDto;
+import com.linktic.inventario.model.Inventario;
+import com.linktic.inventario.repository.InventarioRepository;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.boot.test.web.server.LocalServerPort;
+
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.when;
+
+// Lanza PETICIONES simultáneas contra GET /inventarios/producto/{id} con producto-service simulado
+// (RETARDO_REMOTO por llamada) y Tomcat limitado a HILOS_TOMCAT hilos. Con hilos de plataforma la
+// última petición no puede terminar antes de PETICIONES / HILOS_TOMCAT * RETARDO_REMOTO. El retardo es
+// alto a propósito para que domine la espera y no la CPU de la máquina que corre la prueba.
+@Tag("carga")
+abstract class CargaConcurrenteBase {
+
+    static final int HILOS_TOMCAT = 8;
+    static final int PETICIONES = 200;
+    static final Duration RETARDO_REMOTO = Duration.ofMillis(400);
+    static final Duration LIMITE_CON_HILOS_DE_PLATAFORMA = RETARDO_REMOTO.multipliedBy(PETICIONES / HILOS_TOMCAT);
+
+    private static final Logger log = LoggerFactory.getLogger(CargaConcurrenteBase.class);
+    private static final Long PRODUCTO_ID = 900L;
+
+    @LocalServerPort
+    private int puerto;
+
+    @Autowired
+    private InventarioRepository inventarioRepository;
+
+    @MockBean
+    private ProductoServiceClient productoServiceClient;
+
+    @BeforeEach
+    void preparar() {
+        inventarioRepository.save(new Inventario(null, PRODUCTO_ID, 100));
+        when(productoServiceClient.obtenerProducto(anyLong())).thenAnswer(invocation -> {
+            Thread.sleep(RETARDO_REMOTO.toMillis());
+            return new ProductoDto(invocation.getArgument(0), "Producto Carga", BigDecimal.TEN);
+        });
+    }
+
+    @AfterEach
+    void limpiar() {
+        inventarioRepository.deleteAll();
+    }
+
+    @Test
+    void medirCapacidadConcurrente() {
+        HttpClient cliente = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        HttpRequest peticion = HttpRequest.newBuilder(URI.create("http://localhost:" + puerto + "/inventarios/producto/" + PRODUCTO_ID))
+                .header("SERVICE_API_KEY", "MI_API_KEY_SECRETA_COMPARTIDA")
+                .GET()
+                .build();
+
+        lanzar(cliente, peticion, HILOS_TOMCAT * 2);
+
+        long inicio = System.nanoTime();
+        long[] nanos = lanzar(cliente, peticion, PETICIONES);
+        Duration total = Duration.ofNanos(System.nanoTime() - inicio);
+
+        Duration p50 = Duration.ofNanos(nanos[nanos.length / 2]);
+        Duration p99 = Duration.ofNanos(nanos[(int) Math.ceil(nanos.length * 0.99) - 1]);
+        log.info("Carga [{}]: peticiones={}, total={} ms, throughput={} req/s, p50={} ms, p99={} ms, max={} ms",
+                getClass().getSimpleName(), PETICIONES, total.toMillis(),
+                PETICIONES * 1000L / Math.max(1, total.toMillis()), p50.toMillis(), p99.toMillis(),
+                Duration.ofNanos(nanos[nanos.length - 1]).toMillis());
+
+        verificar(p99);
+    }
+
+    private long[] lanzar(HttpClient cliente, HttpRequest peticion, int cantidad) {
+        List<CompletableFuture<Long>> latencias = new ArrayList<>();
+        for (int i = 0; i < cantidad; i++) {
+            long enviada = System.nanoTime();
+            latencias.add(cliente.sendAsync(peticion, HttpResponse.BodyHandlers.discarding())
+                    .thenApply(respuesta -> {
+                        assertEquals(200, respuesta.statusCode());
+                        return System.nanoTime() - enviada;
+                    }));
+        }
+        return latencias.stream().map(CompletableFuture::join).mapToLong(Long::longValue).sorted().toArray();
+    }
+
+    abstract void verificar(Duration p99);
+}
@@ -0,0 +1,20 @@
+package com.linktic.inventario.carga;
+
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "ejecucion.hilos=PLATAFORMA",
+        "server.tomcat.threads.max=" + CargaConcurrenteBase.HILOS_TOMCAT
+})
+class CargaHilosPlataformaTest extends CargaConcurrenteBase {
+
+    @Override
+    void verificar(Duration p99) {
+        // La cola de Tomcat impone el piso: las últimas peticiones esperan a que se liberen hilos.
+        assertTrue(p99.compareTo(LIMITE_CON_HILOS_DE_PLATAFORMA.multipliedBy(3).dividedBy(4)) > 0);
+    }
+}
@@ -0,0 +1,28 @@
+package com.linktic.inventario.carga;
+
+import com.linktic.inventario.config.HilosVirtualesConfig;
+
+import org.junit.jupiter.api.condition.EnabledIf;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "ejecucion.hilos=VIRTUALES",
+        "server.tomcat.threads.max=" + CargaConcurrenteBase.HILOS_TOMCAT
+})
+@EnabledIf("hilosVirtualesDisponibles")
+class CargaHilosVirtualesTest extends CargaConcurrenteBase {
+
+    static boolean hilosVirtualesDisponibles() {
+        return HilosVirtualesConfig.crearExecutorVirtual().isPresent();
+    }
+
+    @Override
+    void verificar(Duration p99) {
+        // Sin el tope de hilos de Tomcat las peticiones esperan al remoto en paralelo.
+        assertTrue(p99.compareTo(LIMITE_CON_HILOS_DE_PLATAFORMA.multipliedBy(3).dividedBy(4)) < 0);
+    }
+}
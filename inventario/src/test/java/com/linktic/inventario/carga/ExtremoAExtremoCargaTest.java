@@ -0,0 +1,414 @@
+package com.linktic.inventario.carga;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.linktic.inventario.repository.InventarioRepository;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.TestPropertySource;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Prueba de carga extremo a extremo (mvn test -Pcarga -Dtest=ExtremoAExtremoCargaTest). inventario-service
+// arranca en este proceso y producto-service como proceso hijo (spring-boot:run sin conexión), ambos con su
+// configuración de main sobre H2 en modo MySQL. Cada salto entre servicios pasa por un ProxyFallos, que añade
+// retardo y respuestas 503 en la fase con fallos. Tráfico mixto de usuarios concurrentes; por endpoint se
+// informa throughput, p50/p99/p999 y tasas de error (5xx o sin respuesta) y de 4xx, en consola y en
+// target/carga/extremo-a-extremo.json. Ajustes con -Dcarga.e2e.{duracion,calentamiento,usuarios,productos,retardo-ms,tasa-fallos}.
+@Tag("carga")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.datasource.url=" + ExtremoAExtremoCargaTest.URL_H2,
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        // TTL corto para que las lecturas combinadas crucen de verdad el salto hacia producto-service
+        "client.producto-service.cache.ttl=2s",
+        "logging.level.root=WARN"
+})
+@TestPropertySource(locations = "file:src/main/resources/application.properties")
+class ExtremoAExtremoCargaTest {
+
+    static final String URL_H2 = "jdbc:h2:mem:e2e;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1";
+
+    private static final String API_KEY = "MI_API_KEY_SECRETA_COMPARTIDA";
+    private static final Path DIRECTORIO_SALIDA = Path.of("target", "carga");
+
+    private static final Duration DURACION = Duration.ofSeconds(Long.getLong("carga.e2e.duracion", 30));
+    private static final Duration CALENTAMIENTO = Duration.ofSeconds(Long.getLong("carga.e2e.calentamiento", 10));
+    private static final int USUARIOS = Integer.getInteger("carga.e2e.usuarios", 16);
+    private static final int PRODUCTOS = Integer.getInteger("carga.e2e.productos", 200);
+    private static final Duration RETARDO = Duration.ofMillis(Long.getLong("carga.e2e.retardo-ms", 100));
+    private static final double TASA_FALLOS = Double.parseDouble(System.getProperty("carga.e2e.tasa-fallos", "0.1"));
+
+    // El 80 % de las compras y lecturas va a los primeros CALIENTES productos.
+    private static final int CALIENTES = 5;
+    private static final double PROPORCION_CALIENTE = 0.8;
+    private static final int STOCK_INICIAL = 1_000_000;
+    private static final int TAMANO_PAGINA = 20;
+
+    private static final String LEER_PRODUCTO = "GET /productos/{id}";
+    private static final String LISTAR_PRODUCTOS = "GET /productos";
+    private static final String CREAR_PRODUCTO = "POST /productos";
+    private static final String ELIMINAR_PRODUCTO = "DELETE /productos/{id}";
+    private static final String LEER_INVENTARIO = "GET /inventarios/producto/{id}";
+    private static final String LISTAR_INVENTARIO = "GET /inventarios";
+    private static final String COMPRAR = "PUT /inventarios/producto/{id}/compra";
+
+    // Endpoints que no cruzan el salto entre servicios: los fallos inyectados no deben afectarles.
+    private static final List<String> LOCALES_A_PRODUCTO = List.of(LEER_PRODUCTO, LISTAR_PRODUCTOS);
+
+    private static final ProxyFallos HACIA_PRODUCTO = iniciarProxy();
+    private static final ProxyFallos HACIA_INVENTARIO = iniciarProxy();
+
+    private final HttpClient cliente = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final List<Long> sembrados = new ArrayList<>();
+    private final ConcurrentLinkedDeque<Long> creados = new ConcurrentLinkedDeque<>();
+
+    @LocalServerPort
+    private int puertoInventario;
+
+    @Autowired
+    private InventarioRepository inventarioRepository;
+
+    private int puertoProducto;
+    private Process productoService;
+
+    @DynamicPropertySource
+    static void urlProductoService(DynamicPropertyRegistry registro) {
+        registro.add("client.producto-service.url", () -> "http://localhost:" + HACIA_PRODUCTO.puerto());
+    }
+
+    @BeforeAll
+    void arrancarProductoServiceYSembrar() throws Exception {
+        puertoProducto = puertoLibre();
+        HACIA_PRODUCTO.setDestino("http://localhost:" + puertoProducto);
+        HACIA_INVENTARIO.setDestino("http://localhost:" + puertoInventario);
+        productoService = iniciarProductoService();
+        esperarArranque(Duration.ofSeconds(Long.getLong("carga.e2e.timeout-arranque", 300)));
+
+        for (int i = 0; i < PRODUCTOS; i++) {
+            HttpResponse<String> respuesta = enviar(crearProducto("Carga e2e " + i, STOCK_INICIAL));
+            assertEquals(201, respuesta.statusCode(), respuesta::body);
+            sembrados.add(objectMapper.readTree(respuesta.body()).path("id").asLong());
+        }
+        long limite = System.nanoTime() + Duration.ofSeconds(60).toNanos();
+        while (inventarioRepository.count() < PRODUCTOS) {
+            assertTrue(System.nanoTime() < limite, "El outbox no creó el inventario de los productos sembrados");
+            Thread.sleep(200);
+        }
+    }
+
+    @AfterAll
+    void detener() throws InterruptedException {
+        if (productoService != null) {
+            List<ProcessHandle> descendientes = productoService.descendants().toList();
+            descendientes.forEach(ProcessHandle::destroy);
+            productoService.destroy();
+            if (!productoService.waitFor(30, TimeUnit.SECONDS)) {
+                descendientes.forEach(ProcessHandle::destroyForcibly);
+                productoService.destroyForcibly();
+            }
+        }
+        HACIA_PRODUCTO.close();
+        HACIA_INVENTARIO.close();
+    }
+
+    @Test
+    void testCargaMixta_SinFallosYConFallosEnElSaltoEntreServicios() throws Exception {
+        ejecutarFase(CALENTAMIENTO);
+
+        Map<String, Medicion> sinFallos = ejecutarFase(DURACION);
+
+        HACIA_PRODUCTO.setFallos(RETARDO, TASA_FALLOS);
+        HACIA_INVENTARIO.setFallos(RETARDO, TASA_FALLOS);
+        long inyectadosAntes = HACIA_PRODUCTO.fallosInyectados() + HACIA_INVENTARIO.fallosInyectados();
+        Map<String, Medicion> conFallos = ejecutarFase(DURACION);
+        long inyectados = HACIA_PRODUCTO.fallosInyectados() + HACIA_INVENTARIO.fallosInyectados() - inyectadosAntes;
+        HACIA_PRODUCTO.setFallos(Duration.ZERO, 0);
+        HACIA_INVENTARIO.setFallos(Duration.ZERO, 0);
+
+        Map<String, Object> informe = new LinkedHashMap<>();
+        informe.put("usuarios", USUARIOS);
+        informe.put("productos", PRODUCTOS);
+        informe.put("sin-fallos", fase("sin-fallos", sinFallos, Duration.ZERO, 0, 0));
+        informe.put("con-fallos", fase("con-fallos", conFallos, RETARDO, TASA_FALLOS, inyectados));
+        Files.createDirectories(DIRECTORIO_SALIDA);
+        objectMapper.writerWithDefaultPrettyPrinter()
+                .writeValue(DIRECTORIO_SALIDA.resolve("extremo-a-extremo.json").toFile(), informe);
+
+        for (String endpoint : List.of(LEER_PRODUCTO, LISTAR_PRODUCTOS, CREAR_PRODUCTO, ELIMINAR_PRODUCTO,
+                LEER_INVENTARIO, LISTAR_INVENTARIO, COMPRAR)) {
+            assertTrue(sinFallos.containsKey(endpoint), "Sin tráfico en " + endpoint);
+        }
+        sinFallos.forEach((endpoint, medicion) -> assertEquals(0, medicion.errores, "Errores sin fallos en " + endpoint));
+        assertTrue(inyectados > 0);
+        LOCALES_A_PRODUCTO.forEach(endpoint -> assertEquals(0, conFallos.get(endpoint).errores, "Errores en " + endpoint));
+        // Ante fallos de producto-service la lectura combinada responde con la última copia conocida.
+        assertEquals(0, conFallos.get(LEER_INVENTARIO).errores);
+    }
+
+    private Map<String, Medicion> ejecutarFase(Duration duracion) throws InterruptedException {
+        Map<String, Medicion> mediciones = new ConcurrentHashMap<>();
+        long fin = System.nanoTime() + duracion.toNanos();
+        ExecutorService usuarios = Executors.newFixedThreadPool(USUARIOS);
+        for (int i = 0; i < USUARIOS; i++) {
+            usuarios.execute(() -> {
+                while (System.nanoTime() < fin) {
+                    operacionAleatoria(mediciones);
+                }
+            });
+        }
+        usuarios.shutdown();
+        assertTrue(usuarios.awaitTermination(duracion.toSeconds() + 60, TimeUnit.SECONDS));
+        mediciones.values().forEach(medicion -> medicion.segundos = duracion.toMillis() / 1000.0);
+        return mediciones;
+    }
+
+    private void operacionAleatoria(Map<String, Medicion> mediciones) {
+        ThreadLocalRandom aleatorio = ThreadLocalRandom.current();
+        int tirada = aleatorio.nextInt(100);
+        if (tirada < 25) {
+            medir(mediciones, LEER_INVENTARIO, get("http://localhost:" + puertoInventario + "/inventarios/producto/" + productoSesgado()));
+        } else if (tirada < 50) {
+            medir(mediciones, COMPRAR, HttpRequest.newBuilder(URI.create(
+                            "http://localhost:" + puertoInventario + "/inventarios/producto/" + productoSesgado() + "/compra"))
+                    .timeout(Duration.ofSeconds(30))
+                    .header("SERVICE_API_KEY", API_KEY)
+                    .header("Content-Type", "application/json")
+                    .PUT(HttpRequest.BodyPublishers.ofString("{\"cantidad\":1}"))
+                    .build());
+        } else if (tirada < 70) {
+            medir(mediciones, LEER_PRODUCTO, get("http://localhost:" + puertoProducto + "/productos/" + productoSesgado()));
+        } else if (tirada < 80) {
+            medir(mediciones, LISTAR_PRODUCTOS, get("http://localhost:" + puertoProducto + "/productos?size=" + TAMANO_PAGINA
+                    + "&page=" + aleatorio.nextInt(Math.max(1, PRODUCTOS / TAMANO_PAGINA))));
+        } else if (tirada < 90) {
+            medir(mediciones, LISTAR_INVENTARIO, get("http://localhost:" + puertoInventario + "/inventarios?size=" + TAMANO_PAGINA
+                    + "&page=" + aleatorio.nextInt(Math.max(1, PRODUCTOS / TAMANO_PAGINA))));
+        } else if (tirada < 95 || !eliminarCreado(mediciones)) {
+            HttpResponse<String> respuesta = medir(mediciones, CREAR_PRODUCTO, crearProducto("Carga e2e nuevo", 100));
+            if (respuesta != null && respuesta.statusCode() == 201) {
+                creados.add(leerId(respuesta));
+            }
+        }
+    }
+
+    private boolean eliminarCreado(Map<String, Medicion> mediciones) {
+        Long creado = creados.pollFirst();
+        if (creado == null) {
+            return false;
+        }
+        medir(mediciones, ELIMINAR_PRODUCTO, HttpRequest.newBuilder(URI.create("http://localhost:" + puertoProducto + "/productos/" + creado))
+                .timeout(Duration.ofSeconds(30))
+                .header("SERVICE_API_KEY", API_KEY)
+                .DELETE()
+                .build());
+        return true;
+    }
+
+    private long productoSesgado() {
+        ThreadLocalRandom aleatorio = ThreadLocalRandom.current();
+        int calientes = Math.min(CALIENTES, sembrados.size());
+        return aleatorio.nextDouble() < PROPORCION_CALIENTE || calientes == sembrados.size()
+                ? sembrados.get(aleatorio.nextInt(calientes))
+                : sembrados.get(calientes + aleatorio.nextInt(sembrados.size() - calientes));
+    }
+
+    private HttpResponse<String> medir(Map<String, Medicion> mediciones, String endpoint, HttpRequest peticion) {
+        long inicio = System.nanoTime();
+        HttpResponse<String> respuesta;
+        try {
+            respuesta = cliente.send(peticion, HttpResponse.BodyHandlers.ofString());
+        } catch (IOException e) {
+            respuesta = null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        }
+        mediciones.computeIfAbsent(endpoint, e -> new Medicion())
+                .registrar(System.nanoTime() - inicio, respuesta == null ? -1 : respuesta.statusCode());
+        return respuesta;
+    }
+
+    private HttpRequest get(String url) {
+        return HttpRequest.newBuilder(URI.create(url))
+                .timeout(Duration.ofSeconds(30))
+                .header("SERVICE_API_KEY", API_KEY)
+                .GET()
+                .build();
+    }
+
+    private HttpRequest crearProducto(String nombre, int cantidad) {
+        return HttpRequest.newBuilder(URI.create("http://localhost:" + puertoProducto + "/productos"))
+                .timeout(Duration.ofSeconds(30))
+                .header("Accept", "application/hal+json")
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(
+                        "{\"nombre\":\"" + nombre + "\",\"precio\":9.99,\"cantidad\":" + cantidad + "}"))
+                .build();
+    }
+
+    private HttpResponse<String> enviar(HttpRequest peticion) throws IOException, InterruptedException {
+        return cliente.send(peticion, HttpResponse.BodyHandlers.ofString());
+    }
+
+    private long leerId(HttpResponse<String> respuesta) {
+        try {
+            return objectMapper.readTree(respuesta.body()).path("id").asLong();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private Map<String, Object> fase(String nombre, Map<String, Medicion> mediciones, Duration retardo,
+                                     double tasaFallos, long fallosInyectados) {
+        System.out.printf("%nFase %s (usuarios=%d, retardo=%d ms, tasaFallos=%.2f, fallos inyectados=%d)%n%-40s %10s %9s %9s %9s %9s %8s %8s%n",
+                nombre, USUARIOS, retardo.toMillis(), tasaFallos, fallosInyectados,
+                "endpoint", "peticiones", "req/s", "p50 ms", "p99 ms", "p999 ms", "error %", "4xx %");
+        Map<String, Object> endpoints = new TreeMap<>();
+        new TreeMap<>(mediciones).forEach((endpoint, medicion) -> {
+            Map<String, Object> resumen = medicion.resumen();
+            endpoints.put(endpoint, resumen);
+            System.out.printf("%-40s %10d %9.1f %9.2f %9.2f %9.2f %8.2f %8.2f%n", endpoint,
+                    resumen.get("peticiones"), resumen.get("throughput"), resumen.get("p50Ms"), resumen.get("p99Ms"),
+                    resumen.get("p999Ms"), resumen.get("tasaErrores"), resumen.get("tasa4xx"));
+        });
+        Map<String, Object> fase = new LinkedHashMap<>();
+        fase.put("duracionSegundos", DURACION.toSeconds());
+        fase.put("retardoMs", retardo.toMillis());
+        fase.put("tasaFallos", tasaFallos);
+        fase.put("fallosInyectados", fallosInyectados);
+        fase.put("endpoints", endpoints);
+        return fase;
+    }
+
+    private Process iniciarProductoService() throws IOException {
+        Path modulo = Path.of("..", "producto").toAbsolutePath().normalize();
+        Path salida = DIRECTORIO_SALIDA.resolve("producto-service.log");
+        Files.createDirectories(DIRECTORIO_SALIDA);
+        // El application.properties de los tests de producto tapa al de main en el classpath de test (necesario
+        // por H2); se recupera el de main como ubicación adicional y los argumentos cambian solo BD y puertos.
+        String argumentos = String.join(" ",
+                "--server.port=" + puertoProducto,
+                "--spring.config.additional-location=file:" + modulo.resolve("src/main/resources/application.properties"),
+                "--spring.datasource.url=" + URL_H2,
+                "--spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+                "--client.inventario-service.url=http://localhost:" + HACIA_INVENTARIO.puerto(),
+                "--logging.level.root=WARN");
+        String maven = System.getProperty("maven.home") != null
+                ? Path.of(System.getProperty("maven.home"), "bin", "mvn").toString()
+                : "mvn";
+        System.out.printf("Arrancando producto-service en el puerto %d (log en %s)%n", puertoProducto, salida);
+        return new ProcessBuilder(maven, "-o", "-q", "-f", modulo.resolve("pom.xml").toString(), "spring-boot:run",
+                "-Dspring-boot.run.useTestClasspath=true", "-Dspring-boot.run.arguments=" + argumentos)
+                .redirectErrorStream(true)
+                .redirectOutput(salida.toFile())
+                .start();
+    }
+
+    private void esperarArranque(Duration timeout) throws InterruptedException {
+        HttpRequest salud = get("http://localhost:" + puertoProducto + "/actuator/health");
+        long limite = System.nanoTime() + timeout.toNanos();
+        while (System.nanoTime() < limite) {
+            assertTrue(productoService.isAlive(), "producto-service terminó al arrancar; ver "
+                    + DIRECTORIO_SALIDA.resolve("producto-service.log"));
+            try {
+                if (enviar(salud).statusCode() == 200) {
+                    return;
+                }
+            } catch (IOException e) {
+                // Todavía no escucha.
+            }
+            Thread.sleep(1000);
+        }
+        fail("producto-service no arrancó en " + timeout.toSeconds() + " s");
+    }
+
+    private static int puertoLibre() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+
+    private static ProxyFallos iniciarProxy() {
+        try {
+            return new ProxyFallos();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // Latencias exactas (no histograma) para que p999 no dependa de la resolución de los buckets.
+    private static final class Medicion {
+        private long[] latencias = new long[1024];
+        private int peticiones;
+        private long errores;
+        private long rechazos;
+        private double segundos;
+
+        synchronized void registrar(long nanos, int estado) {
+            if (peticiones == latencias.length) {
+                latencias = Arrays.copyOf(latencias, peticiones * 2);
+            }
+            latencias[peticiones++] = nanos;
+            if (estado < 0 || estado >= 500) {
+                errores++;
+            } else if (estado >= 400) {
+                rechazos++;
+            }
+        }
+
+        synchronized Map<String, Object> resumen() {
+            long[] ordenadas = Arrays.copyOf(latencias, peticiones);
+            Arrays.sort(ordenadas);
+            Map<String, Object> resumen = new LinkedHashMap<>();
+            resumen.put("peticiones", peticiones);
+            resumen.put("throughput", peticiones / segundos);
+            resumen.put("p50Ms", percentil(ordenadas, 0.50));
+            resumen.put("p99Ms", percentil(ordenadas, 0.99));
+            resumen.put("p999Ms", percentil(ordenadas, 0.999));
+            resumen.put("tasaErrores", 100.0 * errores / peticiones);
+            resumen.put("tasa4xx", 100.0 * rechazos / peticiones);
+            return resumen;
+        }
+
+        private static double percentil(long[] ordenadas, double cuantil) {
+            return ordenadas[(int) Math.ceil(ordenadas.length * cuantil) - 1] / 1_000_000.0;
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package com.linktic.inventario.carga;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Proxy HTTP en proceso para el salto entre servicios: reenvía cada petición a su destino tras un
+// retardo y, con probabilidad tasaFallos, responde 503 sin reenviarla. Ambos se cambian en caliente.
+class ProxyFallos implements AutoCloseable {
+
+    // Cabeceras que gestiona cada extremo de la conexión y no se copian.
+    private static final Set<String> CABECERAS_DE_CONEXION = Set.of(
+            "connection", "content-length", "expect", "host", "keep-alive", "transfer-encoding", "upgrade");
+
+    private final HttpServer servidor;
+    private final ExecutorService hilos = Executors.newCachedThreadPool();
+    private final HttpClient cliente = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+    private final AtomicLong reenviadas = new AtomicLong();
+    private final AtomicLong fallosInyectados = new AtomicLong();
+
+    private volatile String destino;
+    private volatile Duration retardo = Duration.ZERO;
+    private volatile double tasaFallos;
+
+    ProxyFallos() throws IOException {
+        servidor = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        servidor.setExecutor(hilos);
+        servidor.createContext("/", this::atender);
+        servidor.start();
+    }
+
+    int puerto() {
+        return servidor.getAddress().getPort();
+    }
+
+    void setDestino(String destino) {
+        this.destino = destino;
+    }
+
+    void setFallos(Duration retardo, double tasaFallos) {
+        this.retardo = retardo;
+        this.tasaFallos = tasaFallos;
+    }
+
+    long reenviadas() {
+        return reenviadas.get();
+    }
+
+    long fallosInyectados() {
+        return fallosInyectados.get();
+    }
+
+    @Override
+    public void close() {
+        servidor.stop(0);
+        hilos.shutdownNow();
+    }
+
+    private void atender(HttpExchange intercambio) {
+        try {
+            if (!retardo.isZero()) {
+                Thread.sleep(retardo.toMillis());
+            }
+            if (ThreadLocalRandom.current().nextDouble() < tasaFallos) {
+                fallosInyectados.incrementAndGet();
+                intercambio.sendResponseHeaders(503, -1);
+                return;
+            }
+            reenviar(intercambio);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (IOException e) {
+            responderSinCuerpo(intercambio, 502);
+        } finally {
+            intercambio.close();
+        }
+    }
+
+    private void reenviar(HttpExchange intercambio) throws IOException, InterruptedException {
+        byte[] cuerpoPeticion = intercambio.getRequestBody().readAllBytes();
+        HttpRequest.Builder peticion = HttpRequest.newBuilder(URI.create(destino + intercambio.getRequestURI()))
+                .timeout(Duration.ofSeconds(30))
+                .method(intercambio.getRequestMethod(), cuerpoPeticion.length == 0
+                        ? HttpRequest.BodyPublishers.noBody()
+                        : HttpRequest.BodyPublishers.ofByteArray(cuerpoPeticion));
+        intercambio.getRequestHeaders().forEach((nombre, valores) -> {
+            if (!CABECERAS_DE_CONEXION.contains(nombre.toLowerCase())) {
+                valores.forEach(valor -> peticion.header(nombre, valor));
+            }
+        });
+
+        HttpResponse<byte[]> respuesta = cliente.send(peticion.build(), HttpResponse.BodyHandlers.ofByteArray());
+        reenviadas.incrementAndGet();
+
+        respuesta.headers().map().forEach((nombre, valores) -> {
+            if (!CABECERAS_DE_CONEXION.contains(nombre.toLowerCase())) {
+                intercambio.getResponseHeaders().put(nombre, List.copyOf(valores));
+            }
+        });
+        byte[] cuerpo = respuesta.body();
+        intercambio.sendResponseHeaders(respuesta.statusCode(), cuerpo.length == 0 ? -1 : cuerpo.length);
+        if (cuerpo.length > 0) {
+            try (OutputStream salida = intercambio.getResponseBody()) {
+                salida.write(cuerpo);
+            }
+        }
+    }
+
+    private static void responderSinCuerpo(HttpExchange intercambio, int estado) {
+        try {
+            intercambio.sendResponseHeaders(estado, -1);
+        } catch (IOException ignorada) {
+            // Las cabeceras ya se enviaron o el cliente cerró la conexión.
+        }
+    }
+}
@@ -0,0 +1,297 @@
+package com.linktic.inventario.client;
+
+import com.linktic.inventario.config.CacheConfig;
+import com.linktic.inventario.dto.ProductoDto;
+
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.client.AutoConfigureMockRestServiceServer;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.test.util.AopTestUtils;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.client.MockRestServiceServer;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+import java.net.URI;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.client.ExpectedCount.never;
+import static org.springframework.test.web.client.ExpectedCount.once;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.header;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.requestTo;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withServerError;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withStatus;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withSuccess;
+
+@SpringBootTest
+@AutoConfigureMockRestServiceServer
+class ProductoServiceClientTest {
+
+    @Autowired
+    private ProductoServiceClient productoServiceClient;
+
+    @Autowired
+    private MockRestServiceServer server;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private CircuitBreakerRegistry circuitBreakerRegistry;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @BeforeEach
+    void limpiarCache() {
+        cacheManager.getCache(CacheConfig.PRODUCTOS_CACHE).clear();
+        cacheManager.getCache(CacheConfig.PRODUCTOS_ULTIMO_CONOCIDO_CACHE).clear();
+        circuitBreakerRegistry.circuitBreaker(ProductoServiceClient.PRODUCTO_SERVICE).reset();
+        server.reset();
+    }
+
+    @Test
+    void testObtenerProducto_SegundaLlamadaSeSirveDesdeCache() {
+        server.expect(once(), requestTo("http://localhost:8081/productos/internal/1"))
+            .andRespond(withSuccess("{\"id\":1,\"nombre\":\"Producto A\",\"precio\":10.0}", MediaType.APPLICATION_JSON));
+
+        ProductoDto primera = productoServiceClient.obtenerProducto(1L);
+        ProductoDto segunda = productoServiceClient.obtenerProducto(1L);
+
+        assertEquals("Producto A", primera.getNombre());
+        assertEquals("Producto A", segunda.getNombre());
+        server.verify();
+    }
+
+    @Test
+    void testObtenerProducto_CacheExpirada_RevalidaConIfNoneMatchYReutilizaLaCopia() {
+        server.expect(once(), requestTo("http://localhost:8081/productos/internal/1"))
+            .andRespond(withSuccess("{\"id\":1,\"nombre\":\"Producto A\",\"precio\":10.0,\"version\":2}", MediaType.APPLICATION_JSON));
+        server.expect(once(), requestTo("http://localhost:8081/productos/internal/1"))
+            .andExpect(header(HttpHeaders.IF_NONE_MATCH, "W/\"2\""))
+            .andRespond(withStatus(HttpStatus.NOT_MODIFIED));
+
+        productoServiceClient.obtenerProducto(1L);
+        cacheManager.getCache(CacheConfig.PRODUCTOS_CACHE).clear();
+        ProductoDto revalidado = productoServiceClient.obtenerProducto(1L);
+
+        assertEquals("Producto A", revalidado.getNombre());
+        assertEquals(2L, revalidado.getVersion());
+        assertNotNull(cacheManager.getCache(CacheConfig.PRODUCTOS_CACHE).get(1L));
+        server.verify();
+    }
+
+    @Test
+    void testObtenerProductos_SoloPideLosQueNoEstanEnCache() {
+        cacheManager.getCache(CacheConfig.PRODUCTOS_CACHE).put(1L, new ProductoDto(1L, "En Cache", null));
+
+        server.expect(once(), requestTo("http://localhost:8081/productos/internal/batch?ids=2"))
+            .andRespond(withSuccess("[{\"id\":2,\"nombre\":\"Producto B\",\"precio\":20.0}]", MediaType.APPLICATION_JSON));
+
+        Map<Long, ProductoDto> productos = productoServiceClient.obtenerProductos(List.of(1L, 2L));
+
+        assertEquals("En Cache", productos.get(1L).getNombre());
+        assertEquals("Producto B", productos.get(2L).getNombre());
+        assertNotNull(cacheManager.getCache(CacheConfig.PRODUCTOS_CACHE).get(2L));
+        server.verify();
+    }
+
+    @Test
+    void testObtenerProductos_Bloqueante_ParteEnLotesParaNoExcederLaLineaDePeticion() {
+        ProductoServiceClient cliente = AopTestUtils.getTargetObject(productoServiceClient);
+        ReflectionTestUtils.setField(cliente, "tamanoLote", 2);
+        server.expect(once(), requestTo("http://localhost:8081/productos/internal/batch?ids=1,2"))
+            .andRespond(withSuccess("[{\"id\":1,\"nombre\":\"Producto 1\"},{\"id\":2,\"nombre\":\"Producto 2\"}]", MediaType.APPLICATION_JSON));
+        server.expect(once(), requestTo("http://localhost:8081/productos/internal/batch?ids=3,4"))
+            .andRespond(withSuccess("[{\"id\":3,\"nombre\":\"Producto 3\"},{\"id\":4,\"nombre\":\"Producto 4\"}]", MediaType.APPLICATION_JSON));
+        server.expect(once(), requestTo("http://localhost:8081/productos/internal/batch?ids=5"))
+            .andRespond(withSuccess("[{\"id\":5,\"nombre\":\"Producto 5\"}]", MediaType.APPLICATION_JSON));
+        try {
+            Map<Long, ProductoDto> productos = productoServiceClient.obtenerProductos(List.of(1L, 2L, 3L, 4L, 5L));
+
+            assertEquals(5, productos.size());
+            assertEquals("Producto 5", productos.get(5L).getNombre());
+            assertNotNull(cacheManager.getCache(CacheConfig.PRODUCTOS_CACHE).get(3L));
+            server.verify();
+        } finally {
+            ReflectionTestUtils.setField(cliente, "tamanoLote", 50);
+        }
+    }
+
+    @Test
+    void testObtenerProductos_NoBloqueante_ParteEnLotesYLosPideEnParalelo() {
+        Queue<URI> solicitudes = new ConcurrentLinkedQueue<>();
+        WebClient webClientSimulado = WebClient.builder()
+                .baseUrl("http://localhost:8081")
+                .exchangeFunction(request -> {
+                    solicitudes.add(request.url());
+                    String cuerpo = Arrays.stream(request.url().getQuery().replace("ids=", "").split(","))
+                            .map(id -> "{\"id\":" + id + ",\"nombre\":\"Producto " + id + "\"}")
+                            .collect(Collectors.joining(",", "[", "]"));
+                    return Mono.just(ClientResponse.create(HttpStatus.OK)
+                            .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                            .body(cuerpo)
+                            .build());
+                })
+                .build();
+
+        ProductoServiceClient cliente = AopTestUtils.getTargetObject(productoServiceClient);
+        Object webClientOriginal = ReflectionTestUtils.getField(cliente, "productoWebClient");
+        ReflectionTestUtils.setField(cliente, "productoWebClient", webClientSimulado);
+        ReflectionTestUtils.setField(cliente, "modo", ModoClienteHttp.NO_BLOQUEANTE);
+        ReflectionTestUtils.setField(cliente, "tamanoLote", 2);
+        try {
+            Map<Long, ProductoDto> productos = productoServiceClient.obtenerProductos(List.of(1L, 2L, 3L, 4L, 5L));
+
+            assertEquals(5, productos.size());
+            assertEquals("Producto 5", productos.get(5L).getNombre());
+            assertEquals(3, solicitudes.size());
+            assertNotNull(cacheManager.getCache(CacheConfig.PRODUCTOS_CACHE).get(3L));
+        } finally {
+            ReflectionTestUtils.setField(cliente, "productoWebClient", webClientOriginal);
+            ReflectionTestUtils.setField(cliente, "modo", ModoClienteHttp.BLOQUEANTE);
+            ReflectionTestUtils.setField(cliente, "tamanoLote", 50);
+        }
+    }
+
+    @Test
+    void testObtenerProducto_ErrorRemoto_UsaUltimaVersionConocida() {
+        cacheManager.getCache(CacheConfig.PRODUCTOS_ULTIMO_CONOCIDO_CACHE).put(1L, new ProductoDto(1L, "Conocido", null));
+
+        server.expect(once(), requestTo("http://localhost:8081/productos/internal/1"))
+            .andRespond(withServerError());
+
+        double respaldosPrevios = respaldos("individual", "ultimo-conocido");
+        ProductoDto producto = productoServiceClient.obtenerProducto(1L);
+
+        assertEquals("Conocido", producto.getNombre());
+        assertEquals(1.0, respaldos("individual", "ultimo-conocido") - respaldosPrevios);
+        server.verify();
+    }
+
+    @Test
+    void testObtenerProducto_CircuitoAbierto_FallaRapidoSinLlamarAlRemoto() {
+        CircuitBreaker circuitBreaker = circuitBreakerRegistry.circuitBreaker(ProductoServiceClient.PRODUCTO_SERVICE);
+        circuitBreaker.transitionToOpenState();
+        cacheManager.getCache(CacheConfig.PRODUCTOS_ULTIMO_CONOCIDO_CACHE).put(1L, new ProductoDto(1L, "Conocido", null));
+
+        server.expect(never(), requestTo("http://localhost:8081/productos/internal/1"));
+        server.expect(never(), requestTo("http://localhost:8081/productos/internal/batch?ids=2"));
+
+        assertEquals("Conocido", productoServiceClient.obtenerProducto(1L).getNombre());
+        assertThrows(RuntimeException.class, () -> productoServiceClient.obtenerProducto(2L));
+        assertTrue(productoServiceClient.obtenerProductos(List.of(2L)).isEmpty());
+        server.verify();
+
+        assertEquals(1.0, meterRegistry.get("resilience4j.circuitbreaker.state")
+                .tag("name", ProductoServiceClient.PRODUCTO_SERVICE)
+                .tag("state", "open")
+                .gauge().value());
+    }
+
+    @Test
+    void testObtenerProductos_ErrorDeClienteNoCuentaComoFalloDelCircuito() {
+        CircuitBreaker circuitBreaker = circuitBreakerRegistry.circuitBreaker(ProductoServiceClient.PRODUCTO_SERVICE);
+        server.expect(once(), requestTo("http://localhost:8081/productos/internal/batch?ids=2"))
+            .andRespond(withStatus(HttpStatus.BAD_REQUEST));
+        server.expect(once(), requestTo("http://localhost:8081/productos/internal/batch?ids=2"))
+            .andRespond(withServerError());
+
+        assertTrue(productoServiceClient.obtenerProductos(List.of(2L)).isEmpty());
+        assertEquals(0, circuitBreaker.getMetrics().getNumberOfFailedCalls());
+
+        assertTrue(productoServiceClient.obtenerProductos(List.of(2L)).isEmpty());
+        assertEquals(1, circuitBreaker.getMetrics().getNumberOfFailedCalls());
+        server.verify();
+    }
+
+    @Test
+    void testMetricasHttp_EtiquetaUriConPlantillaYNoConLosIds() {
+        server.expect(once(), requestTo("http://localhost:8081/productos/internal/3"))
+            .andRespond(withSuccess("{\"id\":3,\"nombre\":\"Producto C\"}", MediaType.APPLICATION_JSON));
+        server.expect(once(), requestTo("http://localhost:8081/productos/internal/batch?ids=4,5"))
+            .andRespond(withSuccess("[]", MediaType.APPLICATION_JSON));
+
+        productoServiceClient.obtenerProducto(3L);
+        productoServiceClient.obtenerProductos(List.of(4L, 5L));
+        server.verify();
+
+        assertNotNull(meterRegistry.find("http.client.requests").tag("uri", "/productos/internal/{id}").timer());
+        assertNotNull(meterRegistry.find("http.client.requests").tag("uri", "/productos/internal/batch?ids={ids}").timer());
+        assertNull(meterRegistry.find("http.client.requests").tag("uri", "/productos/internal/3").timer());
+    }
+
+    @Test
+    void testObtenerProducto_EventoMasRecienteDuranteElGet_NoSePisaConLaRespuestaVieja() {
+        server.expect(once(), requestTo("http://localhost:8081/productos/internal/1"))
+            .andRespond(request -> {
+                // El evento de la actualización llega mientras la respuesta con la versión anterior va en camino.
+                productoServiceClient.refrescarProducto(new ProductoDto(1L, "Nuevo", null, 3L));
+                return withSuccess("{\"id\":1,\"nombre\":\"Viejo\",\"version\":2}", MediaType.APPLICATION_JSON)
+                        .createResponse(request);
+            });
+        server.expect(once(), requestTo("http://localhost:8081/productos/internal/batch?ids=2"))
+            .andRespond(request -> {
+                productoServiceClient.refrescarProducto(new ProductoDto(2L, "Nuevo", null, 5L));
+                return withSuccess("[{\"id\":2,\"nombre\":\"Viejo\",\"version\":4}]", MediaType.APPLICATION_JSON)
+                        .createResponse(request);
+            });
+
+        assertEquals("Nuevo", productoServiceClient.obtenerProducto(1L).getNombre());
+        assertEquals("Nuevo", productoServiceClient.obtenerProductos(List.of(2L)).get(2L).getNombre());
+        server.verify();
+
+        for (Long id : List.of(1L, 2L)) {
+            assertEquals("Nuevo", cacheManager.getCache(CacheConfig.PRODUCTOS_CACHE).get(id, ProductoDto.class).getNombre());
+            assertEquals("Nuevo", cacheManager.getCache(CacheConfig.PRODUCTOS_ULTIMO_CONOCIDO_CACHE).get(id, ProductoDto.class).getNombre());
+        }
+    }
+
+    @Test
+    void testInvalidarProducto_EliminaEntradaDeCache() {
+        cacheManager.getCache(CacheConfig.PRODUCTOS_CACHE).put(1L, new ProductoDto(1L, "Viejo", null));
+
+        productoServiceClient.invalidarProducto(1L);
+
+        assertNull(cacheManager.getCache(CacheConfig.PRODUCTOS_CACHE).get(1L));
+    }
+
+    @Test
+    void testRefrescarProducto_ReemplazaEntradaDeCache() {
+        cacheManager.getCache(CacheConfig.PRODUCTOS_CACHE).put(1L, new ProductoDto(1L, "Viejo", null));
+
+        productoServiceClient.refrescarProducto(new ProductoDto(1L, "Nuevo", null));
+
+        assertEquals("Nuevo", cacheManager.getCache(CacheConfig.PRODUCTOS_CACHE).get(1L, ProductoDto.class).getNombre());
+    }
+
+    @Test
+    void testRefrescarProducto_VersionAnteriorALaConocida_NoReemplazaEntradaDeCache() {
+        productoServiceClient.refrescarProducto(new ProductoDto(1L, "Nuevo", null, 3L));
+
+        assertFalse(productoServiceClient.refrescarProducto(new ProductoDto(1L, "Viejo", null, 2L)));
+
+        assertEquals("Nuevo", cacheManager.getCache(CacheConfig.PRODUCTOS_CACHE).get(1L, ProductoDto.class).getNombre());
+        assertEquals("Nuevo", cacheManager.getCache(CacheConfig.PRODUCTOS_ULTIMO_CONOCIDO_CACHE).get(1L, ProductoDto.class).getNombre());
+    }
+
+    private double respaldos(String operacion, String resultado) {
+        return meterRegistry.counter("cliente.producto.respaldos", "operacion", operacion, "resultado", resultado).count();
+    }
+}
@@ -1,13 +1,22 @@
 package com.linktic.inventario.controller;
 
+import com.linktic.inventario.alertas.AlertasStock;
 import com.linktic.inventario.config.WebConfig;
+import com.linktic.inventario.dto.CompraMultipleRequestDto;
+import com.linktic.inventario.dto.FormatoExportacion;
+import com.linktic.inventario.dto.InventarioRequestDto;
 import com.linktic.inventario.dto.InventarioResponseDto;
+import com.linktic.inventario.dto.LineaCompraDto;
+import com.linktic.inventario.dto.PaginaCursor;
 import com.linktic.inventario.dto.ProductoDto;
+import com.linktic.inventario.dto.ProductoEventoDto;
+import com.linktic.inventario.dto.UmbralReposicionDto;
 import com.linktic.inventario.interceptor.ApiKeyAuthInterceptor;
 import com.linktic.inventario.service.InventarioService;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.linktic.inventario.controller.InventarioController.CompraDto;
+import com.linktic.inventario.exception.CursorInvalidoException;
 import com.linktic.inventario.exception.InventarioNotFoundException;
 import com.linktic.inventario.model.Inventario;
 
@@ -18,13 +27,24 @@ import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.context.annotation.Import;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.io.OutputStream;
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
 
+import static org.hamcrest.Matchers.endsWith;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put; // Import para PUT
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
@@ -38,6 +58,8 @@ class InventarioControllerTest {
     private ObjectMapper objectMapper;
     @MockBean
     private InventarioService inventarioService;
+    @MockBean
+    private AlertasStock alertasStock;
     
     @Test
     void testObtenerInventarioCombinado_ConApiKey_Retorna200OK() throws Exception {
@@ -57,6 +79,30 @@ class InventarioControllerTest {
             .andExpect(jsonPath("$.producto.nombre").value("Test Producto"));
     }
 
+    @Test
+    void testObtenerInventarioCombinado_ETagCoincide_Retorna304SinCuerpo() throws Exception {
+        ProductoDto p = new ProductoDto(1L, "Test Producto", new BigDecimal("10.0"));
+        p.setVersion(3L);
+        InventarioResponseDto dtoMock = new InventarioResponseDto(50, p);
+        dtoMock.setVersion(7L);
+        when(inventarioService.obtenerInventarioCombinado(1L)).thenReturn(dtoMock);
+
+        mockMvc.perform(get("/inventarios/producto/{id}", 1L)
+                .header("SERVICE_API_KEY", "MI_API_KEY_SECRETA_COMPARTIDA")
+                .header("If-None-Match", "W/\"7.50.50-3\""))
+            .andExpect(status().isNotModified())
+            .andExpect(header().string("ETag", "W/\"7.50.50-3\""))
+            .andExpect(content().string(""));
+
+        dtoMock.setDisponible(45);
+        mockMvc.perform(get("/inventarios/producto/{id}", 1L)
+                .header("SERVICE_API_KEY", "MI_API_KEY_SECRETA_COMPARTIDA")
+                .header("If-None-Match", "W/\"7.50.50-3\""))
+            .andExpect(status().isOk())
+            .andExpect(header().string("ETag", "W/\"7.50.45-3\""))
+            .andExpect(jsonPath("$.version").doesNotExist());
+    }
+
     @Test
     void testObtenerInventarioCombinado_SinApiKey_Retorna401Unauthorized() throws Exception {
         mockMvc.perform(get("/inventarios/producto/1")
@@ -88,6 +134,31 @@ class InventarioControllerTest {
             .andExpect(jsonPath("$.producto.nombre").value("Test Producto"));
     }
 
+    @Test
+    void testProcesarCompra_RespuestaCache_NoVuelveAConsultarInventario() throws Exception {
+        Long productoId = 1L;
+        CompraDto bodyRequest = new CompraDto();
+        bodyRequest.setCantidad(10);
+
+        Inventario inventarioActualizado = new Inventario(1L, productoId, 40);
+        ProductoDto p = new ProductoDto(productoId, "Producto en Cache", new BigDecimal("10.0"));
+
+        when(inventarioService.procesarCompra(productoId, 10)).thenReturn(inventarioActualizado);
+        when(inventarioService.combinarInventario(inventarioActualizado, true)).thenReturn(new InventarioResponseDto(40, p));
+
+        mockMvc.perform(put("/inventarios/producto/{id}/compra", productoId)
+                .param("respuesta", "CACHE")
+                .header("SERVICE_API_KEY", "MI_API_KEY_SECRETA_COMPARTIDA")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(bodyRequest)))
+            
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.cantidad").value(40))
+            .andExpect(jsonPath("$.producto.nombre").value("Producto en Cache"));
+
+        verify(inventarioService, never()).obtenerInventarioCombinado(anyLong());
+    }
+
     @Test
     void testProcesarCompra_SinApiKey_Retorna401Unauthorized() throws Exception {
         CompraDto bodyRequest = new CompraDto();
@@ -112,4 +183,193 @@ class InventarioControllerTest {
             
             .andExpect(status().isNotFound());
     }
-}
\ No newline at end of file
+
+    @Test
+    void testRecibirEventoProducto_ConApiKey_Retorna204NoContent() throws Exception {
+        ProductoEventoDto evento = new ProductoEventoDto(ProductoEventoDto.TipoEvento.PRODUCTO_ELIMINADO, 1L, null);
+
+        mockMvc.perform(post("/inventarios/internal/eventos-producto")
+                .header("SERVICE_API_KEY", "MI_API_KEY_SECRETA_COMPARTIDA")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(evento)))
+            
+            .andExpect(status().isNoContent());
+
+        verify(inventarioService).procesarEventoProducto(any(ProductoEventoDto.class));
+    }
+
+    @Test
+    void testRecibirEventoProducto_SinApiKey_Retorna401Unauthorized() throws Exception {
+        ProductoEventoDto evento = new ProductoEventoDto(ProductoEventoDto.TipoEvento.PRODUCTO_ELIMINADO, 1L, null);
+
+        mockMvc.perform(post("/inventarios/internal/eventos-producto")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(evento)))
+            
+            .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    void testProcesarCompraMultiple_ConApiKey_Retorna200OK() throws Exception {
+        CompraMultipleRequestDto bodyRequest = new CompraMultipleRequestDto(List.of(
+            new LineaCompraDto(1L, 2),
+            new LineaCompraDto(2L, 3)
+        ));
+
+        when(inventarioService.procesarCompraMultiple(anyList())).thenReturn(List.of(
+            new InventarioResponseDto(8, new ProductoDto(1L, "Producto A", new BigDecimal("10.0"))),
+            new InventarioResponseDto(17, new ProductoDto(2L, "Producto B", new BigDecimal("20.0")))
+        ));
+
+        mockMvc.perform(post("/inventarios/compras")
+                .header("SERVICE_API_KEY", "MI_API_KEY_SECRETA_COMPARTIDA")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(bodyRequest)))
+            
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$._embedded.inventarioResponseDtoList.length()").value(2))
+            .andExpect(jsonPath("$._embedded.inventarioResponseDtoList[1].cantidad").value(17));
+    }
+
+    @Test
+    void testProcesarCompraMultiple_SinLineas_Retorna400BadRequest() throws Exception {
+        CompraMultipleRequestDto bodyRequest = new CompraMultipleRequestDto(List.of());
+
+        mockMvc.perform(post("/inventarios/compras")
+                .header("SERVICE_API_KEY", "MI_API_KEY_SECRETA_COMPARTIDA")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(bodyRequest)))
+            
+            .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void testCrearRegistrosInventario_ConApiKey_Retorna200ConLosCreados() throws Exception {
+        InventarioRequestDto solicitud = new InventarioRequestDto();
+        solicitud.setProductoId(1L);
+        solicitud.setCantidad(10);
+        solicitud.setClaveIdempotencia("clave-1");
+
+        when(inventarioService.crearRegistrosInventario(anyList())).thenReturn(List.of(new Inventario(5L, 1L, 10)));
+
+        mockMvc.perform(post("/inventarios/internal/lote")
+                .header("SERVICE_API_KEY", "MI_API_KEY_SECRETA_COMPARTIDA")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(List.of(solicitud))))
+
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.length()").value(1))
+            .andExpect(jsonPath("$[0].productoId").value(1));
+    }
+
+    @Test
+    void testCrearRegistrosInventario_SinApiKey_Retorna401Unauthorized() throws Exception {
+        mockMvc.perform(post("/inventarios/internal/lote")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("[]"))
+
+            .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    void testListarInventario_ModoCursor_EnlacesConCursorYSinTotales() throws Exception {
+        ProductoDto p = new ProductoDto(1L, "Producto A", new BigDecimal("10.0"));
+        when(inventarioService.listarInventarioPorCursor(null, 20)).thenReturn(
+            new PaginaCursor<>(List.of(new InventarioResponseDto(5, p)), "c2lndWllbnRl", null));
+
+        mockMvc.perform(get("/inventarios")
+                .param("paginacion", "CURSOR")
+                .header("SERVICE_API_KEY", "MI_API_KEY_SECRETA_COMPARTIDA"))
+
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$._embedded.inventarioResponseDtoList.length()").value(1))
+            .andExpect(jsonPath("$._links.next.href").value(endsWith("/inventarios?cursor=c2lndWllbnRl")))
+            .andExpect(jsonPath("$._links.prev").doesNotExist())
+            .andExpect(jsonPath("$.page").doesNotExist());
+        verify(inventarioService, never()).listarInventario(any());
+    }
+
+    @Test
+    void testListarInventario_CursorInvalido_Retorna400BadRequest() throws Exception {
+        when(inventarioService.listarInventarioPorCursor("roto", 20)).thenThrow(new CursorInvalidoException("Cursor de paginación inválido: roto"));
+
+        mockMvc.perform(get("/inventarios")
+                .param("cursor", "roto")
+                .header("SERVICE_API_KEY", "MI_API_KEY_SECRETA_COMPARTIDA"))
+
+            .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void testExportarInventario_Csv_ConApiKey_EscribeEnLaRespuesta() throws Exception {
+        when(inventarioService.exportarInventario(eq(FormatoExportacion.CSV), any())).thenAnswer(inv -> {
+            OutputStream salida = inv.getArgument(1);
+            salida.write("inventarioId,productoId\n1,10\n".getBytes(StandardCharsets.UTF_8));
+            return 1L;
+        });
+
+        mockMvc.perform(get("/inventarios/exportacion")
+                .param("formato", "CSV")
+                .header("SERVICE_API_KEY", "MI_API_KEY_SECRETA_COMPARTIDA"))
+
+            .andExpect(status().isOk())
+            .andExpect(content().contentTypeCompatibleWith("text/csv"))
+            .andExpect(header().string("Content-Disposition", "attachment; filename=inventario.csv"))
+            .andExpect(content().string("inventarioId,productoId\n1,10\n"));
+    }
+
+    @Test
+    void testExportarInventario_SinApiKey_Retorna401Unauthorized() throws Exception {
+        mockMvc.perform(get("/inventarios/exportacion"))
+            .andExpect(status().isUnauthorized());
+        verify(inventarioService, never()).exportarInventario(any(), any());
+    }
+
+    @Test
+    void testActualizarUmbralReposicion_ConApiKey_Retorna200OK() throws Exception {
+        Inventario inventario = new Inventario(1L, 1L, 40);
+        inventario.setUmbralReposicion(10);
+        InventarioResponseDto dto = new InventarioResponseDto(40, new ProductoDto(1L, "Test Producto", new BigDecimal("10.0")));
+        dto.setUmbralReposicion(10);
+
+        when(inventarioService.actualizarUmbralReposicion(1L, 10)).thenReturn(inventario);
+        when(inventarioService.combinarInventario(inventario, true)).thenReturn(dto);
+
+        mockMvc.perform(put("/inventarios/producto/{id}/umbral-reposicion", 1L)
+                .header("SERVICE_API_KEY", "MI_API_KEY_SECRETA_COMPARTIDA")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(new UmbralReposicionDto(10))))
+
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.umbralReposicion").value(10));
+    }
+
+    @Test
+    void testActualizarUmbralReposicion_Negativo_Retorna400BadRequest() throws Exception {
+        mockMvc.perform(put("/inventarios/producto/{id}/umbral-reposicion", 1L)
+                .header("SERVICE_API_KEY", "MI_API_KEY_SECRETA_COMPARTIDA")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(new UmbralReposicionDto(-1))))
+
+            .andExpect(status().isBadRequest());
+        verify(inventarioService, never()).actualizarUmbralReposicion(anyLong(), anyInt());
+    }
+
+    @Test
+    void testSuscribirAlertas_ConApiKey_AbreFlujoSse() throws Exception {
+        when(alertasStock.suscribir()).thenReturn(new SseEmitter());
+
+        mockMvc.perform(get("/inventarios/alertas")
+                .accept(MediaType.TEXT_EVENT_STREAM)
+                .header("SERVICE_API_KEY", "MI_API_KEY_SECRETA_COMPARTIDA"))
+
+            .andExpect(request().asyncStarted());
+    }
+
+    @Test
+    void testSuscribirAlertas_SinApiKey_Retorna401Unauthorized() throws Exception {
+        mockMvc.perform(get("/inventarios/alertas").accept(MediaType.TEXT_EVENT_STREAM))
+            .andExpect(status().isUnauthorized());
+        verify(alertasStock, never()).suscribir();
+    }
+}
@@ -0,0 +1,85 @@
+package com.linktic.inventario.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.linktic.inventario.config.WebConfig;
+import com.linktic.inventario.dto.ReservaRequestDto;
+import com.linktic.inventario.exception.ReservaNoActivaException;
+import com.linktic.inventario.interceptor.ApiKeyAuthInterceptor;
+import com.linktic.inventario.model.EstadoReserva;
+import com.linktic.inventario.model.Reserva;
+import com.linktic.inventario.service.ReservaService;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.Instant;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(controllers = ReservaController.class)
+@Import({WebConfig.class, ApiKeyAuthInterceptor.class})
+class ReservaControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private ObjectMapper objectMapper;
+    @MockBean
+    private ReservaService reservaService;
+
+    @Test
+    void testCrearReserva_ConApiKey_Retorna201Created() throws Exception {
+        Reserva reserva = new Reserva(1L, 10L, 5, EstadoReserva.ACTIVA, Instant.now().plusSeconds(900), false);
+        when(reservaService.crearReserva(any(ReservaRequestDto.class))).thenReturn(reserva);
+
+        mockMvc.perform(post("/inventarios/reservas")
+                .contentType(MediaType.APPLICATION_JSON)
+                .header("SERVICE_API_KEY", "MI_API_KEY_SECRETA_COMPARTIDA")
+                .content(objectMapper.writeValueAsString(new ReservaRequestDto(10L, 5, 900L))))
+
+            .andExpect(status().isCreated())
+            .andExpect(jsonPath("$.estado").value("ACTIVA"))
+            .andExpect(jsonPath("$._links.self.href").exists());
+    }
+
+    @Test
+    void testCrearReserva_CantidadInvalida_Retorna400() throws Exception {
+        mockMvc.perform(post("/inventarios/reservas")
+                .contentType(MediaType.APPLICATION_JSON)
+                .header("SERVICE_API_KEY", "MI_API_KEY_SECRETA_COMPARTIDA")
+                .content(objectMapper.writeValueAsString(new ReservaRequestDto(10L, 0, null))))
+
+            .andExpect(status().isBadRequest());
+
+        verify(reservaService, never()).crearReserva(any());
+    }
+
+    @Test
+    void testConfirmarReserva_NoActiva_Retorna409() throws Exception {
+        when(reservaService.confirmarReserva(1L)).thenThrow(new ReservaNoActivaException("La reserva 1 no está activa."));
+
+        mockMvc.perform(post("/inventarios/reservas/1/confirmacion")
+                .header("SERVICE_API_KEY", "MI_API_KEY_SECRETA_COMPARTIDA"))
+
+            .andExpect(status().isConflict());
+    }
+
+    @Test
+    void testLiberarReserva_SinApiKey_Retorna401Unauthorized() throws Exception {
+        mockMvc.perform(delete("/inventarios/reservas/1"))
+            .andExpect(status().isUnauthorized());
+
+        verify(reservaService, never()).liberarReserva(any());
+    }
+}
@@ -0,0 +1,287 @@
+package com.linktic.inventario.ledger;
+
+import com.linktic.inventario.exception.StockInsuficienteException;
+import com.linktic.inventario.model.Inventario;
+import com.linktic.inventario.model.LedgerCheckpoint;
+import com.linktic.inventario.repository.InventarioRepository;
+import com.linktic.inventario.repository.LedgerCheckpointRepository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.AbstractPlatformTransactionManager;
+import org.springframework.transaction.support.DefaultTransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class StockLedgerTest {
+
+    private static final Long PRODUCTO_ID = 7L;
+
+    @Mock
+    private InventarioRepository inventarioRepository;
+
+    @Mock
+    private LedgerCheckpointRepository checkpointRepository;
+
+    @TempDir
+    Path directorio;
+
+    private final TransactionTemplate transactionTemplate = new TransactionTemplate(mock(PlatformTransactionManager.class));
+
+    @BeforeEach
+    void configurar() {
+        when(inventarioRepository.findByProductoId(PRODUCTO_ID)).thenReturn(Optional.of(new Inventario(1L, PRODUCTO_ID, 1000)));
+        when(checkpointRepository.findById(anyString())).thenReturn(Optional.empty());
+    }
+
+    private StockLedger nuevoLedger() {
+        StockLedger ledger = new StockLedger(inventarioRepository, checkpointRepository, transactionTemplate,
+                true, Set.of(PRODUCTO_ID), directorio.toString(), true, 4);
+        ledger.recuperar();
+        return ledger;
+    }
+
+    @Test
+    void testDescontar_Concurrente_NuncaQuedaNegativoNiPierdeDescuentos() throws Exception {
+        StockLedger ledger = nuevoLedger();
+        AtomicInteger exitosas = new AtomicInteger();
+        AtomicInteger rechazadas = new AtomicInteger();
+        CountDownLatch salida = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(16);
+
+        List<Future<?>> tareas = new ArrayList<>();
+        for (int i = 0; i < 3000; i++) {
+            tareas.add(executor.submit(() -> {
+                salida.await();
+                try {
+                    assertTrue(ledger.descontar(PRODUCTO_ID, 1).getCantidad() >= 0);
+                    exitosas.incrementAndGet();
+                } catch (StockInsuficienteException e) {
+                    rechazadas.incrementAndGet();
+                }
+                return null;
+            }));
+        }
+
+        salida.countDown();
+        for (Future<?> tarea : tareas) {
+            tarea.get(60, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        assertEquals(1000, exitosas.get());
+        assertEquals(2000, rechazadas.get());
+        assertEquals(0, ledger.cantidadDisponible(PRODUCTO_ID).getAsInt());
+    }
+
+    @Test
+    void testVolcar_AplicaDeltaAgregadoYGuardaCheckpoint() {
+        StockLedger ledger = nuevoLedger();
+        ledger.descontar(PRODUCTO_ID, 3);
+        ledger.descontar(PRODUCTO_ID, 4);
+
+        ledger.volcar();
+
+        verify(inventarioRepository, times(1)).ajustarStock(PRODUCTO_ID, 7);
+        ArgumentCaptor<LedgerCheckpoint> captor = ArgumentCaptor.forClass(LedgerCheckpoint.class);
+        verify(checkpointRepository).save(captor.capture());
+        assertEquals(2L, captor.getValue().getSecuencia());
+
+        ledger.volcar();
+        verify(inventarioRepository, times(1)).ajustarStock(anyLong(), anyInt());
+    }
+
+    @Test
+    void testVolcar_SiFallaLaBd_ConservaElDeltaParaElSiguienteCiclo() {
+        StockLedger ledger = nuevoLedger();
+        ledger.descontar(PRODUCTO_ID, 5);
+        doThrow(new RuntimeException("BD caída")).doReturn(1).when(inventarioRepository).ajustarStock(PRODUCTO_ID, 5);
+
+        ledger.volcar();
+        ledger.volcar();
+
+        verify(inventarioRepository, times(2)).ajustarStock(PRODUCTO_ID, 5);
+    }
+
+    @Test
+    void testRecuperar_TrasCaida_ReaplicaSoloLoNoVolcado() {
+        StockLedger ledger = nuevoLedger();
+        ledger.descontar(PRODUCTO_ID, 2);
+        ledger.volcar();
+        ledger.descontar(PRODUCTO_ID, 5);
+        ledger.descontar(PRODUCTO_ID, 1);
+
+        ArgumentCaptor<LedgerCheckpoint> captor = ArgumentCaptor.forClass(LedgerCheckpoint.class);
+        verify(checkpointRepository).save(captor.capture());
+        when(checkpointRepository.findById(anyString())).thenReturn(Optional.of(captor.getValue()));
+        clearInvocations(inventarioRepository);
+
+        // Simula una caída: se crea un ledger nuevo sobre el mismo directorio sin volcar el anterior.
+        nuevoLedger();
+
+        verify(inventarioRepository, times(1)).ajustarStock(PRODUCTO_ID, 6);
+        verify(checkpointRepository, times(2)).save(any(LedgerCheckpoint.class));
+    }
+
+    @Test
+    void testReponer_ConElLedgerDeshabilitado_ReponeEnLaBd() {
+        StockLedger ledger = nuevoLedger();
+        ledger.descontar(PRODUCTO_ID, 5);
+        ledger.volcar();
+        clearInvocations(inventarioRepository);
+
+        // Reinicio con el ledger deshabilitado: la reserva hecha antes se libera contra la BD.
+        StockLedger deshabilitado = new StockLedger(inventarioRepository, checkpointRepository, transactionTemplate,
+                false, Set.of(PRODUCTO_ID), directorio.toString(), true, 4);
+        deshabilitado.recuperar();
+
+        assertDoesNotThrow(() -> deshabilitado.reponer(PRODUCTO_ID, 5));
+        verify(inventarioRepository).ajustarStock(PRODUCTO_ID, -5);
+        verify(inventarioRepository, never()).findByProductoId(anyLong());
+    }
+
+    @Test
+    void testReponer_ProductoFueraDeLaListaDeCalientes_ReponeEnLaBd() {
+        StockLedger ledger = nuevoLedger();
+
+        ledger.reponer(99L, 3);
+
+        verify(inventarioRepository).ajustarStock(99L, -3);
+        assertTrue(ledger.cantidadDisponible(99L).isEmpty());
+    }
+
+    @Test
+    void testReservaFinalizadaEnBd_ActualizaReservadoYDisponibleDeLaCuenta() {
+        when(inventarioRepository.findByProductoId(PRODUCTO_ID)).thenReturn(Optional.of(new Inventario(1L, PRODUCTO_ID, 1000, 30, 0L)));
+        StockLedger ledger = nuevoLedger();
+        ledger.descontar(PRODUCTO_ID, 10);
+
+        ledger.reservaFinalizadaEnBd(PRODUCTO_ID, 20, true);
+        ledger.reservaFinalizadaEnBd(PRODUCTO_ID, 5, false);
+        ledger.actualizarUmbral(PRODUCTO_ID, 50);
+
+        assertEquals(980, ledger.cantidadDisponible(PRODUCTO_ID).getAsInt());
+        Inventario inventario = ledger.descontar(PRODUCTO_ID, 1);
+        assertEquals(5, inventario.getReservado());
+        assertEquals(984, inventario.getCantidad());
+        assertEquals(50, inventario.getUmbralReposicion());
+    }
+
+    @Test
+    void testReservaFinalizadaEnBd_SinCuentaCargada_NoLaCrea() {
+        StockLedger ledger = nuevoLedger();
+
+        ledger.reservaFinalizadaEnBd(PRODUCTO_ID, 5, true);
+
+        assertTrue(ledger.cantidadDisponible(PRODUCTO_ID).isEmpty());
+        verify(inventarioRepository, never()).findByProductoId(anyLong());
+    }
+
+    @Test
+    void testReservaFinalizadaEnBd_EnTransaccion_SeAplicaTrasElCommitYSeDescartaConRollback() {
+        when(inventarioRepository.findByProductoId(PRODUCTO_ID)).thenReturn(Optional.of(new Inventario(1L, PRODUCTO_ID, 1000, 30, 0L)));
+        StockLedger ledger = nuevoLedger();
+        ledger.descontar(PRODUCTO_ID, 10);
+        TransactionTemplate llamador = new TransactionTemplate(new GestorDePrueba(() -> { }));
+
+        llamador.executeWithoutResult(status -> {
+            ledger.reservaFinalizadaEnBd(PRODUCTO_ID, 20, true);
+            ledger.actualizarUmbral(PRODUCTO_ID, 50);
+            status.setRollbackOnly();
+        });
+        assertEquals(960, ledger.cantidadDisponible(PRODUCTO_ID).getAsInt());
+
+        llamador.executeWithoutResult(status -> {
+            ledger.reservaFinalizadaEnBd(PRODUCTO_ID, 20, true);
+            assertEquals(960, ledger.cantidadDisponible(PRODUCTO_ID).getAsInt());
+        });
+        assertEquals(980, ledger.cantidadDisponible(PRODUCTO_ID).getAsInt());
+        Inventario inventario = ledger.descontar(PRODUCTO_ID, 1);
+        assertEquals(10, inventario.getReservado());
+        assertEquals(0, inventario.getUmbralReposicion());
+    }
+
+    @Test
+    void testReservaFinalizadaEnBd_SinCuenta_UnaCargaConcurrenteEsperaAlCommitYLeeLoConfirmado() throws Exception {
+        AtomicBoolean confirmado = new AtomicBoolean();
+        when(inventarioRepository.findByProductoId(PRODUCTO_ID)).thenAnswer(inv -> Optional.of(confirmado.get()
+                ? new Inventario(1L, PRODUCTO_ID, 1000, 10, 0L)
+                : new Inventario(1L, PRODUCTO_ID, 1000, 30, 0L)));
+        StockLedger ledger = nuevoLedger();
+        TransactionTemplate llamador = new TransactionTemplate(new GestorDePrueba(() -> confirmado.set(true)));
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+
+        try {
+            Future<Inventario> carga = llamador.execute(status -> {
+                ledger.reservaFinalizadaEnBd(PRODUCTO_ID, 20, true);
+                Future<Inventario> compra = executor.submit(() -> ledger.descontar(PRODUCTO_ID, 1));
+                assertThrows(TimeoutException.class, () -> compra.get(200, TimeUnit.MILLISECONDS));
+                return compra;
+            });
+
+            Inventario inventario = carga.get(5, TimeUnit.SECONDS);
+            assertEquals(10, inventario.getReservado());
+            assertEquals(989, ledger.cantidadDisponible(PRODUCTO_ID).getAsInt());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    // Gestor sin recursos que sí activa la sincronización de transacciones; alConfirmar simula el commit en la BD.
+    private static final class GestorDePrueba extends AbstractPlatformTransactionManager {
+
+        private final Runnable alConfirmar;
+
+        GestorDePrueba(Runnable alConfirmar) {
+            this.alConfirmar = alConfirmar;
+        }
+
+        @Override
+        protected Object doGetTransaction() {
+            return new Object();
+        }
+
+        @Override
+        protected void doBegin(Object transaction, TransactionDefinition definition) {
+        }
+
+        @Override
+        protected void doCommit(DefaultTransactionStatus status) {
+            alConfirmar.run();
+        }
+
+        @Override
+        protected void doRollback(DefaultTransactionStatus status) {
+        }
+    }
+}
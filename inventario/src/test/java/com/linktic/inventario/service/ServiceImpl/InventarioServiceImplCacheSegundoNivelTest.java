@@ -0,0 +1,68 @@
+package com.linktic.inventario.service.ServiceImpl;
+
+import com.linktic.inventario.client.ProductoServiceClient;
+import com.linktic.inventario.model.Inventario;
+import com.linktic.inventario.repository.InventarioRepository;
+import com.linktic.inventario.service.InventarioService;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+
+import javax.persistence.EntityManagerFactory;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Contra H2 real con la caché de segundo nivel habilitada: la búsqueda por productoId no toca la BD
+// mientras no haya escrituras, y tanto los UPDATE masivos como las escrituras por entidad la invalidan.
+@SpringBootTest(properties = {
+        "cache.segundo-nivel.habilitado=true",
+        "spring.datasource.url=jdbc:h2:mem:cachesegundonivel"})
+class InventarioServiceImplCacheSegundoNivelTest {
+
+    @Autowired
+    private InventarioService inventarioService;
+
+    @Autowired
+    private InventarioRepository inventarioRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @MockBean
+    private ProductoServiceClient productoServiceClient;
+
+    private Statistics estadisticas;
+
+    @BeforeEach
+    void setUp() {
+        inventarioRepository.save(new Inventario(null, 10L, 50));
+        estadisticas = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @AfterEach
+    void limpiar() {
+        inventarioRepository.deleteAll();
+    }
+
+    @Test
+    void testObtenerInventarioPorProductoId_SeSirveDeLaCacheHastaLaSiguienteEscritura() {
+        inventarioService.obtenerInventarioPorProductoId(10L);
+
+        estadisticas.clear();
+        assertEquals(50, inventarioService.obtenerInventarioPorProductoId(10L).getCantidad());
+        assertEquals(0, estadisticas.getPrepareStatementCount());
+        assertEquals(1, estadisticas.getQueryCacheHitCount());
+
+        inventarioService.procesarCompra(10L, 5);
+        assertEquals(45, inventarioService.obtenerInventarioPorProductoId(10L).getCantidad());
+
+        inventarioService.actualizarUmbralReposicion(10L, 20);
+        assertEquals(20, inventarioService.obtenerInventarioPorProductoId(10L).getUmbralReposicion());
+    }
+}
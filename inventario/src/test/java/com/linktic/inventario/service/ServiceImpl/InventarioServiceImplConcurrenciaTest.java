@@ -0,0 +1,182 @@
+package com.linktic.inventario.service.ServiceImpl;
+
+import com.linktic.inventario.client.ProductoServiceClient;
+import com.linktic.inventario.dto.LineaCompraDto;
+import com.linktic.inventario.dto.ReservaRequestDto;
+import com.linktic.inventario.exception.StockInsuficienteException;
+import com.linktic.inventario.model.EstadoReserva;
+import com.linktic.inventario.model.Inventario;
+import com.linktic.inventario.model.Reserva;
+import com.linktic.inventario.repository.InventarioRepository;
+import com.linktic.inventario.repository.ReservaRepository;
+import com.linktic.inventario.service.InventarioService;
+import com.linktic.inventario.service.ReservaService;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Sin barrido programado: la prueba expira la reserva vencida a mano y cuenta cuántas se expiraron.
+@SpringBootTest(properties = "inventario.reservas.intervalo-barrido-ms=3600000")
+class InventarioServiceImplConcurrenciaTest {
+
+    private static final Long PRODUCTO_ID = 500L;
+    private static final int STOCK_INICIAL = 1000;
+    private static final int COMPRAS = 3000;
+    private static final int HILOS = 32;
+
+    @Autowired
+    private InventarioService inventarioService;
+
+    @Autowired
+    private InventarioRepository inventarioRepository;
+
+    @Autowired
+    private ReservaService reservaService;
+
+    @Autowired
+    private ReservaRepository reservaRepository;
+
+    @MockBean
+    private ProductoServiceClient productoServiceClient;
+
+    @AfterEach
+    void limpiar() {
+        reservaRepository.deleteAll();
+        inventarioRepository.deleteAll();
+    }
+
+    @Test
+    void testProcesarCompra_ComprasConcurrentes_NoPierdeActualizacionesNiQuedaNegativo() throws Exception {
+        inventarioRepository.save(new Inventario(null, PRODUCTO_ID, STOCK_INICIAL));
+
+        AtomicInteger exitosas = new AtomicInteger();
+        AtomicInteger rechazadas = new AtomicInteger();
+        CountDownLatch salida = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(HILOS);
+
+        List<Future<?>> tareas = new ArrayList<>();
+        for (int i = 0; i < COMPRAS; i++) {
+            tareas.add(executor.submit(() -> {
+                salida.await();
+                try {
+                    Inventario inventario = inventarioService.procesarCompra(PRODUCTO_ID, 1);
+                    assertTrue(inventario.getCantidad() >= 0);
+                    exitosas.incrementAndGet();
+                } catch (StockInsuficienteException e) {
+                    rechazadas.incrementAndGet();
+                }
+                return null;
+            }));
+        }
+
+        salida.countDown();
+        for (Future<?> tarea : tareas) {
+            tarea.get(60, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        int stockFinal = inventarioRepository.findByProductoId(PRODUCTO_ID).orElseThrow().getCantidad();
+
+        assertEquals(0, stockFinal);
+        assertEquals(STOCK_INICIAL, exitosas.get());
+        assertEquals(COMPRAS - STOCK_INICIAL, rechazadas.get());
+    }
+
+    @Test
+    void testProcesarCompraMultiple_CheckoutsCruzados_NoSeBloqueanNiPierdenStock() throws Exception {
+        inventarioRepository.save(new Inventario(null, 601L, STOCK_INICIAL));
+        inventarioRepository.save(new Inventario(null, 602L, STOCK_INICIAL));
+
+        AtomicInteger exitosas = new AtomicInteger();
+        CountDownLatch salida = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(HILOS);
+
+        List<Future<?>> tareas = new ArrayList<>();
+        for (int i = 0; i < STOCK_INICIAL / 2; i++) {
+            List<LineaCompraDto> lineas = (i % 2 == 0)
+                ? List.of(new LineaCompraDto(601L, 1), new LineaCompraDto(602L, 1))
+                : List.of(new LineaCompraDto(602L, 1), new LineaCompraDto(601L, 1));
+            tareas.add(executor.submit(() -> {
+                salida.await();
+                inventarioService.procesarCompraMultiple(lineas);
+                exitosas.incrementAndGet();
+                return null;
+            }));
+        }
+
+        salida.countDown();
+        for (Future<?> tarea : tareas) {
+            tarea.get(60, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        assertEquals(STOCK_INICIAL / 2, exitosas.get());
+        assertEquals(STOCK_INICIAL / 2, inventarioRepository.findByProductoId(601L).orElseThrow().getCantidad());
+        assertEquals(STOCK_INICIAL / 2, inventarioRepository.findByProductoId(602L).orElseThrow().getCantidad());
+    }
+
+    @Test
+    void testReservas_ComprasConcurrentesNoConsumenStockReservado() throws Exception {
+        inventarioRepository.save(new Inventario(null, 700L, 100));
+        Reserva confirmable = reservaService.crearReserva(new ReservaRequestDto(700L, 30, 600L));
+        Reserva vencida = reservaService.crearReserva(new ReservaRequestDto(700L, 10, 600L));
+
+        AtomicInteger exitosas = new AtomicInteger();
+        CountDownLatch salida = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(HILOS);
+
+        List<Future<?>> tareas = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            tareas.add(executor.submit(() -> {
+                salida.await();
+                try {
+                    inventarioService.procesarCompra(700L, 1);
+                    exitosas.incrementAndGet();
+                } catch (StockInsuficienteException e) {
+                    // esperado una vez agotado el stock no reservado
+                }
+                return null;
+            }));
+        }
+
+        salida.countDown();
+        for (Future<?> tarea : tareas) {
+            tarea.get(60, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        assertEquals(60, exitosas.get());
+        Inventario inventario = inventarioRepository.findByProductoId(700L).orElseThrow();
+        assertEquals(40, inventario.getCantidad());
+        assertEquals(40, inventario.getReservado());
+        assertEquals(0, inventario.getDisponible());
+
+        reservaService.confirmarReserva(confirmable.getId());
+
+        vencida = reservaRepository.findById(vencida.getId()).orElseThrow();
+        vencida.setExpiraEn(Instant.now().minusSeconds(1));
+        reservaRepository.save(vencida);
+        assertEquals(1, reservaService.expirarReservasVencidas());
+
+        inventario = inventarioRepository.findByProductoId(700L).orElseThrow();
+        assertEquals(10, inventario.getCantidad());
+        assertEquals(0, inventario.getReservado());
+        assertEquals(EstadoReserva.CONFIRMADA, reservaRepository.findById(confirmable.getId()).orElseThrow().getEstado());
+        assertEquals(EstadoReserva.EXPIRADA, reservaRepository.findById(vencida.getId()).orElseThrow().getEstado());
+    }
+}
@@ -0,0 +1,77 @@
+package com.linktic.inventario.service.ServiceImpl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.linktic.inventario.client.ProductoServiceClient;
+import com.linktic.inventario.dto.FilaExportacionDto;
+import com.linktic.inventario.dto.FormatoExportacion;
+import com.linktic.inventario.dto.ProductoDto;
+import com.linktic.inventario.model.Inventario;
+import com.linktic.inventario.repository.InventarioRepository;
+import com.linktic.inventario.service.InventarioService;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.*;
+
+// Contra H2 real: el recorrido por tramos keyset y la expresión constructora del repositorio.
+@SpringBootTest
+class InventarioServiceImplExportacionTest {
+
+    private static final int FILAS = 1_200;
+
+    @Autowired
+    private InventarioService inventarioService;
+
+    @Autowired
+    private InventarioRepository inventarioRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @MockBean
+    private ProductoServiceClient productoServiceClient;
+
+    @AfterEach
+    void limpiar() {
+        inventarioRepository.deleteAll();
+    }
+
+    @Test
+    void testExportarInventario_Ndjson_RecorreTodasLasFilasEnOrdenYPorLotes() throws Exception {
+        inventarioRepository.saveAll(LongStream.rangeClosed(1, FILAS)
+                .mapToObj(productoId -> new Inventario(null, productoId, (int) productoId))
+                .collect(Collectors.toList()));
+        when(productoServiceClient.obtenerProductos(anyCollection())).thenAnswer(inv -> {
+            Collection<Long> ids = inv.getArgument(0);
+            return ids.stream().collect(Collectors.toMap(Function.identity(),
+                    id -> new ProductoDto(id, "Producto " + id, BigDecimal.ONE)));
+        });
+        ByteArrayOutputStream salida = new ByteArrayOutputStream();
+
+        long filas = inventarioService.exportarInventario(FormatoExportacion.NDJSON, salida);
+
+        List<String> lineas = salida.toString(StandardCharsets.UTF_8).lines().collect(Collectors.toList());
+        assertEquals(FILAS, filas);
+        assertEquals(FILAS, lineas.size());
+        FilaExportacionDto ultima = objectMapper.readValue(lineas.get(FILAS - 1), FilaExportacionDto.class);
+        assertEquals((long) FILAS, ultima.getProductoId());
+        assertEquals("Producto " + FILAS, ultima.getNombre());
+        assertEquals(FILAS, ultima.getDisponible());
+        verify(productoServiceClient, times(3)).obtenerProductos(anyCollection());
+    }
+}
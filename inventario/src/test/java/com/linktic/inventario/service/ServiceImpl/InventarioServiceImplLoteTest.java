@@ -0,0 +1,102 @@
+package com.linktic.inventario.service.ServiceImpl;
+
+import com.linktic.inventario.client.ProductoServiceClient;
+import com.linktic.inventario.config.AlineadorSecuencias;
+import com.linktic.inventario.dto.InventarioRequestDto;
+import com.linktic.inventario.repository.InventarioRepository;
+import com.linktic.inventario.repository.SolicitudProcesadaRepository;
+import com.linktic.inventario.service.InventarioService;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import javax.persistence.EntityManagerFactory;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Contra H2 real con el perfil rendimiento: el alta por lote se agrupa en lotes JDBC (sin un SELECT por clave
+// de idempotencia ni un INSERT por fila) y el generador de ids por tabla no choca con ids heredados de IDENTITY.
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:lote",
+        "spring.jpa.properties.hibernate.generate_statistics=true"})
+@ActiveProfiles("rendimiento")
+class InventarioServiceImplLoteTest {
+
+    private static final int FILAS = 250;
+
+    @Autowired
+    private InventarioService inventarioService;
+
+    @Autowired
+    private InventarioRepository inventarioRepository;
+
+    @Autowired
+    private SolicitudProcesadaRepository solicitudProcesadaRepository;
+
+    @Autowired
+    private AlineadorSecuencias alineadorSecuencias;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @MockBean
+    private ProductoServiceClient productoServiceClient;
+
+    @BeforeEach
+    void setUp() {
+        solicitudProcesadaRepository.deleteAllInBatch();
+        inventarioRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void testCrearRegistrosInventario_InsertaPorLotesJdbc() {
+        List<InventarioRequestDto> solicitudes = LongStream.rangeClosed(1, FILAS)
+                .mapToObj(productoId -> solicitud(productoId, "lote-" + productoId))
+                .collect(Collectors.toList());
+        Statistics estadisticas = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        estadisticas.clear();
+
+        inventarioService.crearRegistrosInventario(solicitudes);
+
+        assertEquals(FILAS, inventarioRepository.count());
+        assertEquals(FILAS, solicitudProcesadaRepository.count());
+        assertEquals(2L * FILAS, estadisticas.getEntityInsertCount());
+        // 2 consultas previas, 3 bloques de ids y 3 lotes de 100 por tabla; sin batching serían más de 500.
+        assertTrue(estadisticas.getPrepareStatementCount() < 20, () -> "Sentencias: " + estadisticas.getPrepareStatementCount());
+
+        inventarioService.crearRegistrosInventario(solicitudes);
+        assertEquals(FILAS, inventarioRepository.count());
+    }
+
+    @Test
+    void testAlinearSecuencias_NuevosIdsNoChocanConFilasExistentes() {
+        jdbcTemplate.update("INSERT INTO inventario (id, producto_id, cantidad, reservado, umbral_reposicion, margen_reposicion, version) "
+                + "VALUES (50000, 1, 10, 0, 0, 10, 0)");
+
+        alineadorSecuencias.alinear();
+
+        // El bloque de ids que ya tenga en memoria el generador se consume antes; el siguiente sale de aquí.
+        assertEquals(50001L, jdbcTemplate.queryForObject("SELECT next_val FROM inventario_seq", Long.class));
+    }
+
+    private InventarioRequestDto solicitud(long productoId, String clave) {
+        InventarioRequestDto solicitud = new InventarioRequestDto();
+        solicitud.setProductoId(productoId);
+        solicitud.setCantidad(10);
+        solicitud.setClaveIdempotencia(clave);
+        return solicitud;
+    }
+}
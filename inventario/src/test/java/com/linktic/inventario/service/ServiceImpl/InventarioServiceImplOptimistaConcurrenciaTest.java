@@ -0,0 +1,87 @@
+package com.linktic.inventario.service.ServiceImpl;
+
+import com.linktic.inventario.exception.ConflictoConcurrenciaException;
+import com.linktic.inventario.exception.StockInsuficienteException;
+import com.linktic.inventario.model.Inventario;
+import com.linktic.inventario.repository.InventarioRepository;
+import com.linktic.inventario.service.InventarioService;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {
+    "inventario.compra.modo=OPTIMISTA",
+    "inventario.compra.reintentos.max-intentos=200",
+    "inventario.compra.reintentos.retardo-maximo-ms=20"
+})
+class InventarioServiceImplOptimistaConcurrenciaTest {
+
+    private static final Long PRODUCTO_ID = 500L;
+    private static final int STOCK_INICIAL = 300;
+    private static final int COMPRAS = 600;
+    private static final int HILOS = 8;
+
+    @Autowired
+    private InventarioService inventarioService;
+
+    @Autowired
+    private InventarioRepository inventarioRepository;
+
+    @AfterEach
+    void limpiar() {
+        inventarioRepository.deleteAll();
+    }
+
+    @Test
+    void testProcesarCompraOptimista_ComprasConcurrentes_NoPierdeActualizacionesNiQuedaNegativo() throws Exception {
+        inventarioRepository.save(new Inventario(null, PRODUCTO_ID, STOCK_INICIAL));
+
+        AtomicInteger exitosas = new AtomicInteger();
+        AtomicInteger rechazadas = new AtomicInteger();
+        AtomicInteger conflictos = new AtomicInteger();
+        CountDownLatch salida = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(HILOS);
+
+        List<Future<?>> tareas = new ArrayList<>();
+        for (int i = 0; i < COMPRAS; i++) {
+            tareas.add(executor.submit(() -> {
+                salida.await();
+                try {
+                    Inventario inventario = inventarioService.procesarCompra(PRODUCTO_ID, 1);
+                    assertTrue(inventario.getCantidad() >= 0);
+                    exitosas.incrementAndGet();
+                } catch (StockInsuficienteException e) {
+                    rechazadas.incrementAndGet();
+                } catch (ConflictoConcurrenciaException e) {
+                    conflictos.incrementAndGet();
+                }
+                return null;
+            }));
+        }
+
+        salida.countDown();
+        for (Future<?> tarea : tareas) {
+            tarea.get(60, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        int stockFinal = inventarioRepository.findByProductoId(PRODUCTO_ID).orElseThrow().getCantidad();
+
+        assertTrue(stockFinal >= 0);
+        assertEquals(STOCK_INICIAL - stockFinal, exitosas.get());
+        assertEquals(COMPRAS, exitosas.get() + rechazadas.get() + conflictos.get());
+    }
+}
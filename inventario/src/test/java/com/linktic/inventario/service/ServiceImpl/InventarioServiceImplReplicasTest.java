@@ -0,0 +1,114 @@
+package com.linktic.inventario.service.ServiceImpl;
+
+import com.linktic.inventario.client.ProductoServiceClient;
+import com.linktic.inventario.config.EnrutadorLecturaDataSource;
+import com.linktic.inventario.model.Inventario;
+import com.linktic.inventario.repository.InventarioRepository;
+import com.linktic.inventario.service.InventarioService;
+
+import org.h2.tools.Server;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Primario en memoria y réplica en un servidor H2 por TCP con el mismo esquema y otra cantidad para el mismo
+// producto: así se ve a qué base ha ido cada lectura, y qué pasa cuando la réplica se cae.
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:replicas-primario",
+        "datasource.replicas.habilitado=true",
+        "datasource.replicas.intervalo-verificacion-ms=3600000"})
+class InventarioServiceImplReplicasTest {
+
+    private static final long PRODUCTO_ID = 77L;
+
+    private static Server servidorReplica;
+    private static String urlReplica;
+
+    @Autowired
+    private InventarioService inventarioService;
+
+    @Autowired
+    private InventarioRepository inventarioRepository;
+
+    @Autowired
+    private EnrutadorLecturaDataSource enrutadorLectura;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @MockBean
+    private ProductoServiceClient productoServiceClient;
+
+    @DynamicPropertySource
+    static void replica(DynamicPropertyRegistry registro) throws SQLException {
+        servidorReplica = Server.createTcpServer("-tcpPort", "0", "-ifNotExists").start();
+        urlReplica = "jdbc:h2:tcp://localhost:" + servidorReplica.getPort() + "/mem:replica;DB_CLOSE_DELAY=-1";
+        registro.add("datasource.replicas.urls", () -> urlReplica);
+    }
+
+    @AfterAll
+    static void detenerReplica() {
+        servidorReplica.stop();
+    }
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        inventarioRepository.deleteAllInBatch();
+        inventarioRepository.save(new Inventario(null, PRODUCTO_ID, 10));
+
+        List<String> esquema = jdbcTemplate.queryForList("SCRIPT NODATA", String.class);
+        try (Connection conexion = DriverManager.getConnection(urlReplica, "sa", "");
+             Statement sentencia = conexion.createStatement()) {
+            sentencia.execute("DROP ALL OBJECTS");
+            for (String ddl : esquema) {
+                sentencia.execute(ddl);
+            }
+            sentencia.execute("INSERT INTO inventario (id, producto_id, cantidad, reservado, umbral_reposicion, margen_reposicion, version) "
+                    + "VALUES (1, " + PRODUCTO_ID + ", 7, 0, 0, 7, 0)");
+        }
+    }
+
+    @Test
+    void testLecturas_VanALaReplicaVerificadaYLasDeRepositorioAlPrimario() {
+        enrutadorLectura.verificarReplicas();
+
+        assertEquals(1, enrutadorLectura.replicasDisponibles());
+        assertEquals(7, inventarioService.obtenerInventarioCombinado(PRODUCTO_ID).getCantidad());
+        assertEquals(7, inventarioService.listarInventario(PageRequest.of(0, 10))
+                .getContent().get(0).getCantidad());
+        // Transacción implícita de Spring Data y escrituras: siempre al primario.
+        assertEquals(10, inventarioRepository.findByProductoId(PRODUCTO_ID).orElseThrow().getCantidad());
+        assertEquals(10, jdbcTemplate.queryForObject("SELECT cantidad FROM inventario WHERE producto_id = ?", Integer.class, PRODUCTO_ID));
+    }
+
+    @Test
+    void testReplicaCaida_LaLecturaVuelveAlPrimario() throws InterruptedException, SQLException {
+        enrutadorLectura.verificarReplicas();
+        assertEquals(7, inventarioService.obtenerInventarioCombinado(PRODUCTO_ID).getCantidad());
+
+        servidorReplica.stop();
+        // Hikari no revalida una conexión usada hace menos de 500 ms al prestarla.
+        Thread.sleep(600);
+
+        assertEquals(10, inventarioService.obtenerInventarioCombinado(PRODUCTO_ID).getCantidad());
+        enrutadorLectura.verificarReplicas();
+        assertEquals(0, enrutadorLectura.replicasDisponibles());
+
+        servidorReplica = Server.createTcpServer("-tcpPort", String.valueOf(servidorReplica.getPort()), "-ifNotExists").start();
+    }
+}
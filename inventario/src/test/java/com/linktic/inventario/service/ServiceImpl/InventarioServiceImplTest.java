@@ -1,23 +1,65 @@
 package com.linktic.inventario.service.ServiceImpl;
 
+import com.linktic.inventario.alertas.AlertasStock;
 import com.linktic.inventario.client.ProductoServiceClient;
+import com.linktic.inventario.dto.AlertaStockDto;
+import com.linktic.inventario.dto.CursorPaginacion;
+import com.linktic.inventario.dto.FormatoExportacion;
+import com.linktic.inventario.dto.InventarioRequestDto;
 import com.linktic.inventario.dto.InventarioResponseDto;
+import com.linktic.inventario.dto.LineaCompraDto;
+import com.linktic.inventario.dto.PaginaCursor;
 import com.linktic.inventario.dto.ProductoDto;
+import com.linktic.inventario.dto.ProductoEventoDto;
+import com.linktic.inventario.exception.ConflictoConcurrenciaException;
+import com.linktic.inventario.exception.CursorInvalidoException;
 import com.linktic.inventario.exception.InventarioNotFoundException; 
 import com.linktic.inventario.exception.StockInsuficienteException; 
+import com.linktic.inventario.ledger.StockLedger;
 import com.linktic.inventario.model.Inventario;
+import com.linktic.inventario.model.ModoCompra;
+import com.linktic.inventario.model.SolicitudProcesada;
 import com.linktic.inventario.repository.InventarioRepository;
+import com.linktic.inventario.repository.SolicitudProcesadaRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.retry.support.RetryTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayOutputStream;
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.OptionalInt;
+import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -29,6 +71,30 @@ class InventarioServiceImplTest {
     @Mock
     private ProductoServiceClient productoServiceClient;
 
+    @Mock
+    private StockLedger stockLedger;
+
+    @Mock
+    private SolicitudProcesadaRepository solicitudProcesadaRepository;
+
+    @Mock
+    private AlertasStock alertasStock;
+
+    @Spy
+    private TransactionTemplate transactionTemplate = new TransactionTemplate(mock(PlatformTransactionManager.class));
+
+    @Spy
+    private RetryTemplate compraRetryTemplate = RetryTemplate.builder()
+            .maxAttempts(3)
+            .retryOn(ObjectOptimisticLockingFailureException.class)
+            .build();
+
+    @Spy
+    private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper();
+
     @InjectMocks
     private InventarioServiceImpl inventarioService;
 
@@ -51,6 +117,20 @@ class InventarioServiceImplTest {
         assertEquals("Producto Externo", resultado.getProducto().getNombre());
     }
 
+    @Test
+    void testCombinarInventario_SoloCache_NoLlamaAProductoService() {
+        Inventario inventario = new Inventario(1L, 10L, 40);
+        when(productoServiceClient.obtenerProductoEnCache(10L)).thenReturn(Optional.empty());
+
+        InventarioResponseDto resultado = inventarioService.combinarInventario(inventario, true);
+
+        assertEquals(40, resultado.getCantidad());
+        assertEquals(10L, resultado.getProducto().getId());
+        assertNull(resultado.getProducto().getNombre());
+        verify(productoServiceClient, never()).obtenerProducto(anyLong());
+        verify(inventarioRepository, never()).findByProductoId(anyLong());
+    }
+
     @Test
     void testObtenerInventario_NoEncontrado_LanzaExcepcion() {
         when(inventarioRepository.findByProductoId(99L)).thenReturn(Optional.empty());
@@ -66,16 +146,42 @@ class InventarioServiceImplTest {
         Long productoId = 1L;
         int cantidadComprada = 10;
 
-        Inventario inventarioMock = new Inventario();
-        inventarioMock.setId(1L);
-        inventarioMock.setProductoId(productoId);
-        inventarioMock.setCantidad(50);
-        when(inventarioRepository.findByProductoId(productoId)).thenReturn(Optional.of(inventarioMock));
+        when(inventarioRepository.descontarStock(productoId, cantidadComprada)).thenReturn(1);
+        when(inventarioRepository.findByProductoId(productoId)).thenReturn(Optional.of(new Inventario(1L, productoId, 40)));
+
+        Inventario resultado = inventarioService.procesarCompra(productoId, cantidadComprada);
+
+        verify(inventarioRepository, times(1)).descontarStock(productoId, cantidadComprada);
+        verify(inventarioRepository, never()).save(any(Inventario.class));
+        assertEquals(40, resultado.getCantidad()); 
+    }
+
+    @Test
+    void testProcesarCompra_CruzaUmbral_PublicaUnaAlerta() {
+        Inventario despues = new Inventario(1L, 1L, 4);
+        despues.setUmbralReposicion(5);
+        when(inventarioRepository.descontarStock(1L, 3)).thenReturn(1);
+        when(inventarioRepository.findByProductoId(1L)).thenReturn(Optional.of(despues));
+
+        inventarioService.procesarCompra(1L, 3);
+
+        ArgumentCaptor<AlertaStockDto> alerta = ArgumentCaptor.forClass(AlertaStockDto.class);
+        verify(alertasStock, times(1)).publicar(alerta.capture());
+        assertEquals(1L, alerta.getValue().getProductoId());
+        assertEquals(4, alerta.getValue().getDisponible());
+        assertEquals(5, alerta.getValue().getUmbralReposicion());
+    }
+
+    @Test
+    void testProcesarCompra_YaBajoUmbral_NoRepiteLaAlerta() {
+        Inventario despues = new Inventario(1L, 1L, 3);
+        despues.setUmbralReposicion(5);
+        when(inventarioRepository.descontarStock(1L, 1)).thenReturn(1);
+        when(inventarioRepository.findByProductoId(1L)).thenReturn(Optional.of(despues));
 
-        inventarioService.procesarCompra(productoId, cantidadComprada);
+        inventarioService.procesarCompra(1L, 1);
 
-        verify(inventarioRepository, times(1)).save(any(Inventario.class)); 
-        assertEquals(40, inventarioMock.getCantidad()); 
+        verify(alertasStock, never()).publicar(any());
     }
 
     @Test
@@ -83,6 +189,7 @@ class InventarioServiceImplTest {
         Long productoId = 1L;
         int cantidadComprada = 100;
         Inventario inventarioMock = new Inventario(1L, productoId, 50);
+        when(inventarioRepository.descontarStock(productoId, cantidadComprada)).thenReturn(0);
         when(inventarioRepository.findByProductoId(productoId)).thenReturn(Optional.of(inventarioMock));
 
         Exception ex = assertThrows(StockInsuficienteException.class, () -> {
@@ -91,5 +198,257 @@ class InventarioServiceImplTest {
 
         assertEquals("Cantidad solicitada (100) excede el stock disponible (50).", ex.getMessage());
         verify(inventarioRepository, times(0)).save(any(Inventario.class));
+        assertEquals(1.0, meterRegistry.counter("inventario.stock.rechazos", "operacion", "compra").count());
+    }
+
+    @Test
+    void testProcesarCompra_InventarioNoExiste_LanzaExcepcion() {
+        when(inventarioRepository.descontarStock(99L, 1)).thenReturn(0);
+        when(inventarioRepository.findByProductoId(99L)).thenReturn(Optional.empty());
+
+        assertThrows(InventarioNotFoundException.class, () -> {
+            inventarioService.procesarCompra(99L, 1);
+        });
+    }
+
+    @Test
+    void testProcesarCompra_ProductoCaliente_SeResuelveEnElLedger() {
+        Long productoId = 1L;
+        when(stockLedger.esCaliente(productoId)).thenReturn(true);
+        when(stockLedger.descontar(productoId, 10)).thenReturn(new Inventario(1L, productoId, 90));
+
+        Inventario resultado = inventarioService.procesarCompra(productoId, 10);
+
+        assertEquals(90, resultado.getCantidad());
+        verify(inventarioRepository, never()).descontarStock(anyLong(), anyInt());
+        verify(inventarioRepository, never()).findByProductoId(anyLong());
+    }
+
+    @Test
+    void testProcesarCompraOptimista_ReintentaTrasConflicto() {
+        ReflectionTestUtils.setField(inventarioService, "modoCompra", ModoCompra.OPTIMISTA);
+        Long productoId = 1L;
+
+        when(inventarioRepository.findByProductoId(productoId))
+            .thenReturn(Optional.of(new Inventario(1L, productoId, 50)))
+            .thenReturn(Optional.of(new Inventario(1L, productoId, 45)));
+        when(inventarioRepository.saveAndFlush(any(Inventario.class)))
+            .thenThrow(new ObjectOptimisticLockingFailureException(Inventario.class, 1L))
+            .thenAnswer(invocation -> invocation.getArgument(0));
+
+        Inventario resultado = inventarioService.procesarCompra(productoId, 10);
+
+        assertEquals(35, resultado.getCantidad());
+        verify(inventarioRepository, times(2)).saveAndFlush(any(Inventario.class));
+        verify(inventarioRepository, never()).descontarStock(anyLong(), anyInt());
+        assertEquals(1.0, meterRegistry.counter("inventario.compra.conflictos", "productoId", "1").count());
+        assertEquals(1.0, meterRegistry.counter("inventario.compra.reintentos", "productoId", "1").count());
+    }
+
+    @Test
+    void testProcesarCompraOptimista_ReintentosAgotados_LanzaConflicto() {
+        ReflectionTestUtils.setField(inventarioService, "modoCompra", ModoCompra.OPTIMISTA);
+        Long productoId = 1L;
+
+        when(inventarioRepository.findByProductoId(productoId)).thenAnswer(invocation -> Optional.of(new Inventario(1L, productoId, 50)));
+        when(inventarioRepository.saveAndFlush(any(Inventario.class)))
+            .thenThrow(new ObjectOptimisticLockingFailureException(Inventario.class, 1L));
+
+        assertThrows(ConflictoConcurrenciaException.class, () -> {
+            inventarioService.procesarCompra(productoId, 10);
+        });
+
+        verify(inventarioRepository, times(3)).saveAndFlush(any(Inventario.class));
+        assertEquals(3.0, meterRegistry.counter("inventario.compra.conflictos", "productoId", "1").count());
+    }
+
+    @Test
+    void testProcesarCompraMultiple_DescuentaEnOrdenDeProductoId() {
+        List<LineaCompraDto> lineas = List.of(
+            new LineaCompraDto(30L, 1),
+            new LineaCompraDto(10L, 2),
+            new LineaCompraDto(30L, 4)
+        );
+        when(inventarioRepository.descontarStock(anyLong(), anyInt())).thenReturn(1);
+        when(inventarioRepository.findByProductoIdInOrderByProductoId(any()))
+            .thenReturn(List.of(new Inventario(1L, 10L, 8), new Inventario(3L, 30L, 15)));
+        when(productoServiceClient.obtenerProductos(List.of(10L, 30L))).thenReturn(Map.of());
+
+        List<InventarioResponseDto> resultado = inventarioService.procesarCompraMultiple(lineas);
+
+        InOrder orden = inOrder(inventarioRepository);
+        orden.verify(inventarioRepository).descontarStock(10L, 2);
+        orden.verify(inventarioRepository).descontarStock(30L, 5);
+        assertEquals(2, resultado.size());
+        assertEquals(8, resultado.get(0).getCantidad());
+        assertEquals(15, resultado.get(1).getCantidad());
+    }
+
+    @Test
+    void testProcesarCompraMultiple_LineaSinStock_LanzaExcepcion() {
+        List<LineaCompraDto> lineas = List.of(new LineaCompraDto(10L, 2), new LineaCompraDto(20L, 100));
+        when(inventarioRepository.descontarStock(10L, 2)).thenReturn(1);
+        when(inventarioRepository.descontarStock(20L, 100)).thenReturn(0);
+        when(inventarioRepository.findByProductoId(20L)).thenReturn(Optional.of(new Inventario(2L, 20L, 5)));
+
+        Exception ex = assertThrows(StockInsuficienteException.class, () -> {
+            inventarioService.procesarCompraMultiple(lineas);
+        });
+
+        assertTrue(ex.getMessage().contains("productoId 20"));
+        verify(productoServiceClient, never()).obtenerProductos(anyCollection());
+        assertEquals(1.0, meterRegistry.counter("inventario.stock.rechazos", "operacion", "compra-multiple").count());
+    }
+
+    @Test
+    void testListarInventario_ObtieneProductosEnUnaSolaLlamada() {
+        Pageable pageable = PageRequest.of(0, 20);
+        List<Inventario> inventarios = List.of(
+            new Inventario(1L, 10L, 5),
+            new Inventario(2L, 20L, 7),
+            new Inventario(3L, 30L, 9)
+        );
+        when(inventarioRepository.findAll(pageable)).thenReturn(new PageImpl<>(inventarios, pageable, 3));
+
+        Map<Long, ProductoDto> productos = Map.of(
+            10L, new ProductoDto(10L, "Producto A", new BigDecimal("1.00")),
+            20L, new ProductoDto(20L, "Producto B", new BigDecimal("2.00"))
+        );
+        when(productoServiceClient.obtenerProductos(List.of(10L, 20L, 30L))).thenReturn(productos);
+
+        Page<InventarioResponseDto> resultado = inventarioService.listarInventario(pageable);
+
+        assertEquals(3, resultado.getContent().size());
+        assertEquals("Producto A", resultado.getContent().get(0).getProducto().getNombre());
+        assertEquals("Producto B", resultado.getContent().get(1).getProducto().getNombre());
+        assertEquals("Producto no disponible", resultado.getContent().get(2).getProducto().getNombre());
+        verify(productoServiceClient, times(1)).obtenerProductos(anyCollection());
+        verify(productoServiceClient, never()).obtenerProducto(anyLong());
+    }
+
+    @Test
+    void testListarInventarioPorCursor_AvanzaYRetrocedeSinContar() {
+        when(productoServiceClient.obtenerProductos(anyCollection())).thenReturn(Map.of());
+        when(inventarioRepository.findByOrderByIdAsc(PageRequest.of(0, 3))).thenReturn(List.of(
+            new Inventario(1L, 10L, 5), new Inventario(2L, 20L, 5), new Inventario(3L, 30L, 5)));
+
+        PaginaCursor<InventarioResponseDto> primera = inventarioService.listarInventarioPorCursor(null, 2);
+
+        assertEquals(2, primera.getContenido().size());
+        assertNull(primera.getAnterior());
+        assertEquals(CursorPaginacion.despuesDe(2L), CursorPaginacion.decodificar(primera.getSiguiente()));
+
+        when(inventarioRepository.findByIdGreaterThanOrderByIdAsc(2L, PageRequest.of(0, 3))).thenReturn(List.of(
+            new Inventario(3L, 30L, 5)));
+
+        PaginaCursor<InventarioResponseDto> ultima = inventarioService.listarInventarioPorCursor(primera.getSiguiente(), 2);
+
+        assertEquals(1, ultima.getContenido().size());
+        assertNull(ultima.getSiguiente());
+        assertEquals(CursorPaginacion.antesDe(3L), CursorPaginacion.decodificar(ultima.getAnterior()));
+
+        when(inventarioRepository.findByIdLessThanOrderByIdDesc(3L, PageRequest.of(0, 3))).thenReturn(List.of(
+            new Inventario(2L, 20L, 5), new Inventario(1L, 10L, 5)));
+
+        PaginaCursor<InventarioResponseDto> anterior = inventarioService.listarInventarioPorCursor(ultima.getAnterior(), 2);
+
+        assertEquals(List.of(10L, 20L), anterior.getContenido().stream().map(i -> i.getProducto().getId()).collect(Collectors.toList()));
+        assertNull(anterior.getAnterior());
+        assertEquals(CursorPaginacion.despuesDe(2L), CursorPaginacion.decodificar(anterior.getSiguiente()));
+        verify(inventarioRepository, never()).findAll(any(Pageable.class));
+        verify(inventarioRepository, never()).count();
+    }
+
+    @Test
+    void testListarInventarioPorCursor_CursorInvalido_LanzaExcepcion() {
+        assertThrows(CursorInvalidoException.class, () -> inventarioService.listarInventarioPorCursor("no-es-un-cursor", 20));
+    }
+
+    @Test
+    void testExportarInventario_Csv_ResuelveProductosPorLotesYEscapaNombres() {
+        ReflectionTestUtils.setField(inventarioService, "tamanoLoteExportacion", 2);
+        when(inventarioRepository.leerTramoExportacion(eq(0L), any(Pageable.class))).thenReturn(List.of(
+            new Inventario(1L, 10L, 5, 1, 0L), new Inventario(2L, 20L, 7, 0, 0L)));
+        when(inventarioRepository.leerTramoExportacion(eq(2L), any(Pageable.class))).thenReturn(List.of(
+            new Inventario(3L, 30L, 9, 0, 0L)));
+        when(stockLedger.cantidadDisponible(anyLong())).thenReturn(OptionalInt.empty());
+        when(productoServiceClient.obtenerProductos(List.of(10L, 20L))).thenReturn(Map.of(
+            10L, new ProductoDto(10L, "Tornillo \"M5\", acero", new BigDecimal("0.25"))));
+        when(productoServiceClient.obtenerProductos(List.of(30L))).thenReturn(Map.of(
+            30L, new ProductoDto(30L, "Tuerca", new BigDecimal("0.10"))));
+        ByteArrayOutputStream salida = new ByteArrayOutputStream();
+
+        long filas = inventarioService.exportarInventario(FormatoExportacion.CSV, salida);
+
+        assertEquals(3, filas);
+        assertEquals(List.of(
+            "inventarioId,productoId,nombre,precio,cantidad,reservado,disponible",
+            "1,10,\"Tornillo \"\"M5\"\", acero\",0.25,5,1,4",
+            "2,20,,,7,0,7",
+            "3,30,\"Tuerca\",0.10,9,0,9"
+        ), salida.toString(StandardCharsets.UTF_8).lines().collect(Collectors.toList()));
+        verify(productoServiceClient, times(2)).obtenerProductos(anyCollection());
+        verify(inventarioRepository, times(2)).leerTramoExportacion(anyLong(), any(Pageable.class));
+    }
+
+    @Test
+    void testProcesarEventoProducto_Actualizado_RefrescaCache() {
+        ProductoDto producto = new ProductoDto(10L, "Nuevo Nombre", new BigDecimal("5.00"));
+        ProductoEventoDto evento = new ProductoEventoDto(ProductoEventoDto.TipoEvento.PRODUCTO_ACTUALIZADO, 10L, producto);
+        when(productoServiceClient.refrescarProducto(producto)).thenReturn(true);
+
+        inventarioService.procesarEventoProducto(evento);
+
+        verify(productoServiceClient, times(1)).refrescarProducto(producto);
+        verify(productoServiceClient, never()).invalidarProducto(anyLong());
+    }
+
+    @Test
+    void testProcesarEventoProducto_Eliminado_InvalidaCache() {
+        ProductoEventoDto evento = new ProductoEventoDto(ProductoEventoDto.TipoEvento.PRODUCTO_ELIMINADO, 10L, null);
+
+        inventarioService.procesarEventoProducto(evento);
+
+        verify(productoServiceClient, times(1)).invalidarProducto(10L);
+        verify(productoServiceClient, never()).refrescarProducto(any(ProductoDto.class));
+    }
+
+    @Test
+    void testCrearRegistrosInventario_IgnoraClavesYaProcesadasYProductosConInventario() {
+        List<InventarioRequestDto> lote = List.of(
+                solicitud("clave-1", 1L, 10),
+                solicitud("clave-2", 2L, 20),
+                solicitud("clave-3", 3L, 30),
+                solicitud("clave-3", 3L, 30));
+
+        when(solicitudProcesadaRepository.findAllById(anyCollection()))
+                .thenReturn(List.of(new SolicitudProcesada("clave-1", Instant.now())));
+        when(inventarioRepository.findByProductoIdInOrderByProductoId(anyCollection()))
+                .thenReturn(List.of(new Inventario(7L, 2L, 5)));
+        when(inventarioRepository.saveAll(anyList())).thenAnswer(inv -> {
+            List<Inventario> nuevos = inv.getArgument(0);
+            nuevos.forEach(i -> i.setId(100L + i.getProductoId()));
+            return nuevos;
+        });
+
+        List<Inventario> creados = inventarioService.crearRegistrosInventario(lote);
+
+        assertEquals(1, creados.size());
+        assertEquals(3L, creados.get(0).getProductoId());
+        assertEquals(30, creados.get(0).getCantidad());
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<SolicitudProcesada>> claves = ArgumentCaptor.forClass(List.class);
+        verify(solicitudProcesadaRepository).saveAll(claves.capture());
+        assertEquals(List.of("clave-2", "clave-3"),
+                claves.getValue().stream().map(SolicitudProcesada::getClave).collect(Collectors.toList()));
+    }
+
+    private InventarioRequestDto solicitud(String clave, Long productoId, int cantidad) {
+        InventarioRequestDto dto = new InventarioRequestDto();
+        dto.setClaveIdempotencia(clave);
+        dto.setProductoId(productoId);
+        dto.setCantidad(cantidad);
+        return dto;
     }
-}
\ No newline at end of file
+}
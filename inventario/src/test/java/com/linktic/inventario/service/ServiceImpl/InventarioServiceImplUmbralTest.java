@@ -0,0 +1,91 @@
+package com.linktic.inventario.service.ServiceImpl;
+
+import com.linktic.inventario.alertas.AlertasStock;
+import com.linktic.inventario.client.ProductoServiceClient;
+import com.linktic.inventario.dto.AlertaStockDto;
+import com.linktic.inventario.dto.InventarioResponseDto;
+import com.linktic.inventario.model.Inventario;
+import com.linktic.inventario.repository.InventarioRepository;
+import com.linktic.inventario.service.InventarioService;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.*;
+
+// Contra H2 real: margenReposicion debe seguir a cada escritura (masiva o por entidad) para que la
+// consulta de stock bajo sea un rango sobre su índice.
+@SpringBootTest
+class InventarioServiceImplUmbralTest {
+
+    @Autowired
+    private InventarioService inventarioService;
+
+    @Autowired
+    private InventarioRepository inventarioRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @MockBean
+    private ProductoServiceClient productoServiceClient;
+
+    @MockBean
+    private AlertasStock alertasStock;
+
+    @AfterEach
+    void limpiar() {
+        inventarioRepository.deleteAll();
+    }
+
+    @Test
+    void testCompraYReserva_MantienenElMargenYSoloLaCompraQueCruzaAvisa() {
+        inventarioRepository.saveAll(List.of(
+                new Inventario(null, 10L, 10), new Inventario(null, 20L, 10), new Inventario(null, 30L, 100)));
+        inventarioService.actualizarUmbralReposicion(10L, 5);
+        inventarioService.actualizarUmbralReposicion(20L, 5);
+        when(productoServiceClient.obtenerProductos(anyCollection())).thenReturn(Map.of());
+
+        inventarioService.procesarCompra(10L, 6);
+        inventarioService.procesarCompra(10L, 1);
+        transactionTemplate.executeWithoutResult(status -> inventarioRepository.reservarStock(20L, 5));
+        inventarioService.procesarCompra(30L, 50);
+
+        ArgumentCaptor<AlertaStockDto> alerta = ArgumentCaptor.forClass(AlertaStockDto.class);
+        verify(alertasStock, times(1)).publicar(alerta.capture());
+        assertEquals(10L, alerta.getValue().getProductoId());
+        assertEquals(4, alerta.getValue().getDisponible());
+
+        List<InventarioResponseDto> bajoUmbral = inventarioService.listarInventarioBajoUmbral(
+                PageRequest.of(0, 20, Sort.by("margenReposicion", "id"))).getContent();
+
+        assertEquals(List.of(10L, 20L), bajoUmbral.stream().map(i -> i.getProducto().getId()).collect(Collectors.toList()));
+        assertEquals(List.of(-2, 0), List.of(
+                inventarioRepository.findByProductoId(10L).orElseThrow().getMargenReposicion(),
+                inventarioRepository.findByProductoId(20L).orElseThrow().getMargenReposicion()));
+    }
+
+    @Test
+    void testConsultaBajoUmbral_UsaElIndiceDeMargen() {
+        String plan = jdbcTemplate.queryForObject("EXPLAIN SELECT * FROM inventario WHERE margen_reposicion <= 0", String.class);
+
+        assertTrue(plan.contains("IDX_INVENTARIO_MARGEN_REPOSICION"), plan);
+    }
+}
@@ -0,0 +1,183 @@
+package com.linktic.inventario.service.ServiceImpl;
+
+import com.linktic.inventario.dto.ReservaRequestDto;
+import com.linktic.inventario.exception.ReservaNoActivaException;
+import com.linktic.inventario.exception.ReservaNotFoundException;
+import com.linktic.inventario.exception.StockInsuficienteException;
+import com.linktic.inventario.ledger.StockLedger;
+import com.linktic.inventario.model.EstadoReserva;
+import com.linktic.inventario.model.Inventario;
+import com.linktic.inventario.model.Reserva;
+import com.linktic.inventario.repository.InventarioRepository;
+import com.linktic.inventario.repository.ReservaRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ReservaServiceImplTest {
+
+    @Mock
+    private ReservaRepository reservaRepository;
+
+    @Mock
+    private InventarioRepository inventarioRepository;
+
+    @Mock
+    private StockLedger stockLedger;
+
+    @Spy
+    private TransactionTemplate transactionTemplate = new TransactionTemplate(mock(PlatformTransactionManager.class));
+
+    @Spy
+    private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @InjectMocks
+    private ReservaServiceImpl reservaService;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(reservaService, "ttlPorDefecto", Duration.ofMinutes(15));
+        ReflectionTestUtils.setField(reservaService, "ttlMaximo", Duration.ofHours(1));
+    }
+
+    @Test
+    void testCrearReserva_Exitoso_RetieneStockYAcotaTtl() {
+        when(inventarioRepository.reservarStock(10L, 5)).thenReturn(1);
+        when(reservaRepository.save(any(Reserva.class))).thenAnswer(invocation -> {
+            Reserva reserva = invocation.getArgument(0);
+            reserva.setId(1L);
+            return reserva;
+        });
+
+        Reserva reserva = reservaService.crearReserva(new ReservaRequestDto(10L, 5, 86_400L));
+
+        assertEquals(1L, reserva.getId());
+        assertEquals(EstadoReserva.ACTIVA, reserva.getEstado());
+        assertFalse(reserva.isEnLedger());
+        assertTrue(reserva.getExpiraEn().isBefore(Instant.now().plus(Duration.ofHours(1)).plusSeconds(1)));
+        verify(inventarioRepository).reservarStock(10L, 5);
+    }
+
+    @Test
+    void testCrearReserva_StockInsuficiente() {
+        Inventario inventario = new Inventario(1L, 10L, 10);
+        inventario.setReservado(8);
+        when(inventarioRepository.reservarStock(10L, 5)).thenReturn(0);
+        when(inventarioRepository.findByProductoId(10L)).thenReturn(Optional.of(inventario));
+
+        StockInsuficienteException exception = assertThrows(StockInsuficienteException.class,
+                () -> reservaService.crearReserva(new ReservaRequestDto(10L, 5, null)));
+
+        assertEquals("Cantidad solicitada (5) excede el stock disponible (2).", exception.getMessage());
+        verify(reservaRepository, never()).save(any());
+        assertEquals(1.0, meterRegistry.counter("inventario.stock.rechazos", "operacion", "reserva").count());
+    }
+
+    @Test
+    void testCrearReserva_ProductoCaliente_RetieneEnLedgerYReponeSiFallaElGuardado() {
+        when(stockLedger.esCaliente(10L)).thenReturn(true);
+        when(reservaRepository.save(any(Reserva.class))).thenThrow(new IllegalStateException("BD caída"));
+
+        assertThrows(IllegalStateException.class, () -> reservaService.crearReserva(new ReservaRequestDto(10L, 5, null)));
+
+        verify(stockLedger).descontar(10L, 5);
+        verify(stockLedger).reponer(10L, 5);
+        verify(inventarioRepository, never()).reservarStock(anyLong(), anyInt());
+    }
+
+    @Test
+    void testConfirmarReserva_DescuentaStockReservado() {
+        Reserva reserva = new Reserva(1L, 10L, 5, EstadoReserva.ACTIVA, Instant.now().plusSeconds(60), false);
+        when(reservaRepository.findById(1L)).thenReturn(Optional.of(reserva));
+        when(reservaRepository.cambiarEstado(1L, EstadoReserva.ACTIVA, EstadoReserva.CONFIRMADA)).thenReturn(1);
+        when(inventarioRepository.confirmarStockReservado(10L, 5)).thenReturn(1);
+
+        Reserva confirmada = reservaService.confirmarReserva(1L);
+
+        assertEquals(EstadoReserva.CONFIRMADA, confirmada.getEstado());
+        verify(inventarioRepository).confirmarStockReservado(10L, 5);
+        verify(stockLedger).reservaFinalizadaEnBd(10L, 5, false);
+    }
+
+    @Test
+    void testLiberarReserva_EnBd_AvisaAlLedgerParaQueSuCuentaVeaElStockLiberado() {
+        Reserva reserva = new Reserva(1L, 10L, 5, EstadoReserva.ACTIVA, Instant.now().plusSeconds(60), false);
+        when(reservaRepository.findById(1L)).thenReturn(Optional.of(reserva));
+        when(reservaRepository.cambiarEstado(1L, EstadoReserva.ACTIVA, EstadoReserva.LIBERADA)).thenReturn(1);
+        when(inventarioRepository.liberarStockReservado(10L, 5)).thenReturn(1);
+
+        reservaService.liberarReserva(1L);
+
+        verify(stockLedger).reservaFinalizadaEnBd(10L, 5, true);
+        verify(stockLedger, never()).reponer(anyLong(), anyInt());
+    }
+
+    @Test
+    void testConfirmarReserva_Vencida_LanzaExcepcion() {
+        Reserva reserva = new Reserva(1L, 10L, 5, EstadoReserva.ACTIVA, Instant.now().minusSeconds(1), false);
+        when(reservaRepository.findById(1L)).thenReturn(Optional.of(reserva));
+
+        assertThrows(ReservaNoActivaException.class, () -> reservaService.confirmarReserva(1L));
+
+        verify(reservaRepository, never()).cambiarEstado(anyLong(), any(), any());
+        verify(inventarioRepository, never()).confirmarStockReservado(anyLong(), anyInt());
+    }
+
+    @Test
+    void testLiberarReserva_YaConfirmada_LanzaExcepcion() {
+        Reserva reserva = new Reserva(1L, 10L, 5, EstadoReserva.CONFIRMADA, Instant.now().plusSeconds(60), false);
+        when(reservaRepository.findById(1L)).thenReturn(Optional.of(reserva));
+        when(reservaRepository.cambiarEstado(1L, EstadoReserva.ACTIVA, EstadoReserva.LIBERADA)).thenReturn(0);
+
+        assertThrows(ReservaNoActivaException.class, () -> reservaService.liberarReserva(1L));
+
+        verify(inventarioRepository, never()).liberarStockReservado(anyLong(), anyInt());
+    }
+
+    @Test
+    void testLiberarReserva_NoEncontrada() {
+        when(reservaRepository.findById(99L)).thenReturn(Optional.empty());
+
+        assertThrows(ReservaNotFoundException.class, () -> reservaService.liberarReserva(99L));
+    }
+
+    @Test
+    void testExpirarReservasVencidas_LiberaLasActivasYIgnoraLasQueCambiaronDeEstado() {
+        Reserva enBd = new Reserva(1L, 10L, 5, EstadoReserva.ACTIVA, Instant.now().minusSeconds(5), false);
+        Reserva enLedger = new Reserva(2L, 20L, 3, EstadoReserva.ACTIVA, Instant.now().minusSeconds(5), true);
+        Reserva yaConfirmada = new Reserva(3L, 30L, 1, EstadoReserva.ACTIVA, Instant.now().minusSeconds(5), false);
+        when(reservaRepository.findTop500ByEstadoAndExpiraEnBeforeOrderByExpiraEn(eq(EstadoReserva.ACTIVA), any(Instant.class)))
+                .thenReturn(List.of(enBd, enLedger, yaConfirmada));
+        when(reservaRepository.cambiarEstado(1L, EstadoReserva.ACTIVA, EstadoReserva.EXPIRADA)).thenReturn(1);
+        when(reservaRepository.cambiarEstado(2L, EstadoReserva.ACTIVA, EstadoReserva.EXPIRADA)).thenReturn(1);
+        when(reservaRepository.cambiarEstado(3L, EstadoReserva.ACTIVA, EstadoReserva.EXPIRADA)).thenReturn(0);
+
+        int expiradas = reservaService.expirarReservasVencidas();
+
+        assertEquals(2, expiradas);
+        verify(inventarioRepository).liberarStockReservado(10L, 5);
+        verify(stockLedger).reponer(20L, 3);
+        verify(inventarioRepository, never()).liberarStockReservado(eq(30L), anyInt());
+    }
+}
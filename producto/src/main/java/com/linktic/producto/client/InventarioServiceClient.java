@@ -1,6 +1,8 @@
 package com.linktic.producto.client;
 
+import com.linktic.producto.config.MetricasConfig;
 import com.linktic.producto.dto.InventarioRequestDto;
+import com.linktic.producto.dto.ProductoEventoDto;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpEntity;
@@ -11,9 +13,13 @@ import org.springframework.retry.annotation.Retryable;
 import org.springframework.stereotype.Component;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.PostMapping;
-import org.springframework.web.client.RestClientException;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.ResourceAccessException;
 import org.springframework.web.client.RestTemplate;
 
+import java.util.List;
+
 @Component
 @RequiredArgsConstructor
 public class InventarioServiceClient {
@@ -26,36 +32,49 @@ public class InventarioServiceClient {
     @Value("${service.api.key}")
     private String serviceApiKey;
 
+    // Sin @Retryable: el relay del outbox ya reintenta con backoff y el lote es idempotente. La RestClientException
+    // sale sin envolver para que el relay distinga un rechazo (4xx) de un fallo transitorio.
+    @PostMapping(value = "/inventarios/internal/lote", headers = {"${api.key.header}=${api.key.value}"})
+    public void crearRegistrosInventario(List<InventarioRequestDto> solicitudes) {
+        String url = inventarioServiceUrl + "/inventarios/internal/lote";
+        restTemplate.postForEntity(url, new HttpEntity<>(solicitudes, createAuthHeaders()), Void.class);
+    }
+
+    // Solo se reintentan errores de red y 5xx; un 4xx no cambia al repetir la petición.
     @Retryable(
-        value = { RestClientException.class }, 
+        value = { ResourceAccessException.class, HttpServerErrorException.class },
         maxAttempts = 2, 
-        backoff = @Backoff(delay = 1000)
+        backoff = @Backoff(delay = 1000),
+        label = "eliminar-inventario",
+        listeners = MetricasConfig.REINTENTOS_INVENTARIO
     )
-    @PostMapping(value = "/inventarios", headers = {"${api.key.header}=${api.key.value}"})
-    public void crearRegistroInventario(InventarioRequestDto requestDto) {
-        String url = inventarioServiceUrl + "/inventarios";
+    @DeleteMapping(value = "/inventarios/producto/{productoId}", headers = {"${api.key.header}=${api.key.value}"})
+    public void eliminarRegistroInventario(Long productoId) {
+        // Plantilla con variables: la etiqueta uri de http.client.requests no crea una serie por producto.
+        String url = inventarioServiceUrl + "/inventarios/producto/{productoId}";
         
         try {
-            restTemplate.postForEntity(url, new HttpEntity<>(requestDto, createAuthHeaders()), Void.class);
-        } catch (RestClientException e) {
-            throw new RuntimeException("Error al crear inventario (reintentos agotados): " + e.getMessage(), e);
+            restTemplate.exchange(url, HttpMethod.DELETE, new HttpEntity<>(createAuthHeaders()), Void.class, productoId);
+        } catch (HttpClientErrorException.NotFound e) {
+            // Ya eliminado, o nunca creado porque el alta seguía en el outbox: no queda nada que borrar.
+        } catch (HttpClientErrorException e) {
+            throw new RuntimeException("Error al borrar inventario: " + e.getMessage(), e);
         }
     }
 
+    // La RestClientException sale sin envolver para que @Retryable la reconozca; ProductoEventoListener
+    // registra el fallo una vez agotados los reintentos.
     @Retryable(
-        value = { RestClientException.class }, 
+        value = { ResourceAccessException.class, HttpServerErrorException.class },
         maxAttempts = 2, 
-        backoff = @Backoff(delay = 1000)
+        backoff = @Backoff(delay = 1000),
+        label = "notificar-evento",
+        listeners = MetricasConfig.REINTENTOS_INVENTARIO
     )
-    @DeleteMapping(value = "/inventarios/producto/{productoId}", headers = {"${api.key.header}=${api.key.value}"})
-    public void eliminarRegistroInventario(Long productoId) {
-        String url = inventarioServiceUrl + "/inventarios/producto/" + productoId;
-        
-        try {
-            restTemplate.exchange(url, HttpMethod.DELETE, new HttpEntity<>(createAuthHeaders()), Void.class);
-        } catch (RestClientException e) {
-            throw new RuntimeException("Error al borrar inventario (reintentos agotados): " + e.getMessage(), e);
-        }
+    @PostMapping(value = "/inventarios/internal/eventos-producto", headers = {"${api.key.header}=${api.key.value}"})
+    public void notificarEventoProducto(ProductoEventoDto evento) {
+        String url = inventarioServiceUrl + "/inventarios/internal/eventos-producto";
+        restTemplate.postForEntity(url, new HttpEntity<>(evento, createAuthHeaders()), Void.class);
     }
 
     private HttpHeaders createAuthHeaders() {
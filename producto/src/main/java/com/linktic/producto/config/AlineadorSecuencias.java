@@ -0,0 +1,37 @@
+package com.linktic.producto.config;
+
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+
+// Las tablas de secuencia se crean empezando en 1 aunque la tabla ya tenga filas (p. ej. ids
+// generados antes con IDENTITY). Al arrancar se adelantan por encima del id máximo.
+@Component
+@DependsOn("entityManagerFactory")
+@RequiredArgsConstructor
+public class AlineadorSecuencias {
+
+    private static final Logger log = LoggerFactory.getLogger(AlineadorSecuencias.class);
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @PostConstruct
+    public void alinear() {
+        alinear("producto_seq", "producto");
+        alinear("outbox_inventario_seq", "outbox_inventario");
+    }
+
+    private void alinear(String secuencia, String tabla) {
+        String maximo = "(SELECT COALESCE(MAX(id), 0) FROM " + tabla + ")";
+        int actualizadas = jdbcTemplate.update(
+                "UPDATE " + secuencia + " SET next_val = " + maximo + " + 1 WHERE next_val <= " + maximo);
+        if (actualizadas > 0) {
+            log.info("Secuencia {} adelantada por encima del id máximo de {}", secuencia, tabla);
+        }
+    }
+}
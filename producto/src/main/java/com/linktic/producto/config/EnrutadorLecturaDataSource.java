@@ -0,0 +1,122 @@
+package com.linktic.producto.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.jpa.repository.support.SimpleJpaRepository;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.Closeable;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+// Envía las transacciones de solo lectura de la aplicación a una réplica disponible (por turnos) y el resto
+// al primario. Las transacciones readOnly que Spring Data abre por su cuenta en cada método de repositorio
+// (como las del relay del outbox, que no debe volver a publicar lo que acaba de borrar) se quedan en el
+// primario: una réplica va con retraso y no debe decidir nada que se acabe de escribir.
+// Cada réplica se verifica periódicamente; la que falla al dar conexión se marca caída en el acto y la lectura
+// sigue en el primario hasta que una verificación la vuelva a encontrar disponible.
+// Copia deliberada de la misma clase en inventario-service (no hay módulo compartido): un cambio aquí va también allí.
+public class EnrutadorLecturaDataSource extends AbstractDataSource implements Closeable {
+
+    private static final Logger log = LoggerFactory.getLogger(EnrutadorLecturaDataSource.class);
+    private static final String TRANSACCIONES_DE_REPOSITORIO = SimpleJpaRepository.class.getName() + ".";
+
+    private final HikariDataSource primario;
+    private final List<Replica> replicas;
+    private final int timeoutVerificacionSegundos;
+    private final AtomicInteger turno = new AtomicInteger();
+
+    public EnrutadorLecturaDataSource(HikariDataSource primario, List<HikariDataSource> replicas, Duration timeoutVerificacion) {
+        this.primario = primario;
+        this.replicas = replicas.stream().map(Replica::new).collect(Collectors.toList());
+        this.timeoutVerificacionSegundos = (int) Math.max(1, timeoutVerificacion.toSeconds());
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (esLecturaDeAplicacion()) {
+            Replica replica = siguienteDisponible();
+            if (replica != null) {
+                try {
+                    return replica.dataSource.getConnection();
+                } catch (SQLException e) {
+                    marcar(replica, false, e);
+                }
+            }
+        }
+        return primario.getConnection();
+    }
+
+    @Override
+    public Connection getConnection(String usuario, String clave) throws SQLException {
+        return primario.getConnection(usuario, clave);
+    }
+
+    @Scheduled(fixedDelayString = "${datasource.replicas.intervalo-verificacion-ms:5000}")
+    public void verificarReplicas() {
+        for (Replica replica : replicas) {
+            try (Connection conexion = replica.dataSource.getConnection()) {
+                marcar(replica, conexion.isValid(timeoutVerificacionSegundos), null);
+            } catch (SQLException e) {
+                marcar(replica, false, e);
+            }
+        }
+    }
+
+    public int replicasDisponibles() {
+        return (int) replicas.stream().filter(replica -> replica.disponible).count();
+    }
+
+    @Override
+    public void close() {
+        replicas.forEach(replica -> replica.dataSource.close());
+    }
+
+    private static boolean esLecturaDeAplicacion() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            return false;
+        }
+        String nombre = TransactionSynchronizationManager.getCurrentTransactionName();
+        return nombre == null || !nombre.startsWith(TRANSACCIONES_DE_REPOSITORIO);
+    }
+
+    private Replica siguienteDisponible() {
+        for (int i = 0; i < replicas.size(); i++) {
+            Replica replica = replicas.get(Math.floorMod(turno.getAndIncrement(), replicas.size()));
+            if (replica.disponible) {
+                return replica;
+            }
+        }
+        return null;
+    }
+
+    private void marcar(Replica replica, boolean disponible, SQLException causa) {
+        if (replica.disponible == disponible) {
+            return;
+        }
+        replica.disponible = disponible;
+        if (disponible) {
+            log.info("Réplica de lectura disponible: {}", replica.dataSource.getJdbcUrl());
+        } else {
+            log.warn("Réplica de lectura no disponible, las lecturas van al primario: {} ({})",
+                    replica.dataSource.getJdbcUrl(), causa != null ? causa.getMessage() : "conexión no válida");
+        }
+    }
+
+    // Empieza como no disponible: no recibe lecturas hasta la primera verificación correcta.
+    private static final class Replica {
+        private final HikariDataSource dataSource;
+        private volatile boolean disponible;
+
+        private Replica(HikariDataSource dataSource) {
+            this.dataSource = dataSource;
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.linktic.producto.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableAsync;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+// Los eventos de producto se notifican a inventario-service fuera del hilo de la petición, para que un
+// inventario lento (y los reintentos) no alarguen el PUT/DELETE. Un único hilo los entrega en el orden de
+// commit; entre instancias no hay orden, e inventario descarta los que traen una versión anterior.
+@Configuration
+@EnableAsync
+public class EventosProductoConfig {
+
+    public static final String EVENTOS_PRODUCTO_EXECUTOR = "eventosProductoExecutor";
+
+    private static final Logger log = LoggerFactory.getLogger(EventosProductoConfig.class);
+
+    // Con la cola llena el evento se descarta y se cuenta: el TTL de la caché de inventario acota el dato viejo.
+    @Bean(EVENTOS_PRODUCTO_EXECUTOR)
+    public ThreadPoolTaskExecutor eventosProductoExecutor(
+            @Value("${eventos.producto.capacidad-cola:1000}") int capacidadCola,
+            MeterRegistry meterRegistry) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(1);
+        executor.setMaxPoolSize(1);
+        executor.setQueueCapacity(capacidadCola);
+        executor.setThreadNamePrefix("eventos-producto-");
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(10);
+        executor.setRejectedExecutionHandler((tarea, pool) -> {
+            meterRegistry.counter("cliente.inventario.respaldos", "operacion", "notificar-evento").increment();
+            log.warn("Cola de eventos de producto llena o detenida; el evento no se notificará a inventario-service");
+        });
+        return executor;
+    }
+}
@@ -0,0 +1,43 @@
+package com.linktic.producto.config;
+
+import org.apache.coyote.ProtocolHandler;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+// Con ejecucion.hilos=VIRTUALES Tomcat atiende cada petición en un hilo virtual, y las llamadas
+// bloqueantes (JDBC, RestTemplate) que hace esa petición liberan el hilo de plataforma mientras esperan.
+// El executor se obtiene por reflexión para que el código siga compilando con Java 17; en una JVM
+// sin hilos virtuales se registra un aviso y se mantiene el pool de hilos de plataforma de Tomcat.
+@Configuration
+@ConditionalOnProperty(name = "ejecucion.hilos", havingValue = "VIRTUALES")
+public class HilosVirtualesConfig {
+
+    private static final Logger log = LoggerFactory.getLogger(HilosVirtualesConfig.class);
+
+    @Bean
+    public TomcatProtocolHandlerCustomizer<ProtocolHandler> hilosVirtualesTomcat() {
+        Optional<ExecutorService> executor = crearExecutorVirtual();
+        if (executor.isEmpty()) {
+            log.warn("ejecucion.hilos=VIRTUALES requiere Java 21 o superior (JVM actual: {}). Se usan hilos de plataforma", Runtime.version());
+            return protocolHandler -> { };
+        }
+        log.info("Tomcat atenderá las peticiones en hilos virtuales");
+        return protocolHandler -> protocolHandler.setExecutor(executor.get());
+    }
+
+    public static Optional<ExecutorService> crearExecutorVirtual() {
+        try {
+            return Optional.of((ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null));
+        } catch (ReflectiveOperationException | UnsupportedOperationException e) {
+            return Optional.empty();
+        }
+    }
+}
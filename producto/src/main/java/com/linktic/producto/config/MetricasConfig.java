@@ -0,0 +1,40 @@
+package com.linktic.producto.config;
+
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.retry.RetryCallback;
+import org.springframework.retry.RetryContext;
+import org.springframework.retry.RetryListener;
+import org.springframework.retry.listener.RetryListenerSupport;
+
+@Configuration
+public class MetricasConfig {
+
+    public static final String REINTENTOS_INVENTARIO = "reintentosInventario";
+
+    // Habilita @Timed en los beans de servicio; Spring Boot solo lo aplica por sí mismo a los controladores.
+    @Bean
+    public TimedAspect timedAspect(MeterRegistry meterRegistry) {
+        return new TimedAspect(meterRegistry);
+    }
+
+    // Cuenta los reintentos de las llamadas @Retryable a inventario-service, etiquetados con el label de cada operación.
+    // El registro se resuelve en diferido: @EnableRetry instancia los listeners antes que los post-procesadores de
+    // métricas, y pedirlo aquí lo crearía sin los filtros de histogramas ni las etiquetas comunes.
+    @Bean(REINTENTOS_INVENTARIO)
+    public RetryListener reintentosInventario(ObjectProvider<MeterRegistry> meterRegistry) {
+        return new RetryListenerSupport() {
+            @Override
+            public <T, E extends Throwable> void close(RetryContext context, RetryCallback<T, E> callback, Throwable throwable) {
+                int reintentos = throwable == null ? context.getRetryCount() : context.getRetryCount() - 1;
+                if (reintentos > 0) {
+                    meterRegistry.getObject().counter("cliente.inventario.reintentos",
+                            "operacion", String.valueOf(context.getAttribute(RetryContext.NAME))).increment(reintentos);
+                }
+            }
+        };
+    }
+}
@@ -1,21 +1,59 @@
 package com.linktic.producto.config;
 
+import org.apache.http.client.HttpClient;
+import org.apache.http.impl.client.HttpClients;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.web.client.RestTemplate;
 
 import java.time.Duration;
+import java.util.concurrent.TimeUnit;
 
 @Configuration
 public class RestTemplateConfig {
 
+    @Value("${client.http.timeout-conexion:5s}")
+    private Duration timeoutConexion;
+
+    @Value("${client.http.timeout-lectura:5s}")
+    private Duration timeoutLectura;
+
+    @Bean(destroyMethod = "close")
+    public PoolingHttpClientConnectionManager httpConnectionManager(
+            @Value("${client.http.pool.max-conexiones:100}") int maxConexiones,
+            @Value("${client.http.pool.max-por-ruta:50}") int maxConexionesPorRuta) {
+        PoolingHttpClientConnectionManager connectionManager = new PoolingHttpClientConnectionManager();
+        connectionManager.setMaxTotal(maxConexiones);
+        connectionManager.setDefaultMaxPerRoute(maxConexionesPorRuta);
+        connectionManager.setValidateAfterInactivity((int) Duration.ofSeconds(2).toMillis());
+        return connectionManager;
+    }
+
+    @Bean
+    public HttpClient httpClient(PoolingHttpClientConnectionManager httpConnectionManager,
+                                 @Value("${client.http.pool.keep-alive:30s}") Duration keepAlive) {
+        return HttpClients.custom()
+            .setConnectionManager(httpConnectionManager)
+            .evictExpiredConnections()
+            .evictIdleConnections(keepAlive.toMillis(), TimeUnit.MILLISECONDS)
+            .build();
+    }
+
     @Bean
-    public RestTemplate restTemplate(RestTemplateBuilder builder) {
+    public RestTemplate restTemplate(RestTemplateBuilder builder, HttpClient httpClient) {
 
         return builder
-            .setConnectTimeout(Duration.ofSeconds(5))
-            .setReadTimeout(Duration.ofSeconds(5))
+            .requestFactory(() -> {
+                HttpComponentsClientHttpRequestFactory requestFactory = new HttpComponentsClientHttpRequestFactory(httpClient);
+                requestFactory.setConnectionRequestTimeout((int) timeoutConexion.toMillis());
+                return requestFactory;
+            })
+            .setConnectTimeout(timeoutConexion)
+            .setReadTimeout(timeoutLectura)
             .build();
     }
-}
\ No newline at end of file
+}
@@ -17,6 +17,6 @@ public class WebConfig implements WebMvcConfigurer {
         
         registry.addInterceptor(apiKeyAuthInterceptor)
                 .addPathPatterns("/productos/**")
-                .excludePathPatterns("/productos"); 
+                .excludePathPatterns("/productos", "/productos/busqueda"); 
     }
 }
\ No newline at end of file
@@ -1,6 +1,12 @@
 package com.linktic.producto.controller;
 
+import com.linktic.producto.dto.FiltroProductoDto;
+import com.linktic.producto.dto.FormatoImportacion;
+import com.linktic.producto.dto.ModoPaginacion;
+import com.linktic.producto.dto.PaginaCursor;
+import com.linktic.producto.dto.ResumenImportacionDto;
 import com.linktic.producto.model.Producto;
+import com.linktic.producto.service.ImportacionService;
 import com.linktic.producto.service.ProductoService;
 
 import io.swagger.v3.oas.annotations.Operation;
@@ -10,17 +16,27 @@ import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
 
+import org.springdoc.api.annotations.ParameterObject;
+
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.web.PageableDefault;
 import org.springframework.data.web.PagedResourcesAssembler;
 import org.springframework.hateoas.EntityModel;
+import org.springframework.hateoas.IanaLinkRelations;
 import org.springframework.hateoas.PagedModel;
 import org.springframework.hateoas.Link;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
 
 import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
 import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.methodOn;
@@ -32,10 +48,11 @@ import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.methodOn;
 public class ProductoController {
 
     private final ProductoService productoService;
+    private final ImportacionService importacionService;
     private final PagedResourcesAssembler<Producto> pagedResourcesAssembler;
 
     @Operation(summary = "Crear un nuevo producto",
-               description = "Crea un producto y, de forma síncrona, crea su registro de inventario con la cantidad inicial.")
+               description = "Crea un producto y encola en el outbox la creación de su registro de inventario, que se entrega a inventario-service de forma asíncrona.")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "201", description = "Producto creado exitosamente"),
             @ApiResponse(responseCode = "400", description = "Solicitud inválida (ej. datos faltantes)")
@@ -46,10 +63,27 @@ public class ProductoController {
         return new ResponseEntity<>(toModel(nuevoProducto), HttpStatus.CREATED);
     }
 
+    @Operation(summary = "Importar productos en bloque",
+               description = "Procesa en streaming un catálogo NDJSON (application/x-ndjson, un producto JSON por línea) o CSV (text/csv, columnas nombre,precio,cantidad con cabecera opcional). Los productos se insertan por lotes y sus registros de inventario se crean de forma asíncrona desde el outbox. Las líneas inválidas se rechazan sin detener la importación. Requiere API Key.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Importación finalizada; devuelve el resumen de líneas importadas y rechazadas"),
+            @ApiResponse(responseCode = "415", description = "Formato no soportado"),
+            @ApiResponse(responseCode = "401", description = "No autorizado")
+    })
+    @PostMapping(value = "/importacion", consumes = {FormatoImportacion.NDJSON_VALUE, "text/csv"})
+    public ResponseEntity<ResumenImportacionDto> importarProductos(
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) MediaType tipoContenido,
+            InputStream contenido) {
+
+        ResumenImportacionDto resumen = importacionService.importarProductos(contenido, FormatoImportacion.desde(tipoContenido));
+        return ResponseEntity.ok(resumen);
+    }
+
     @Operation(summary = "Obtener un producto por su ID", 
                description = "Busca un producto por su ID. Protegido por API Key (si se configuró en WebConfig).")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Producto encontrado"),
+            @ApiResponse(responseCode = "304", description = "Sin cambios respecto al ETag enviado en If-None-Match"),
             @ApiResponse(responseCode = "404", description = "Producto no encontrado"),
             @ApiResponse(responseCode = "401", description = "No autorizado")
     })
@@ -59,7 +93,7 @@ public class ProductoController {
             @PathVariable Long id) {
         
         Producto producto = productoService.obtenerProductoPorId(id);
-        return ResponseEntity.ok(toModel(producto));
+        return ResponseEntity.ok().eTag(etag(producto)).body(toModel(producto));
     }
 
     @Operation(summary = "Actualizar un producto existente",
@@ -76,7 +110,7 @@ public class ProductoController {
             @RequestBody Producto productoDetalles) {
         
         Producto productoActualizado = productoService.actualizarProducto(id, productoDetalles);
-        return ResponseEntity.ok(toModel(productoActualizado));
+        return ResponseEntity.ok().eTag(etag(productoActualizado)).body(toModel(productoActualizado));
     }
 
     @Operation(summary = "Eliminar un producto (Transaccional)",
@@ -97,18 +131,56 @@ public class ProductoController {
     }
     
     @Operation(summary = "Listar todos los productos (paginado)",
-               description = "Devuelve una lista paginada de todos los productos.")
+               description = "Devuelve una lista paginada de todos los productos. Con paginacion=CURSOR (o al enviar un cursor) "
+                       + "se pagina por id sin count(*) y los enlaces next/prev llevan cursores opacos; page y sort se ignoran en ese modo.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Página de productos"),
+            @ApiResponse(responseCode = "400", description = "Cursor inválido")
+    })
     @GetMapping
     public ResponseEntity<PagedModel<EntityModel<Producto>>> listarProductos(
+            @Parameter(description = "OFFSET (por defecto, con totales) o CURSOR (keyset por id, sin totales)")
+            @RequestParam(defaultValue = "OFFSET") ModoPaginacion paginacion,
+            @Parameter(description = "Cursor opaco tomado de los enlaces next/prev; implica paginacion=CURSOR")
+            @RequestParam(required = false) String cursor,
             @Parameter(hidden = true)
             @PageableDefault(size = 20, sort = "id") Pageable pageable) {    
 
+        if (paginacion == ModoPaginacion.CURSOR || cursor != null) {
+            PaginaCursor<Producto> pagina = productoService.listarProductosPorCursor(cursor, pageable.getPageSize());
+            return ResponseEntity.ok(toModel(pagina));
+        }
+
         Page<Producto> pagina = productoService.listarTodosLosProductos(pageable);      
         PagedModel<EntityModel<Producto>> pagedModel = pagedResourcesAssembler.toModel(pagina, this::toModel);
         
         return ResponseEntity.ok(pagedModel);
     }
 
+    @Operation(summary = "Buscar productos (paginado)",
+               description = "Filtra por nombre (PREFIJO usa el índice de nombre; CONTIENE recorre la tabla), y rango de precio. "
+                       + "Los filtros omitidos no se aplican. La disponibilidad se consulta en inventario-service. Mantiene la paginación HATEOAS del listado.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Página de productos que cumplen los filtros"),
+            @ApiResponse(responseCode = "400", description = "Filtro inválido (ej. precioMin mayor que precioMax)")
+    })
+    @GetMapping("/busqueda")
+    public ResponseEntity<PagedModel<EntityModel<Producto>>> buscarProductos(
+            @ParameterObject FiltroProductoDto filtro,
+            @Parameter(hidden = true)
+            @PageableDefault(size = 20, sort = "id") Pageable pageable) {
+
+        Page<Producto> pagina = productoService.buscarProductos(filtro, pageable);
+        // Base con la query actual para que next/prev/first/last conserven los filtros; el assembler solo reemplaza page/size/sort.
+        Link base = Link.of(ServletUriComponentsBuilder.fromCurrentRequest().build().toUriString());
+        return ResponseEntity.ok(pagedResourcesAssembler.toModel(pagina, this::toModel, base));
+    }
+
+    // ETag débil por versión: Spring responde 304 sin serializar el cuerpo si coincide con If-None-Match.
+    private static String etag(Producto producto) {
+        return "W/\"" + producto.getVersion() + "\"";
+    }
+
     private EntityModel<Producto> toModel(Producto producto) {
         Link selfLink = linkTo(methodOn(ProductoController.class)
                 .obtenerProductoPorId(producto.getId())).withSelfRel();
@@ -116,8 +188,32 @@ public class ProductoController {
         return EntityModel.of(producto, selfLink);
     }
 
+    // Sin PageMetadata: en modo cursor no hay totales ni número de página.
+    private PagedModel<EntityModel<Producto>> toModel(PaginaCursor<Producto> pagina) {
+        List<Link> links = new ArrayList<>();
+        links.add(Link.of(ServletUriComponentsBuilder.fromCurrentRequest().toUriString()).withSelfRel());
+        if (pagina.getSiguiente() != null) {
+            links.add(Link.of(conCursor(pagina.getSiguiente()), IanaLinkRelations.NEXT));
+        }
+        if (pagina.getAnterior() != null) {
+            links.add(Link.of(conCursor(pagina.getAnterior()), IanaLinkRelations.PREV));
+        }
+
+        List<EntityModel<Producto>> contenido = pagina.getContenido().stream()
+                .map(this::toModel)
+                .collect(Collectors.toList());
+        return PagedModel.of(contenido, null, links);
+    }
+
+    private String conCursor(String cursor) {
+        return ServletUriComponentsBuilder.fromCurrentRequest()
+                .replaceQueryParam("paginacion")
+                .replaceQueryParam("cursor", cursor)
+                .toUriString();
+    }
+
     @Operation(summary = "Obtener datos crudos del producto (Interno)",
-               description = "Endpoint interno llamado por inventario-service. No usar directamente. Requiere API Key.",
+               description = "Endpoint interno llamado por inventario-service. No usar directamente. Admite If-None-Match para revalidar la copia en caché. Requiere API Key.",
                hidden = true)
     @GetMapping("/internal/{id}")
     public ResponseEntity<Producto> obtenerProductoInterno(
@@ -125,6 +221,18 @@ public class ProductoController {
             @PathVariable Long id) {
         
         Producto producto = productoService.obtenerProductoPorId(id);
-        return ResponseEntity.ok(producto);
+        return ResponseEntity.ok().eTag(etag(producto)).body(producto);
+    }
+
+    @Operation(summary = "Obtener datos crudos de varios productos (Interno)",
+               description = "Endpoint interno llamado por inventario-service para resolver una página completa en una sola llamada. Requiere API Key.",
+               hidden = true)
+    @GetMapping("/internal/batch")
+    public ResponseEntity<List<Producto>> obtenerProductosInternos(
+            @Parameter(description = "IDs de los productos a buscar")
+            @RequestParam List<Long> ids) {
+
+        List<Producto> productos = productoService.obtenerProductosPorIds(ids);
+        return ResponseEntity.ok(productos);
     }
 }
\ No newline at end of file
@@ -0,0 +1,45 @@
+package com.linktic.producto.dto;
+
+import com.linktic.producto.exception.CursorInvalidoException;
+
+import lombok.Value;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+// Posición de una paginación keyset: el id frontera y el sentido. Se expone a los clientes
+// codificada en Base64 URL para que la traten como un valor opaco.
+@Value
+public class CursorPaginacion {
+
+    Long id;
+    boolean haciaAtras;
+
+    public static CursorPaginacion despuesDe(Long id) {
+        return new CursorPaginacion(id, false);
+    }
+
+    public static CursorPaginacion antesDe(Long id) {
+        return new CursorPaginacion(id, true);
+    }
+
+    public String codificar() {
+        String valor = (haciaAtras ? "a:" : "s:") + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(valor.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static CursorPaginacion decodificar(String cursor) {
+        try {
+            String valor = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            if (valor.startsWith("s:")) {
+                return despuesDe(Long.parseLong(valor.substring(2)));
+            }
+            if (valor.startsWith("a:")) {
+                return antesDe(Long.parseLong(valor.substring(2)));
+            }
+        } catch (IllegalArgumentException e) {
+            // cae al error de abajo
+        }
+        throw new CursorInvalidoException("Cursor de paginación inválido: " + cursor);
+    }
+}
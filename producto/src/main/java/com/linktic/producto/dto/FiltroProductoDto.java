@@ -0,0 +1,15 @@
+package com.linktic.producto.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+@Data
+@NoArgsConstructor
+public class FiltroProductoDto {
+    private String nombre;
+    private ModoCoincidencia coincidencia = ModoCoincidencia.PREFIJO;
+    private BigDecimal precioMin;
+    private BigDecimal precioMax;
+}
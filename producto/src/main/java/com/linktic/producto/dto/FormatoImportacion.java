@@ -0,0 +1,14 @@
+package com.linktic.producto.dto;
+
+import org.springframework.http.MediaType;
+
+public enum FormatoImportacion {
+    NDJSON,
+    CSV;
+
+    public static final String NDJSON_VALUE = "application/x-ndjson";
+
+    public static FormatoImportacion desde(MediaType tipoContenido) {
+        return MediaType.parseMediaType("text/csv").isCompatibleWith(tipoContenido) ? CSV : NDJSON;
+    }
+}
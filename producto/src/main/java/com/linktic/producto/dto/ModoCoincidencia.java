@@ -0,0 +1,8 @@
+package com.linktic.producto.dto;
+
+public enum ModoCoincidencia {
+    // LIKE 'texto%': usa idx_producto_nombre
+    PREFIJO,
+    // LIKE '%texto%': no puede usar el índice B-tree y recorre la tabla
+    CONTIENE
+}
@@ -0,0 +1,38 @@
+package com.linktic.producto.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Function;
+
+@Data
+@AllArgsConstructor
+public class PaginaCursor<T> {
+
+    private List<T> contenido;
+    private String siguiente;
+    private String anterior;
+
+    // 'filas' viene de una consulta keyset con límite tamano + 1 (la fila extra solo indica si hay más),
+    // en orden descendente cuando se navega hacia atrás.
+    public static <T> PaginaCursor<T> de(List<T> filas, int tamano, CursorPaginacion posicion, Function<T, Long> id) {
+        boolean hayMas = filas.size() > tamano;
+        List<T> contenido = new ArrayList<>(hayMas ? filas.subList(0, tamano) : filas);
+        boolean haciaAtras = posicion != null && posicion.isHaciaAtras();
+        if (haciaAtras) {
+            Collections.reverse(contenido);
+        }
+        if (contenido.isEmpty()) {
+            return new PaginaCursor<>(contenido, null, null);
+        }
+
+        boolean haySiguiente = haciaAtras || hayMas;
+        boolean hayAnterior = haciaAtras ? hayMas : posicion != null;
+        String siguiente = haySiguiente ? CursorPaginacion.despuesDe(id.apply(contenido.get(contenido.size() - 1))).codificar() : null;
+        String anterior = hayAnterior ? CursorPaginacion.antesDe(id.apply(contenido.get(0))).codificar() : null;
+        return new PaginaCursor<>(contenido, siguiente, anterior);
+    }
+}
@@ -0,0 +1,23 @@
+package com.linktic.producto.dto;
+
+import com.linktic.producto.model.Producto;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductoEventoDto {
+
+    public enum TipoEvento {
+        PRODUCTO_ACTUALIZADO,
+        PRODUCTO_ELIMINADO
+    }
+
+    private TipoEvento tipo;
+
+    private Long productoId;
+
+    private Producto producto;
+}
@@ -0,0 +1,29 @@
+package com.linktic.producto.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+public class ResumenImportacionDto {
+
+    private static final int MAXIMO_ERRORES = 100;
+
+    private long importados;
+    private long rechazados;
+    private List<String> errores = new ArrayList<>();
+
+    public void sumarImportados(int cantidad) {
+        importados += cantidad;
+    }
+
+    public void rechazar(long linea, String motivo) {
+        rechazados++;
+        if (errores.size() < MAXIMO_ERRORES) {
+            errores.add("Línea " + linea + ": " + motivo);
+        }
+    }
+}
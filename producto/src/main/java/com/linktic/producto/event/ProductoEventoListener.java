@@ -0,0 +1,36 @@
+package com.linktic.producto.event;
+
+import com.linktic.producto.client.InventarioServiceClient;
+import com.linktic.producto.config.EventosProductoConfig;
+import com.linktic.producto.dto.ProductoEventoDto;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+@Component
+@RequiredArgsConstructor
+public class ProductoEventoListener {
+
+    private static final Logger log = LoggerFactory.getLogger(ProductoEventoListener.class);
+
+    private final InventarioServiceClient inventarioServiceClient;
+    private final MeterRegistry meterRegistry;
+
+    @Async(EventosProductoConfig.EVENTOS_PRODUCTO_EXECUTOR)
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void publicarEventoProducto(ProductoEventoDto evento) {
+        try {
+            inventarioServiceClient.notificarEventoProducto(evento);
+        } catch (Exception e) {
+            meterRegistry.counter("cliente.inventario.respaldos", "operacion", "notificar-evento").increment();
+            // El TTL de la caché de inventario-service acota cuánto tiempo se sirve el dato viejo.
+            log.warn("No se pudo notificar el evento a inventario-service. tipo: {}, productoId: {}",
+                    evento.getTipo(), evento.getProductoId(), e);
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package com.linktic.producto.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Parameter;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.GeneratedValue;
+import javax.persistence.GenerationType;
+import javax.persistence.Id;
+import javax.persistence.Index;
+import javax.persistence.Table;
+import java.time.Instant;
+
+// Registro de inventario pendiente de crear en inventario-service. Se escribe en la misma
+// transacción que el producto y lo entrega OutboxInventarioRelay; la fila se borra al confirmarse.
+// Una fila que inventario-service rechaza (4xx) queda marcada como rechazada y ya no se reintenta.
+@Entity
+@Table(indexes = @Index(name = "idx_outbox_pendientes", columnList = "rechazado, proximoIntentoEn, id"))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OutboxInventario {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "outbox_inventario_seq")
+    @GenericGenerator(name = "outbox_inventario_seq", strategy = "org.hibernate.id.enhanced.SequenceStyleGenerator", parameters = {
+            @Parameter(name = "sequence_name", value = "outbox_inventario_seq"),
+            @Parameter(name = "increment_size", value = "100"),
+            @Parameter(name = "optimizer", value = "pooled-lo"),
+            @Parameter(name = "force_table_use", value = "true")
+    })
+    private Long id;
+
+    @Column(nullable = false, unique = true, length = 64)
+    private String claveIdempotencia;
+
+    @Column(nullable = false)
+    private Long productoId;
+
+    @Column(nullable = false)
+    private int cantidad;
+
+    @Column(nullable = false)
+    private int intentos;
+
+    @Column(nullable = false)
+    private Instant creadoEn;
+
+    @Column(nullable = false)
+    private Instant proximoIntentoEn;
+
+    @Column(length = 500)
+    private String ultimoError;
+
+    @Column(nullable = false)
+    private boolean rechazado;
+
+    public OutboxInventario(String claveIdempotencia, Long productoId, int cantidad, Instant creadoEn) {
+        this(null, claveIdempotencia, productoId, cantidad, 0, creadoEn, creadoEn, null, false);
+    }
+}
@@ -1,24 +1,47 @@
 package com.linktic.producto.model;
 
+import com.fasterxml.jackson.annotation.JsonProperty;
 import com.toedter.spring.hateoas.jsonapi.JsonApiId;
 
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Parameter;
 
+import javax.persistence.Cacheable;
 import javax.persistence.Column;
 import javax.persistence.Entity;
 import javax.persistence.GeneratedValue;
 import javax.persistence.GenerationType;
 import javax.persistence.Id;
+import javax.persistence.Index;
+import javax.persistence.Table;
+import javax.persistence.Version;
 import java.math.BigDecimal;
 
 @Entity
+@Table(indexes = {
+        @Index(name = "idx_producto_nombre", columnList = "nombre"),
+        @Index(name = "idx_producto_precio", columnList = "precio")
+})
+// Solo se usa con cache.segundo-nivel.habilitado=true (ver CacheSegundoNivelConfig).
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "producto")
 @Data 
 @NoArgsConstructor
 public class Producto {
 
+    // Generador por tabla con bloques de ids (pooled-lo): con IDENTITY Hibernate no puede agrupar los INSERT en lotes JDBC.
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "producto_seq")
+    @GenericGenerator(name = "producto_seq", strategy = "org.hibernate.id.enhanced.SequenceStyleGenerator", parameters = {
+            @Parameter(name = "sequence_name", value = "producto_seq"),
+            @Parameter(name = "increment_size", value = "100"),
+            @Parameter(name = "optimizer", value = "pooled-lo"),
+            @Parameter(name = "force_table_use", value = "true")
+    })
     @JsonApiId 
     private Long id;
 
@@ -30,4 +53,10 @@ public class Producto {
     
     @Column(nullable = false)
     private int cantidad; 
+
+    // Base del ETag de las lecturas; se publica pero no se acepta en el cuerpo de las peticiones.
+    @Version
+    @Column(nullable = false)
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private long version;
 }
\ No newline at end of file
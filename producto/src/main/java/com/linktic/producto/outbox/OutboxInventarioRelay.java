@@ -0,0 +1,150 @@
+package com.linktic.producto.outbox;
+
+import com.linktic.producto.client.InventarioServiceClient;
+import com.linktic.producto.dto.InventarioRequestDto;
+import com.linktic.producto.model.OutboxInventario;
+import com.linktic.producto.repository.OutboxInventarioRepository;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.client.HttpClientErrorException;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.stream.Collectors;
+
+// Entrega por lotes los registros del outbox a inventario-service. Cada fila viaja con su clave de
+// idempotencia, así que reenviar un lote (fallo tras aplicar) no duplica inventarios. Ante un error el lote
+// se reprograma con backoff exponencial; si inventario-service lo rechaza (4xx) se entrega fila a fila para
+// que solo la fila rechazada se aparte y el resto no quede retenido con ella.
+// Cada lote se reclama y entrega dentro de una transacción que mantiene el bloqueo de sus filas durante la
+// llamada: un borrado de producto concurrente (eliminarPendientes) espera a que termine la entrega en curso.
+@Component
+public class OutboxInventarioRelay {
+
+    private static final Logger log = LoggerFactory.getLogger(OutboxInventarioRelay.class);
+    private static final int LONGITUD_MAXIMA_ERROR = 500;
+
+    private final OutboxInventarioRepository outboxRepository;
+    private final InventarioServiceClient inventarioServiceClient;
+    private final MeterRegistry meterRegistry;
+    private final TransactionTemplate transactionTemplate;
+    private final int tamanoLote;
+    private final Duration backoffInicial;
+    private final Duration backoffMaximo;
+
+    public OutboxInventarioRelay(OutboxInventarioRepository outboxRepository,
+                                 InventarioServiceClient inventarioServiceClient,
+                                 MeterRegistry meterRegistry,
+                                 TransactionTemplate transactionTemplate,
+                                 @Value("${outbox.relay.tamano-lote:100}") int tamanoLote,
+                                 @Value("${outbox.relay.backoff-inicial:1s}") Duration backoffInicial,
+                                 @Value("${outbox.relay.backoff-maximo:5m}") Duration backoffMaximo) {
+        this.outboxRepository = outboxRepository;
+        this.inventarioServiceClient = inventarioServiceClient;
+        this.meterRegistry = meterRegistry;
+        this.transactionTemplate = transactionTemplate;
+        this.tamanoLote = tamanoLote;
+        this.backoffInicial = backoffInicial;
+        this.backoffMaximo = backoffMaximo;
+    }
+
+    @Scheduled(fixedDelayString = "${outbox.relay.intervalo-ms:500}")
+    public void publicarPendientes() {
+        boolean hayMas;
+        do {
+            hayMas = Boolean.TRUE.equals(transactionTemplate.execute(status -> entregarLote()));
+        } while (hayMas);
+    }
+
+    // Devuelve true si el lote estaba completo y se entregó: puede haber más pendientes.
+    private boolean entregarLote() {
+        List<OutboxInventario> lote = outboxRepository.reclamarPendientes(Instant.now(), PageRequest.of(0, tamanoLote));
+        if (lote.isEmpty()) {
+            return false;
+        }
+
+        try {
+            inventarioServiceClient.crearRegistrosInventario(lote.stream()
+                    .map(this::solicitud)
+                    .collect(Collectors.toList()));
+        } catch (RuntimeException e) {
+            if (esRechazo(e)) {
+                return entregarFilaAFila(lote) && lote.size() == tamanoLote;
+            }
+            registrarFallo(lote, e);
+            return false;
+        }
+
+        outboxRepository.deleteAllInBatch(lote);
+        return lote.size() == tamanoLote;
+    }
+
+    // Tras un rechazo del lote: cada fila por separado. La rechazada se marca y se aparta; ante otro error el resto
+    // del lote se reprograma como siempre. Devuelve false si la entrega se interrumpió.
+    private boolean entregarFilaAFila(List<OutboxInventario> lote) {
+        for (int i = 0; i < lote.size(); i++) {
+            OutboxInventario pendiente = lote.get(i);
+            try {
+                inventarioServiceClient.crearRegistrosInventario(List.of(solicitud(pendiente)));
+                outboxRepository.deleteAllInBatch(List.of(pendiente));
+            } catch (RuntimeException e) {
+                if (!esRechazo(e)) {
+                    registrarFallo(lote.subList(i, lote.size()), e);
+                    return false;
+                }
+                meterRegistry.counter("outbox.inventario.rechazados").increment();
+                outboxRepository.marcarRechazado(pendiente.getId(), recortar(e.getMessage()));
+                log.error("inventario-service rechazó el registro del outbox y no se reintentará. id: {}, productoId: {}, error: {}",
+                        pendiente.getId(), pendiente.getProductoId(), e.getMessage());
+            }
+        }
+        return true;
+    }
+
+    private InventarioRequestDto solicitud(OutboxInventario pendiente) {
+        InventarioRequestDto dto = new InventarioRequestDto();
+        dto.setProductoId(pendiente.getProductoId());
+        dto.setCantidad(pendiente.getCantidad());
+        dto.setClaveIdempotencia(pendiente.getClaveIdempotencia());
+        return dto;
+    }
+
+    // El lote fallido queda en el outbox para el siguiente intento: se cuenta como respaldo por registro.
+    private void registrarFallo(List<OutboxInventario> lote, RuntimeException e) {
+        meterRegistry.counter("cliente.inventario.respaldos", "operacion", "crear-inventarios").increment(lote.size());
+        int intentos = lote.stream().mapToInt(OutboxInventario::getIntentos).max().orElse(0) + 1;
+        Duration espera = backoffInicial.multipliedBy(1L << Math.min(intentos - 1, 20));
+        if (espera.compareTo(backoffMaximo) > 0) {
+            espera = backoffMaximo;
+        }
+
+        outboxRepository.registrarFallo(
+                lote.stream().map(OutboxInventario::getId).collect(Collectors.toList()),
+                Instant.now().plus(espera), recortar(e.getMessage()));
+        log.warn("No se pudo entregar el lote del outbox a inventario-service. registros: {}, intento: {}, reintentoEn: {}",
+                lote.size(), intentos, espera, e);
+    }
+
+    // Solo un rechazo del contenido aparta la fila; 401/403/404/429 son de configuración o carga y se reintentan.
+    private static boolean esRechazo(RuntimeException e) {
+        if (!(e instanceof HttpClientErrorException)) {
+            return false;
+        }
+        HttpStatus estado = ((HttpClientErrorException) e).getStatusCode();
+        return estado == HttpStatus.BAD_REQUEST || estado == HttpStatus.CONFLICT || estado == HttpStatus.UNPROCESSABLE_ENTITY;
+    }
+
+    private static String recortar(String error) {
+        String texto = String.valueOf(error);
+        return texto.length() > LONGITUD_MAXIMA_ERROR ? texto.substring(0, LONGITUD_MAXIMA_ERROR) : texto;
+    }
+}
@@ -0,0 +1,48 @@
+package com.linktic.producto.repository;
+
+import com.linktic.producto.model.OutboxInventario;
+import org.hibernate.LockOptions;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.LockModeType;
+import javax.persistence.QueryHint;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface OutboxInventarioRepository extends JpaRepository<OutboxInventario, Long> {
+
+    // Reclama el lote con un bloqueo de fila que dura hasta el final de la transacción del relay. Con SKIP LOCKED
+    // otra instancia salta esas filas en lugar de esperar; eliminarPendientes sí espera a que se liberen.
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "javax.persistence.lock.timeout", value = "" + LockOptions.SKIP_LOCKED))
+    @Query("SELECT o FROM OutboxInventario o WHERE o.rechazado = false AND o.proximoIntentoEn <= :ahora ORDER BY o.id")
+    List<OutboxInventario> reclamarPendientes(@Param("ahora") Instant ahora, Pageable pageable);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE OutboxInventario o SET o.intentos = o.intentos + 1, o.proximoIntentoEn = :proximoIntento, " +
+           "o.ultimoError = :error WHERE o.id IN :ids")
+    int registrarFallo(@Param("ids") Collection<Long> ids,
+                       @Param("proximoIntento") Instant proximoIntento,
+                       @Param("error") String error);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE OutboxInventario o SET o.rechazado = true, o.ultimoError = :error WHERE o.id = :id")
+    int marcarRechazado(@Param("id") Long id, @Param("error") String error);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM OutboxInventario o WHERE o.productoId = :productoId")
+    int eliminarPendientes(@Param("productoId") Long productoId);
+}
@@ -0,0 +1,36 @@
+package com.linktic.producto.repository;
+
+import com.linktic.producto.model.Producto;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.math.BigDecimal;
+
+// Predicados de búsqueda de productos. Solo se combinan los filtros presentes para que el plan
+// no dependa de condiciones del tipo (:param IS NULL OR ...), que impiden usar los índices.
+public final class ProductoEspecificaciones {
+
+    private static final char ESCAPE = '\\';
+
+    private ProductoEspecificaciones() {
+    }
+
+    public static Specification<Producto> nombreEmpiezaPor(String prefijo) {
+        return (root, query, cb) -> cb.like(root.get("nombre"), escaparLike(prefijo) + "%", ESCAPE);
+    }
+
+    public static Specification<Producto> nombreContiene(String texto) {
+        return (root, query, cb) -> cb.like(root.get("nombre"), "%" + escaparLike(texto) + "%", ESCAPE);
+    }
+
+    public static Specification<Producto> precioDesde(BigDecimal minimo) {
+        return (root, query, cb) -> cb.greaterThanOrEqualTo(root.get("precio"), minimo);
+    }
+
+    public static Specification<Producto> precioHasta(BigDecimal maximo) {
+        return (root, query, cb) -> cb.lessThanOrEqualTo(root.get("precio"), maximo);
+    }
+
+    private static String escaparLike(String texto) {
+        return texto.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
@@ -1,9 +1,30 @@
 package com.linktic.producto.repository;
 
 import com.linktic.producto.model.Producto;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
+import javax.persistence.QueryHint;
+import java.util.List;
+
 @Repository
-public interface ProductoRepository extends JpaRepository<Producto, Long> {
+public interface ProductoRepository extends JpaRepository<Producto, Long>, JpaSpecificationExecutor<Producto>,
+        ProductoRepositoryPersonalizado {
+
+    // Listado público: con la caché de segundo nivel habilitada, página y count(*) salen de la caché de
+    // consultas hasta la siguiente escritura en la tabla producto. Sin ella la pista se ignora.
+    @Override
+    @QueryHints(@QueryHint(name = org.hibernate.jpa.QueryHints.HINT_CACHEABLE, value = "true"))
+    Page<Producto> findAll(Pageable pageable);
+
+    // Paginación keyset: el Pageable solo aporta el LIMIT; al devolver List no se ejecuta count(*).
+    List<Producto> findByOrderByIdAsc(Pageable limite);
+
+    List<Producto> findByIdGreaterThanOrderByIdAsc(Long id, Pageable limite);
+
+    List<Producto> findByIdLessThanOrderByIdDesc(Long id, Pageable limite);
 }
\ No newline at end of file
@@ -0,0 +1,11 @@
+package com.linktic.producto.repository;
+
+import com.linktic.producto.model.Producto;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface ProductoRepositoryPersonalizado {
+
+    List<Producto> buscarPorIds(Collection<Long> ids);
+}
@@ -0,0 +1,33 @@
+package com.linktic.producto.repository;
+
+import com.linktic.producto.model.Producto;
+import org.hibernate.CacheMode;
+import org.hibernate.Session;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.Collectors;
+
+public class ProductoRepositoryPersonalizadoImpl implements ProductoRepositoryPersonalizado {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    // A diferencia de findAllById (un IN directo a la BD), multiLoad resuelve primero contra la caché de
+    // segundo nivel y solo consulta los ids que faltan (en Hibernate 5 solo si se indica un CacheMode
+    // que permita lecturas). Los ids inexistentes se descartan.
+    @Override
+    public List<Producto> buscarPorIds(Collection<Long> ids) {
+        return entityManager.unwrap(Session.class)
+                .byMultipleIds(Producto.class)
+                .with(CacheMode.NORMAL)
+                .multiLoad(new ArrayList<>(ids))
+                .stream()
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,12 @@
+package com.linktic.producto.service;
+
+import com.linktic.producto.dto.FormatoImportacion;
+import com.linktic.producto.dto.ResumenImportacionDto;
+
+import java.io.InputStream;
+
+public interface ImportacionService {
+
+    ResumenImportacionDto importarProductos(InputStream contenido, FormatoImportacion formato);
+
+}
@@ -1,9 +1,13 @@
 package com.linktic.producto.service;
 
+import com.linktic.producto.dto.FiltroProductoDto;
+import com.linktic.producto.dto.PaginaCursor;
 import com.linktic.producto.model.Producto;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
+import java.util.List;
+
 public interface ProductoService {
     
     Producto crearProducto(Producto producto);
@@ -15,5 +19,11 @@ public interface ProductoService {
     void eliminarProducto(Long id);
     
     Page<Producto> listarTodosLosProductos(Pageable pageable);
+
+    PaginaCursor<Producto> listarProductosPorCursor(String cursor, int tamano);
+
+    Page<Producto> buscarProductos(FiltroProductoDto filtro, Pageable pageable);
+
+    List<Producto> obtenerProductosPorIds(List<Long> ids);
     
 }
\ No newline at end of file
@@ -0,0 +1,181 @@
+package com.linktic.producto.service.ServiceImpl;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.linktic.producto.dto.FormatoImportacion;
+import com.linktic.producto.dto.ResumenImportacionDto;
+import com.linktic.producto.model.OutboxInventario;
+import com.linktic.producto.model.Producto;
+import com.linktic.producto.repository.OutboxInventarioRepository;
+import com.linktic.producto.repository.ProductoRepository;
+import com.linktic.producto.service.ImportacionService;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+// Importa catálogos línea a línea: solo se mantiene en memoria el lote en curso. Cada lote se
+// inserta con batching JDBC y se confirma junto con sus filas del outbox de inventario.
+@Service
+public class ImportacionServiceImpl implements ImportacionService {
+
+    private static final Logger log = LoggerFactory.getLogger(ImportacionServiceImpl.class);
+
+    private final ProductoRepository productoRepository;
+    private final OutboxInventarioRepository outboxRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final int tamanoLote;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public ImportacionServiceImpl(ProductoRepository productoRepository,
+                                  OutboxInventarioRepository outboxRepository,
+                                  TransactionTemplate transactionTemplate,
+                                  ObjectMapper objectMapper,
+                                  @Value("${producto.importacion.tamano-lote:1000}") int tamanoLote) {
+        this.productoRepository = productoRepository;
+        this.outboxRepository = outboxRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.objectMapper = objectMapper;
+        this.tamanoLote = tamanoLote;
+    }
+
+    @Override
+    public ResumenImportacionDto importarProductos(InputStream contenido, FormatoImportacion formato) {
+        ResumenImportacionDto resumen = new ResumenImportacionDto();
+        List<Producto> lote = new ArrayList<>(tamanoLote);
+        long inicio = System.nanoTime();
+
+        try (BufferedReader lector = new BufferedReader(new InputStreamReader(contenido, StandardCharsets.UTF_8))) {
+            long numeroLinea = 0;
+            String linea;
+            while ((linea = lector.readLine()) != null) {
+                numeroLinea++;
+                if (linea.isBlank() || (numeroLinea == 1 && formato == FormatoImportacion.CSV && esCabecera(linea))) {
+                    continue;
+                }
+
+                try {
+                    lote.add(validar(formato == FormatoImportacion.CSV ? desdeCsv(linea) : desdeJson(linea)));
+                } catch (JsonProcessingException e) {
+                    resumen.rechazar(numeroLinea, "JSON inválido");
+                } catch (IllegalArgumentException e) {
+                    resumen.rechazar(numeroLinea, e.getMessage());
+                }
+
+                if (lote.size() == tamanoLote) {
+                    guardar(lote, resumen);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Error al leer el contenido de la importación", e);
+        }
+
+        if (!lote.isEmpty()) {
+            guardar(lote, resumen);
+        }
+
+        log.info("Importación de productos finalizada. importados: {}, rechazados: {}, duracionMs: {}",
+                resumen.getImportados(), resumen.getRechazados(), (System.nanoTime() - inicio) / 1_000_000);
+        return resumen;
+    }
+
+    private void guardar(List<Producto> lote, ResumenImportacionDto resumen) {
+        Instant ahora = Instant.now();
+        transactionTemplate.executeWithoutResult(status -> {
+            productoRepository.saveAll(lote);
+            outboxRepository.saveAll(lote.stream()
+                    .map(producto -> new OutboxInventario(UUID.randomUUID().toString(),
+                            producto.getId(), producto.getCantidad(), ahora))
+                    .collect(Collectors.toList()));
+            entityManager.flush();
+            entityManager.clear();
+        });
+        resumen.sumarImportados(lote.size());
+        lote.clear();
+    }
+
+    private Producto desdeJson(String linea) throws JsonProcessingException {
+        Producto producto = objectMapper.readValue(linea, Producto.class);
+        producto.setId(null);
+        return producto;
+    }
+
+    private Producto desdeCsv(String linea) {
+        List<String> campos = separarCsv(linea);
+        if (campos.size() != 3) {
+            throw new IllegalArgumentException("se esperaban 3 columnas (nombre,precio,cantidad) y hay " + campos.size());
+        }
+
+        Producto producto = new Producto();
+        producto.setNombre(campos.get(0).trim());
+        try {
+            producto.setPrecio(new BigDecimal(campos.get(1).trim()));
+            producto.setCantidad(Integer.parseInt(campos.get(2).trim()));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("precio o cantidad no numéricos");
+        }
+        return producto;
+    }
+
+    private Producto validar(Producto producto) {
+        if (producto.getNombre() == null || producto.getNombre().isBlank()) {
+            throw new IllegalArgumentException("el nombre es obligatorio");
+        }
+        if (producto.getPrecio() == null || producto.getPrecio().signum() < 0) {
+            throw new IllegalArgumentException("el precio es obligatorio y no puede ser negativo");
+        }
+        if (producto.getCantidad() < 0) {
+            throw new IllegalArgumentException("la cantidad no puede ser negativa");
+        }
+        return producto;
+    }
+
+    private boolean esCabecera(String linea) {
+        return linea.trim().toLowerCase().startsWith("nombre");
+    }
+
+    // CSV con comillas dobles opcionales; "" dentro de un campo entrecomillado es una comilla literal.
+    private List<String> separarCsv(String linea) {
+        List<String> campos = new ArrayList<>(3);
+        StringBuilder campo = new StringBuilder();
+        boolean entreComillas = false;
+        for (int i = 0; i < linea.length(); i++) {
+            char c = linea.charAt(i);
+            if (c == '"') {
+                if (entreComillas && i + 1 < linea.length() && linea.charAt(i + 1) == '"') {
+                    campo.append('"');
+                    i++;
+                } else {
+                    entreComillas = !entreComillas;
+                }
+            } else if (c == ',' && !entreComillas) {
+                campos.add(campo.toString());
+                campo.setLength(0);
+            } else {
+                campo.append(c);
+            }
+        }
+        campos.add(campo.toString());
+        return campos;
+    }
+}
@@ -1,37 +1,54 @@
 package com.linktic.producto.service.ServiceImpl;
 
 import com.linktic.producto.client.InventarioServiceClient;
-import com.linktic.producto.dto.InventarioRequestDto;
+import com.linktic.producto.dto.CursorPaginacion;
+import com.linktic.producto.dto.FiltroProductoDto;
+import com.linktic.producto.dto.ModoCoincidencia;
+import com.linktic.producto.dto.PaginaCursor;
+import com.linktic.producto.dto.ProductoEventoDto;
+import com.linktic.producto.exception.FiltroInvalidoException;
 import com.linktic.producto.exception.ResourceNotFoundException;
+import com.linktic.producto.model.OutboxInventario;
 import com.linktic.producto.model.Producto;
+import com.linktic.producto.repository.OutboxInventarioRepository;
+import com.linktic.producto.repository.ProductoEspecificaciones;
 import com.linktic.producto.repository.ProductoRepository;
 import com.linktic.producto.service.ProductoService;
 
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
 @Service
 @RequiredArgsConstructor 
 public class ProductoServiceImpl implements ProductoService {
 
     private final ProductoRepository productoRepository;
+    private final OutboxInventarioRepository outboxRepository;
     private final InventarioServiceClient inventarioServiceClient;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
     @Transactional
+    @Timed(value = "producto.creacion", description = "Alta de un producto junto con su registro de outbox")
     public Producto crearProducto(Producto producto) {
         
         Producto productoGuardado = productoRepository.save(producto);
-        
-        InventarioRequestDto inventarioDto = new InventarioRequestDto();
-        inventarioDto.setProductoId(productoGuardado.getId());
-        inventarioDto.setCantidad(productoGuardado.getCantidad());
 
-        inventarioServiceClient.crearRegistroInventario(inventarioDto);
-        
+        // El inventario se crea de forma asíncrona desde el outbox, que se confirma junto con el producto.
+        outboxRepository.save(new OutboxInventario(UUID.randomUUID().toString(),
+                productoGuardado.getId(), productoGuardado.getCantidad(), Instant.now()));
+
         return productoGuardado;
     }
 
@@ -51,7 +68,12 @@ public class ProductoServiceImpl implements ProductoService {
         producto.setPrecio(productoDetalles.getPrecio());
         producto.setCantidad(productoDetalles.getCantidad());
         
-        return productoRepository.save(producto);
+        Producto productoActualizado = productoRepository.save(producto);
+
+        eventPublisher.publishEvent(new ProductoEventoDto(
+            ProductoEventoDto.TipoEvento.PRODUCTO_ACTUALIZADO, productoActualizado.getId(), productoActualizado));
+
+        return productoActualizado;
     }
 
     @Override
@@ -59,9 +81,16 @@ public class ProductoServiceImpl implements ProductoService {
     public void eliminarProducto(Long id) {
         Producto producto = obtenerProductoPorId(id);
 
+        // Si el relay aún no lo entregó, el inventario no existe todavía: se descarta el alta pendiente para
+        // que no aparezca después un inventario huérfano, y el 404 de inventario-service se da por bueno. Si el
+        // relay la tiene reclamada, el DELETE espera a que termine su entrega y el borrado de abajo ya la ve.
+        outboxRepository.eliminarPendientes(id);
         inventarioServiceClient.eliminarRegistroInventario(id);
         
         productoRepository.delete(producto);
+
+        eventPublisher.publishEvent(new ProductoEventoDto(
+            ProductoEventoDto.TipoEvento.PRODUCTO_ELIMINADO, id, null));
     }
 
     @Override
@@ -69,4 +98,52 @@ public class ProductoServiceImpl implements ProductoService {
     public Page<Producto> listarTodosLosProductos(Pageable pageable) {
         return productoRepository.findAll(pageable);
     }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Page<Producto> buscarProductos(FiltroProductoDto filtro, Pageable pageable) {
+        if (filtro.getPrecioMin() != null && filtro.getPrecioMax() != null
+                && filtro.getPrecioMin().compareTo(filtro.getPrecioMax()) > 0) {
+            throw new FiltroInvalidoException("precioMin no puede ser mayor que precioMax");
+        }
+
+        Specification<Producto> especificacion = Specification.where(null);
+        if (filtro.getNombre() != null && !filtro.getNombre().isBlank()) {
+            especificacion = especificacion.and(filtro.getCoincidencia() == ModoCoincidencia.CONTIENE
+                    ? ProductoEspecificaciones.nombreContiene(filtro.getNombre())
+                    : ProductoEspecificaciones.nombreEmpiezaPor(filtro.getNombre()));
+        }
+        if (filtro.getPrecioMin() != null) {
+            especificacion = especificacion.and(ProductoEspecificaciones.precioDesde(filtro.getPrecioMin()));
+        }
+        if (filtro.getPrecioMax() != null) {
+            especificacion = especificacion.and(ProductoEspecificaciones.precioHasta(filtro.getPrecioMax()));
+        }
+
+        return productoRepository.findAll(especificacion, pageable);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public PaginaCursor<Producto> listarProductosPorCursor(String cursor, int tamano) {
+        CursorPaginacion posicion = cursor == null ? null : CursorPaginacion.decodificar(cursor);
+        Pageable limite = PageRequest.of(0, tamano + 1);
+
+        List<Producto> filas;
+        if (posicion == null) {
+            filas = productoRepository.findByOrderByIdAsc(limite);
+        } else if (posicion.isHaciaAtras()) {
+            filas = productoRepository.findByIdLessThanOrderByIdDesc(posicion.getId(), limite);
+        } else {
+            filas = productoRepository.findByIdGreaterThanOrderByIdAsc(posicion.getId(), limite);
+        }
+
+        return PaginaCursor.de(filas, tamano, posicion, Producto::getId);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<Producto> obtenerProductosPorIds(List<Long> ids) {
+        return productoRepository.buscarPorIds(ids);
+    }
 }
\ No newline at end of file
@@ -1,13 +1,57 @@
 package com.linktic.producto;
 
+import com.linktic.producto.model.Producto;
+import com.linktic.producto.service.ProductoService;
+
+import io.micrometer.prometheus.PrometheusMeterRegistry;
+import org.hibernate.SessionFactory;
 import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.metrics.AutoConfigureMetrics;
 import org.springframework.boot.test.context.SpringBootTest;
 
-@SpringBootTest
+import java.math.BigDecimal;
+
+import javax.persistence.EntityManagerFactory;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = "outbox.relay.intervalo-ms=3600000")
+@AutoConfigureMetrics
 class ProductoServiceApplicationTests {
 
+	@Autowired
+	private ProductoService productoService;
+
+	@Autowired
+	private PrometheusMeterRegistry prometheusMeterRegistry;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
 	@Test
 	void contextLoads() {
 	}
 
+	@Test
+	void testCacheSegundoNivel_DeshabilitadaPorDefecto() {
+		assertFalse(entityManagerFactory.unwrap(SessionFactory.class).getSessionFactoryOptions().isSecondLevelCacheEnabled());
+	}
+
+	@Test
+	void testPrometheus_PublicaTimersConHistogramaYPoolDeConexiones() {
+		Producto producto = new Producto();
+		producto.setNombre("Tuerca");
+		producto.setPrecio(new BigDecimal("0.10"));
+		producto.setCantidad(5);
+		productoService.crearProducto(producto);
+
+		String exposicion = prometheusMeterRegistry.scrape();
+
+		assertTrue(exposicion.contains("producto_creacion_seconds_bucket{"), exposicion);
+		assertTrue(exposicion.contains("hikaricp_connections_pending{"));
+		assertTrue(exposicion.contains("hikaricp_connections_acquire_seconds_bucket{"));
+	}
+
 }
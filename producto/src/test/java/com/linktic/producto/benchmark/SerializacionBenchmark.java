@@ -0,0 +1,126 @@
+package com.linktic.producto.benchmark;
+
+import com.linktic.producto.ProductoServiceApplication;
+import com.linktic.producto.model.Producto;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.hateoas.EntityModel;
+import org.springframework.hateoas.IanaLinkRelations;
+import org.springframework.hateoas.Link;
+import org.springframework.hateoas.PagedModel;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerAdapter;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+// Serialización de una página de Producto con los mismos convertidores que usa Spring MVC (HAL y
+// JSON:API), sobre un búfer reutilizado para no medir la E/S. El contexto arranca sobre H2 en memoria
+// y con el relay del outbox parado: solo se usa para obtener los convertidores configurados.
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 3)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SerializacionBenchmark {
+
+    private static final String BASE = "http://localhost:8081/productos";
+
+    @Param({"application/hal+json", "application/vnd.api+json"})
+    public String tipo;
+
+    @Param({"20", "100"})
+    public int tamanoPagina;
+
+    private ConfigurableApplicationContext contexto;
+    private HttpMessageConverter<Object> convertidor;
+    private MediaType mediaType;
+    private PagedModel<EntityModel<Producto>> pagina;
+    private final Salida salida = new Salida();
+
+    @Setup(Level.Trial)
+    @SuppressWarnings("unchecked")
+    public void iniciar() {
+        contexto = new SpringApplicationBuilder(ProductoServiceApplication.class)
+                .properties("server.port=0", "spring.datasource.url=jdbc:h2:mem:benchmark",
+                        "outbox.relay.intervalo-ms=3600000", "logging.level.root=WARN")
+                .run();
+        mediaType = MediaType.parseMediaType(tipo);
+        convertidor = (HttpMessageConverter<Object>) contexto.getBean(RequestMappingHandlerAdapter.class).getMessageConverters().stream()
+                .filter(c -> c.canWrite(PagedModel.class, mediaType))
+                .findFirst()
+                .orElseThrow(() -> new IllegalStateException("Sin convertidor para " + tipo));
+
+        List<EntityModel<Producto>> contenido = LongStream.rangeClosed(1, tamanoPagina)
+                .mapToObj(this::producto)
+                .collect(Collectors.toList());
+        pagina = PagedModel.of(contenido, new PagedModel.PageMetadata(tamanoPagina, 0, 10L * tamanoPagina),
+                Link.of(BASE + "?page=0&size=" + tamanoPagina).withSelfRel(),
+                Link.of(BASE + "?page=1&size=" + tamanoPagina).withRel(IanaLinkRelations.NEXT));
+    }
+
+    @TearDown(Level.Trial)
+    public void detener() {
+        contexto.close();
+    }
+
+    @Benchmark
+    public int serializarPagina() throws IOException {
+        salida.reiniciar();
+        convertidor.write(pagina, mediaType, salida);
+        return salida.cuerpo.size();
+    }
+
+    private EntityModel<Producto> producto(long id) {
+        Producto producto = new Producto();
+        producto.setId(id);
+        producto.setNombre("Producto " + id);
+        producto.setPrecio(BigDecimal.valueOf(id, 2));
+        producto.setCantidad(100);
+        return EntityModel.of(producto, Link.of(BASE + "/" + id).withSelfRel());
+    }
+
+    private static final class Salida implements HttpOutputMessage {
+        private final HttpHeaders headers = new HttpHeaders();
+        private final ByteArrayOutputStream cuerpo = new ByteArrayOutputStream(64 * 1024);
+
+        void reiniciar() {
+            headers.clear();
+            cuerpo.reset();
+        }
+
+        @Override
+        public OutputStream getBody() {
+            return cuerpo;
+        }
+
+        @Override
+        public HttpHeaders getHeaders() {
+            return headers;
+        }
+    }
+}
@@ -0,0 +1,142 @@
+package com.linktic.producto.carga;
+
+import com.linktic.producto.dto.FiltroProductoDto;
+import com.linktic.producto.dto.ModoCoincidencia;
+import com.linktic.producto.service.ProductoService;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Benchmark de la búsqueda sobre 1M de productos (mvn test -Pcarga). Verifica con EXPLAIN, sobre el SQL que
+// Hibernate envía de verdad (capturado con SentenciasCapturadas), que los filtros de nombre por prefijo y de
+// rango de precio usan sus índices, y compara la latencia contra CONTIENE, que por diseño recorre la tabla.
+// Los planes son los de H2; en MySQL se comprueba igual con EXPLAIN.
+@Tag("carga")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:busqueda;DB_CLOSE_DELAY=-1",
+        "outbox.relay.intervalo-ms=3600000",
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector=com.linktic.producto.carga.SentenciasCapturadas"
+})
+class BusquedaProductosCargaTest {
+
+    private static final int PRODUCTOS = 1_000_000;
+    private static final int LOTE_INSERCION = 10_000;
+    private static final int REPETICIONES = 50;
+    private static final int TAMANO_PAGINA = 20;
+    private static final PageRequest PAGINA = PageRequest.of(0, TAMANO_PAGINA, Sort.by("id"));
+
+    @Autowired
+    private ProductoService productoService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeAll
+    void sembrar() {
+        long inicio = System.nanoTime();
+        for (int desde = 1; desde <= PRODUCTOS; desde += LOTE_INSERCION) {
+            List<Object[]> filas = new ArrayList<>(LOTE_INSERCION);
+            for (int id = desde; id < desde + LOTE_INSERCION; id++) {
+                filas.add(new Object[]{id, String.format("Producto %07d", id), new BigDecimal(id % 100_000).movePointLeft(2), id % 10});
+            }
+            jdbcTemplate.batchUpdate("INSERT INTO producto (id, nombre, precio, cantidad, version) VALUES (?, ?, ?, ?, 0)", filas);
+        }
+        jdbcTemplate.execute("ANALYZE");
+        System.out.printf("Sembrados %d productos en %d ms%n", PRODUCTOS, (System.nanoTime() - inicio) / 1_000_000);
+    }
+
+    @Test
+    void testPlanes_PrefijoYRangoDePrecioUsanIndices() {
+        List<String> prefijo = planes(porPrefijo(), "Producto 00123%", "\\");
+        List<String> rango = planes(porPrecio(), new BigDecimal("10.00"), new BigDecimal("10.50"));
+        List<String> contiene = planes(contiene(), "%0123%", "\\");
+
+        // Página y count: 100 productos empiezan por el prefijo, más que una página.
+        assertEquals(2, prefijo.size(), prefijo::toString);
+        prefijo.forEach(plan -> assertTrue(plan.contains("IDX_PRODUCTO_NOMBRE: NOMBRE >="), plan));
+        rango.forEach(plan -> assertTrue(plan.contains("IDX_PRODUCTO_PRECIO: PRECIO >="), plan));
+        contiene.forEach(plan -> assertFalse(plan.contains("IDX_PRODUCTO_NOMBRE: NOMBRE >="), plan));
+    }
+
+    @Test
+    void testLatencia_BusquedasIndexadasFrenteARecorridoCompleto() {
+        FiltroProductoDto porPrefijo = porPrefijo();
+        FiltroProductoDto porPrecio = porPrecio();
+        FiltroProductoDto contiene = contiene();
+
+        long prefijoUs = medianaMicros(() -> productoService.buscarProductos(porPrefijo, PAGINA));
+        long precioUs = medianaMicros(() -> productoService.buscarProductos(porPrecio, PAGINA));
+        long contieneUs = medianaMicros(() -> productoService.buscarProductos(contiene, PAGINA));
+
+        System.out.printf("Búsqueda sobre %d productos (mediana de %d, página + count): prefijo=%d us, precio=%d us, contiene=%d us%n",
+                PRODUCTOS, REPETICIONES, prefijoUs, precioUs, contieneUs);
+        assertTrue(prefijoUs * 3 < contieneUs);
+        assertTrue(precioUs * 3 < contieneUs);
+    }
+
+    // EXPLAIN de cada SELECT que Hibernate envió para la búsqueda. Los parámetros van en el orden de los
+    // predicados y, en la consulta de la página, el LIMIT al final; el count solo lleva los de los predicados.
+    private List<String> planes(FiltroProductoDto filtro, Object... valoresPredicados) {
+        SentenciasCapturadas.extraer();
+        productoService.buscarProductos(filtro, PAGINA);
+
+        List<Object> parametros = new ArrayList<>(Arrays.asList(valoresPredicados));
+        parametros.add(TAMANO_PAGINA);
+        List<String> planes = new ArrayList<>();
+        for (String sql : SentenciasCapturadas.extraer()) {
+            int marcadores = (int) sql.chars().filter(c -> c == '?').count();
+            assertTrue(marcadores >= valoresPredicados.length, () -> "Valores sin enlazar (literales en el SQL): " + sql);
+            planes.add(jdbcTemplate.queryForObject("EXPLAIN " + sql, String.class,
+                    parametros.subList(0, marcadores).toArray()).replace('\n', ' '));
+        }
+        return planes;
+    }
+
+    private static FiltroProductoDto porPrefijo() {
+        FiltroProductoDto filtro = new FiltroProductoDto();
+        filtro.setNombre("Producto 00123");
+        return filtro;
+    }
+
+    private static FiltroProductoDto porPrecio() {
+        FiltroProductoDto filtro = new FiltroProductoDto();
+        filtro.setPrecioMin(new BigDecimal("10.00"));
+        filtro.setPrecioMax(new BigDecimal("10.50"));
+        return filtro;
+    }
+
+    private static FiltroProductoDto contiene() {
+        FiltroProductoDto filtro = new FiltroProductoDto();
+        filtro.setNombre("0123");
+        filtro.setCoincidencia(ModoCoincidencia.CONTIENE);
+        return filtro;
+    }
+
+    private long medianaMicros(Supplier<?> busqueda) {
+        busqueda.get();
+        long[] tiempos = new long[REPETICIONES];
+        for (int i = 0; i < REPETICIONES; i++) {
+            long inicio = System.nanoTime();
+            assertNotNull(busqueda.get());
+            tiempos[i] = (System.nanoTime() - inicio) / 1_000;
+        }
+        Arrays.sort(tiempos);
+        return tiempos[REPETICIONES / 2];
+    }
+}
@@ -0,0 +1,27 @@
+package com.linktic.producto.carga;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+// Guarda el SQL que Hibernate envía a la base para poder hacer EXPLAIN de las sentencias reales.
+// Se registra con spring.jpa.properties.hibernate.session_factory.statement_inspector.
+public class SentenciasCapturadas implements StatementInspector {
+
+    private static final Queue<String> SENTENCIAS = new ConcurrentLinkedQueue<>();
+
+    @Override
+    public String inspect(String sql) {
+        SENTENCIAS.add(sql);
+        return sql;
+    }
+
+    static List<String> extraer() {
+        List<String> sentencias = new ArrayList<>(SENTENCIAS);
+        SENTENCIAS.clear();
+        return sentencias;
+    }
+}
@@ -0,0 +1,95 @@
+package com.linktic.producto.client;
+
+import com.linktic.producto.dto.ProductoEventoDto;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.client.AutoConfigureMockRestServiceServer;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.web.client.MockRestServiceServer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.client.ExpectedCount.once;
+import static org.springframework.test.web.client.ExpectedCount.times;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.method;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.requestTo;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withStatus;
+
+@SpringBootTest(properties = "outbox.relay.intervalo-ms=3600000")
+@AutoConfigureMockRestServiceServer
+class InventarioServiceClientTest {
+
+    private static final String URL_INVENTARIO = "http://localhost:8082/inventarios/producto/5";
+    private static final String URL_EVENTOS = "http://localhost:8082/inventarios/internal/eventos-producto";
+
+    @Autowired
+    private InventarioServiceClient inventarioServiceClient;
+
+    @Autowired
+    private MockRestServiceServer server;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        server.reset();
+    }
+
+    @Test
+    void testNotificarEventoProducto_ErrorDeServidorSeReintentaYSeEntrega() {
+        double reintentosPrevios = meterRegistry.counter("cliente.inventario.reintentos", "operacion", "notificar-evento").count();
+        server.expect(once(), requestTo(URL_EVENTOS)).andExpect(method(HttpMethod.POST))
+            .andRespond(withStatus(HttpStatus.SERVICE_UNAVAILABLE));
+        server.expect(once(), requestTo(URL_EVENTOS)).andExpect(method(HttpMethod.POST))
+            .andRespond(withStatus(HttpStatus.NO_CONTENT));
+
+        assertDoesNotThrow(() -> inventarioServiceClient.notificarEventoProducto(
+                new ProductoEventoDto(ProductoEventoDto.TipoEvento.PRODUCTO_ELIMINADO, 5L, null)));
+
+        server.verify();
+        assertEquals(reintentosPrevios + 1,
+                meterRegistry.counter("cliente.inventario.reintentos", "operacion", "notificar-evento").count());
+    }
+
+    @Test
+    void testEliminarRegistroInventario_404SeDaPorEliminadoSinReintentar() {
+        server.expect(once(), requestTo(URL_INVENTARIO)).andExpect(method(HttpMethod.DELETE))
+            .andRespond(withStatus(HttpStatus.NOT_FOUND));
+
+        assertDoesNotThrow(() -> inventarioServiceClient.eliminarRegistroInventario(5L));
+        server.verify();
+    }
+
+    @Test
+    void testEliminarRegistroInventario_EtiquetaUriConPlantilla() {
+        server.expect(once(), requestTo(URL_INVENTARIO)).andRespond(withStatus(HttpStatus.NO_CONTENT));
+
+        inventarioServiceClient.eliminarRegistroInventario(5L);
+
+        server.verify();
+        assertNotNull(meterRegistry.find("http.client.requests").tag("uri", "/inventarios/producto/{productoId}").timer());
+        assertNull(meterRegistry.find("http.client.requests").tag("uri", "/inventarios/producto/5").timer());
+    }
+
+    @Test
+    void testEliminarRegistroInventario_OtroErrorDeClienteFallaSinReintentar() {
+        server.expect(once(), requestTo(URL_INVENTARIO))
+            .andRespond(withStatus(HttpStatus.BAD_REQUEST));
+
+        assertThrows(RuntimeException.class, () -> inventarioServiceClient.eliminarRegistroInventario(5L));
+        server.verify();
+    }
+
+    @Test
+    void testEliminarRegistroInventario_ErrorDeServidorSeReintenta() {
+        server.expect(times(2), requestTo(URL_INVENTARIO))
+            .andRespond(withStatus(HttpStatus.SERVICE_UNAVAILABLE));
+
+        assertThrows(RuntimeException.class, () -> inventarioServiceClient.eliminarRegistroInventario(5L));
+        server.verify();
+    }
+}
@@ -3,20 +3,31 @@ package com.linktic.producto.controller;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.linktic.producto.exception.ProductoNotFoundException;
 import com.linktic.producto.model.Producto;
+import com.linktic.producto.dto.FiltroProductoDto;
+import com.linktic.producto.dto.FormatoImportacion;
+import com.linktic.producto.dto.PaginaCursor;
+import com.linktic.producto.dto.ResumenImportacionDto;
+import com.linktic.producto.service.ImportacionService;
 import com.linktic.producto.service.ProductoService;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 
 import java.math.BigDecimal; // Import para BigDecimal
+import java.util.List;
 
 // Imports estáticos para los métodos
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.endsWith;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -34,6 +45,9 @@ class ProductoControllerTest {
     @MockBean
     private ProductoService productoService;
 
+    @MockBean
+    private ImportacionService importacionService;
+
     // Prueba para POST /productos (Crear)
     @Test
     void testCrearProductoEndpoint() throws Exception {
@@ -130,4 +144,126 @@ class ProductoControllerTest {
         mockMvc.perform(delete("/productos/1")) // Sin header
             .andExpect(status().isUnauthorized());
     }
-}
\ No newline at end of file
+
+    // Prueba para GET /productos/internal/batch (Lote)
+    @Test
+    void testObtenerProductosInternos_ConApiKey_Retorna200OK() throws Exception {
+        // --- Arrange ---
+        Producto productoA = new Producto();
+        productoA.setId(1L);
+        productoA.setNombre("Producto A");
+        productoA.setPrecio(new BigDecimal("10.0"));
+
+        Producto productoB = new Producto();
+        productoB.setId(2L);
+        productoB.setNombre("Producto B");
+        productoB.setPrecio(new BigDecimal("20.0"));
+
+        when(productoService.obtenerProductosPorIds(List.of(1L, 2L))).thenReturn(List.of(productoA, productoB));
+
+        // --- Act & Assert ---
+        mockMvc.perform(get("/productos/internal/batch")
+                .param("ids", "1", "2")
+                .header("SERVICE_API_KEY", "MI_API_KEY_SECRETA_COMPARTIDA"))
+
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.length()").value(2))
+            .andExpect(jsonPath("$[0].nombre").value("Producto A"))
+            .andExpect(jsonPath("$[1].nombre").value("Producto B"));
+    }
+
+    @Test
+    void testImportarProductos_Csv_ConApiKey_Retorna200ConResumen() throws Exception {
+        ResumenImportacionDto resumen = new ResumenImportacionDto();
+        resumen.sumarImportados(2);
+        when(importacionService.importarProductos(any(), eq(FormatoImportacion.CSV))).thenReturn(resumen);
+
+        mockMvc.perform(post("/productos/importacion")
+                .header("SERVICE_API_KEY", "MI_API_KEY_SECRETA_COMPARTIDA")
+                .contentType("text/csv")
+                .content("nombre,precio,cantidad\nA,1.0,1\nB,2.0,2\n"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.importados").value(2));
+    }
+
+    @Test
+    void testImportarProductos_SinApiKey_Retorna401Unauthorized() throws Exception {
+        mockMvc.perform(post("/productos/importacion")
+                .contentType(FormatoImportacion.NDJSON_VALUE)
+                .content("{}"))
+            .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    void testListarProductos_ConCursor_DevuelveEnlacesNextYPrevSinTotales() throws Exception {
+        Producto producto = new Producto();
+        producto.setId(42L);
+        producto.setNombre("Producto 42");
+        producto.setPrecio(new BigDecimal("1.0"));
+        when(productoService.listarProductosPorCursor("czo0MQ", 20))
+                .thenReturn(new PaginaCursor<>(List.of(producto), "czo0Mg", "YTo0Mg"));
+
+        mockMvc.perform(get("/productos").param("cursor", "czo0MQ"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$._links.next.href").value(endsWith("/productos?cursor=czo0Mg")))
+            .andExpect(jsonPath("$._links.prev.href").value(endsWith("/productos?cursor=YTo0Mg")))
+            .andExpect(jsonPath("$.page").doesNotExist());
+    }
+
+    @Test
+    void testBuscarProductos_SinApiKey_EsPublicoYEnlazaConLosFiltros() throws Exception {
+        Producto producto = new Producto();
+        producto.setId(7L);
+        producto.setNombre("Tornillo");
+        producto.setPrecio(new BigDecimal("0.25"));
+        when(productoService.buscarProductos(any(FiltroProductoDto.class), any()))
+                .thenAnswer(inv -> new PageImpl<>(List.of(producto), inv.getArgument(1), 45));
+
+        mockMvc.perform(get("/productos/busqueda?nombre=Torn&precioMax=1.00&size=20"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.page.totalElements").value(45))
+            .andExpect(jsonPath("$._links.next.href").value(containsString("nombre=Torn")));
+
+        verify(productoService).buscarProductos(argThat(f -> "Torn".equals(f.getNombre())
+                && new BigDecimal("1.00").equals(f.getPrecioMax()) && f.getPrecioMin() == null), any());
+    }
+
+    @Test
+    void testObtenerProductoPorId_ConETagVigente_Retorna304SinCuerpo() throws Exception {
+        Producto producto = new Producto();
+        producto.setId(1L);
+        producto.setNombre("Producto A");
+        producto.setPrecio(new BigDecimal("10.0"));
+        producto.setVersion(3L);
+        when(productoService.obtenerProductoPorId(1L)).thenReturn(producto);
+
+        mockMvc.perform(get("/productos/{id}", 1L)
+                .header("SERVICE_API_KEY", "MI_API_KEY_SECRETA_COMPARTIDA"))
+            .andExpect(status().isOk())
+            .andExpect(header().string("ETag", "W/\"3\""))
+            .andExpect(jsonPath("$.version").value(3));
+
+        mockMvc.perform(get("/productos/{id}", 1L)
+                .header("SERVICE_API_KEY", "MI_API_KEY_SECRETA_COMPARTIDA")
+                .header("If-None-Match", "W/\"3\""))
+            .andExpect(status().isNotModified())
+            .andExpect(content().string(""));
+    }
+
+    @Test
+    void testObtenerProductoInterno_ConETagAntiguo_Retorna200ConNuevoETag() throws Exception {
+        Producto producto = new Producto();
+        producto.setId(1L);
+        producto.setNombre("Producto A");
+        producto.setPrecio(new BigDecimal("10.0"));
+        producto.setVersion(4L);
+        when(productoService.obtenerProductoPorId(1L)).thenReturn(producto);
+
+        mockMvc.perform(get("/productos/internal/{id}", 1L)
+                .header("SERVICE_API_KEY", "MI_API_KEY_SECRETA_COMPARTIDA")
+                .header("If-None-Match", "W/\"3\""))
+            .andExpect(status().isOk())
+            .andExpect(header().string("ETag", "W/\"4\""))
+            .andExpect(jsonPath("$.nombre").value("Producto A"));
+    }
+}
@@ -0,0 +1,58 @@
+package com.linktic.producto.event;
+
+import com.linktic.producto.client.InventarioServiceClient;
+import com.linktic.producto.dto.ProductoEventoDto;
+import com.linktic.producto.model.Producto;
+import com.linktic.producto.service.ProductoService;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+
+import java.math.BigDecimal;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+
+@SpringBootTest(properties = "outbox.relay.intervalo-ms=3600000")
+class ProductoEventoListenerTest {
+
+    @Autowired
+    private ProductoService productoService;
+
+    @MockBean
+    private InventarioServiceClient inventarioServiceClient;
+
+    @Test
+    void testActualizarProducto_NotificaAInventarioFueraDelHiloDeLaPeticion() throws Exception {
+        CountDownLatch liberar = new CountDownLatch(1);
+        CompletableFuture<String> hiloNotificacion = new CompletableFuture<>();
+        doAnswer(invocacion -> {
+            hiloNotificacion.complete(Thread.currentThread().getName());
+            // Inventario lento: la actualización no debe esperarlo.
+            liberar.await(5, TimeUnit.SECONDS);
+            return null;
+        }).when(inventarioServiceClient).notificarEventoProducto(any(ProductoEventoDto.class));
+
+        Producto producto = new Producto();
+        producto.setNombre("Original");
+        producto.setPrecio(new BigDecimal("1.00"));
+        producto.setCantidad(1);
+        Long id = productoService.crearProducto(producto).getId();
+        Producto cambios = new Producto();
+        cambios.setNombre("Cambiado");
+        cambios.setPrecio(new BigDecimal("2.00"));
+
+        try {
+            assertEquals("Cambiado", productoService.actualizarProducto(id, cambios).getNombre());
+            assertTrue(hiloNotificacion.get(5, TimeUnit.SECONDS).startsWith("eventos-producto-"));
+        } finally {
+            liberar.countDown();
+        }
+    }
+}
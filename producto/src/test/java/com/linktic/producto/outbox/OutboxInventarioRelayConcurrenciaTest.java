@@ -0,0 +1,75 @@
+package com.linktic.producto.outbox;
+
+import com.linktic.producto.client.InventarioServiceClient;
+import com.linktic.producto.model.Producto;
+import com.linktic.producto.repository.OutboxInventarioRepository;
+import com.linktic.producto.service.ProductoService;
+
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+
+import java.math.BigDecimal;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+@SpringBootTest(properties = "outbox.relay.intervalo-ms=3600000")
+class OutboxInventarioRelayConcurrenciaTest {
+
+    @Autowired
+    private ProductoService productoService;
+
+    @Autowired
+    private OutboxInventarioRelay relay;
+
+    @Autowired
+    private OutboxInventarioRepository outboxRepository;
+
+    @MockBean
+    private InventarioServiceClient inventarioServiceClient;
+
+    @Test
+    void testEliminarProducto_DuranteLaEntrega_EsperaAlRelayYBorraElInventarioCreado() throws Exception {
+        CountDownLatch enEntrega = new CountDownLatch(1);
+        CountDownLatch liberar = new CountDownLatch(1);
+        doAnswer(invocacion -> {
+            enEntrega.countDown();
+            liberar.await(5, TimeUnit.SECONDS);
+            return null;
+        }).when(inventarioServiceClient).crearRegistrosInventario(anyList());
+
+        Producto producto = new Producto();
+        producto.setNombre("Carrera");
+        producto.setPrecio(new BigDecimal("1.00"));
+        producto.setCantidad(1);
+        Long id = productoService.crearProducto(producto).getId();
+
+        CompletableFuture<Void> entrega = CompletableFuture.runAsync(relay::publicarPendientes);
+        CompletableFuture<Void> eliminacion;
+        try {
+            assertTrue(enEntrega.await(5, TimeUnit.SECONDS));
+            eliminacion = CompletableFuture.runAsync(() -> productoService.eliminarProducto(id));
+            // La fila está reclamada: el borrado del alta pendiente espera a que el relay termine.
+            Thread.sleep(300);
+            assertFalse(eliminacion.isDone());
+            verify(inventarioServiceClient, never()).eliminarRegistroInventario(anyLong());
+        } finally {
+            liberar.countDown();
+        }
+
+        entrega.get(10, TimeUnit.SECONDS);
+        eliminacion.get(10, TimeUnit.SECONDS);
+        InOrder orden = inOrder(inventarioServiceClient);
+        orden.verify(inventarioServiceClient).crearRegistrosInventario(anyList());
+        orden.verify(inventarioServiceClient).eliminarRegistroInventario(id);
+        assertEquals(0, outboxRepository.count());
+    }
+}
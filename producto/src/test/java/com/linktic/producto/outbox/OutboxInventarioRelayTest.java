@@ -0,0 +1,137 @@
+package com.linktic.producto.outbox;
+
+import com.linktic.producto.client.InventarioServiceClient;
+import com.linktic.producto.dto.InventarioRequestDto;
+import com.linktic.producto.model.OutboxInventario;
+import com.linktic.producto.repository.OutboxInventarioRepository;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.client.HttpClientErrorException;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class OutboxInventarioRelayTest {
+
+    @Mock
+    private OutboxInventarioRepository outboxRepository;
+
+    @Mock
+    private InventarioServiceClient inventarioServiceClient;
+
+    @Captor
+    private ArgumentCaptor<List<InventarioRequestDto>> enviados;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private OutboxInventarioRelay relay;
+
+    @BeforeEach
+    void setUp() {
+        relay = new OutboxInventarioRelay(outboxRepository, inventarioServiceClient, meterRegistry,
+                new TransactionTemplate(mock(PlatformTransactionManager.class)), 2, Duration.ofSeconds(1), Duration.ofMinutes(5));
+    }
+
+    @Test
+    void testPublicarPendientes_EntregaPorLotesConClaveYBorraLosConfirmados() {
+        List<OutboxInventario> primerLote = List.of(pendiente(1L, "clave-1", 0), pendiente(2L, "clave-2", 0));
+        List<OutboxInventario> segundoLote = List.of(pendiente(3L, "clave-3", 0));
+        when(outboxRepository.reclamarPendientes(any(Instant.class), any(Pageable.class)))
+                .thenReturn(primerLote)
+                .thenReturn(segundoLote);
+
+        relay.publicarPendientes();
+
+        verify(inventarioServiceClient, times(2)).crearRegistrosInventario(enviados.capture());
+        assertEquals("clave-1", enviados.getAllValues().get(0).get(0).getClaveIdempotencia());
+        assertEquals(3L, enviados.getAllValues().get(1).get(0).getProductoId());
+        verify(outboxRepository).deleteAllInBatch(primerLote);
+        verify(outboxRepository).deleteAllInBatch(segundoLote);
+    }
+
+    @Test
+    void testPublicarPendientes_FalloDeInventario_ReprogramaConBackoffYNoBorra() {
+        List<OutboxInventario> lote = List.of(pendiente(1L, "clave-1", 2));
+        when(outboxRepository.reclamarPendientes(any(Instant.class), any(Pageable.class)))
+                .thenReturn(lote);
+        doThrow(new RuntimeException("inventario-service no disponible"))
+                .when(inventarioServiceClient).crearRegistrosInventario(anyList());
+
+        Instant antes = Instant.now();
+        relay.publicarPendientes();
+
+        ArgumentCaptor<Instant> proximoIntento = ArgumentCaptor.forClass(Instant.class);
+        verify(outboxRepository).registrarFallo(eq(List.of(1L)), proximoIntento.capture(), anyString());
+        assertEquals(1.0, meterRegistry.counter("cliente.inventario.respaldos", "operacion", "crear-inventarios").count());
+        assertFalse(proximoIntento.getValue().isBefore(antes.plusSeconds(4)));
+        verify(outboxRepository, never()).deleteAllInBatch(anyList());
+    }
+
+    @Test
+    void testPublicarPendientes_LoteRechazado_EntregaFilaAFilaYApartaSoloLaRechazada() {
+        OutboxInventario buena = pendiente(1L, "clave-1", 0);
+        OutboxInventario rechazada = pendiente(2L, "clave-2", 0);
+        List<OutboxInventario> lote = List.of(buena, rechazada);
+        when(outboxRepository.reclamarPendientes(any(Instant.class), any(Pageable.class)))
+                .thenReturn(lote)
+                .thenReturn(List.of());
+        doAnswer(inv -> {
+            List<InventarioRequestDto> solicitudes = inv.getArgument(0);
+            if (solicitudes.stream().anyMatch(s -> s.getProductoId().equals(2L))) {
+                throw HttpClientErrorException.create(HttpStatus.BAD_REQUEST, "Bad Request", HttpHeaders.EMPTY, null, null);
+            }
+            return null;
+        }).when(inventarioServiceClient).crearRegistrosInventario(anyList());
+
+        relay.publicarPendientes();
+
+        verify(inventarioServiceClient, times(3)).crearRegistrosInventario(anyList());
+        verify(outboxRepository).deleteAllInBatch(List.of(buena));
+        verify(outboxRepository).marcarRechazado(eq(2L), anyString());
+        verify(outboxRepository, never()).registrarFallo(anyList(), any(Instant.class), anyString());
+        assertEquals(1.0, meterRegistry.counter("outbox.inventario.rechazados").count());
+    }
+
+    @Test
+    void testPublicarPendientes_NoAutorizado_ReprogramaElLoteSinApartarFilas() {
+        List<OutboxInventario> lote = List.of(pendiente(1L, "clave-1", 0), pendiente(2L, "clave-2", 0));
+        when(outboxRepository.reclamarPendientes(any(Instant.class), any(Pageable.class))).thenReturn(lote);
+        doThrow(HttpClientErrorException.create(HttpStatus.UNAUTHORIZED, "Unauthorized", HttpHeaders.EMPTY, null, null))
+                .when(inventarioServiceClient).crearRegistrosInventario(anyList());
+
+        relay.publicarPendientes();
+
+        verify(inventarioServiceClient, times(1)).crearRegistrosInventario(anyList());
+        verify(outboxRepository).registrarFallo(eq(List.of(1L, 2L)), any(Instant.class), anyString());
+        verify(outboxRepository, never()).marcarRechazado(anyLong(), anyString());
+    }
+
+    private OutboxInventario pendiente(Long id, String clave, int intentos) {
+        OutboxInventario pendiente = new OutboxInventario(clave, id, 10, Instant.now());
+        pendiente.setId(id);
+        pendiente.setIntentos(intentos);
+        return pendiente;
+    }
+}
@@ -0,0 +1,61 @@
+package com.linktic.producto.repository;
+
+import com.linktic.producto.model.Producto;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+class ProductoEspecificacionesTest {
+
+    @Autowired
+    private ProductoRepository productoRepository;
+
+    @BeforeEach
+    void setUp() {
+        productoRepository.saveAll(List.of(
+                producto("Tornillo 5mm", "0.25", 100),
+                producto("Tornillo_10mm", "0.40", 0),
+                producto("Tuerca 100%", "0.10", 50),
+                producto("Arandela tornillo", "0.05", 10)));
+    }
+
+    @Test
+    void testNombreEmpiezaPor_EscapaComodinesDeLike() {
+        assertEquals(List.of("Tornillo 5mm", "Tornillo_10mm"), nombres(ProductoEspecificaciones.nombreEmpiezaPor("Tornillo")));
+        assertEquals(List.of("Tornillo_10mm"), nombres(ProductoEspecificaciones.nombreEmpiezaPor("Tornillo_")));
+        assertEquals(List.of("Tuerca 100%"), nombres(ProductoEspecificaciones.nombreContiene("100%")));
+    }
+
+    @Test
+    void testRangoDePrecio_SeCombinan() {
+        List<String> resultado = nombres(ProductoEspecificaciones.precioDesde(new BigDecimal("0.10"))
+                .and(ProductoEspecificaciones.precioHasta(new BigDecimal("0.40"))));
+
+        assertEquals(List.of("Tornillo 5mm", "Tornillo_10mm", "Tuerca 100%"), resultado);
+    }
+
+    private List<String> nombres(Specification<Producto> especificacion) {
+        return productoRepository.findAll(especificacion, Sort.by("id")).stream()
+                .map(Producto::getNombre)
+                .collect(Collectors.toList());
+    }
+
+    private Producto producto(String nombre, String precio, int cantidad) {
+        Producto producto = new Producto();
+        producto.setNombre(nombre);
+        producto.setPrecio(new BigDecimal(precio));
+        producto.setCantidad(cantidad);
+        return producto;
+    }
+}
@@ -0,0 +1,99 @@
+package com.linktic.producto.service.serviceImpl;
+
+import com.linktic.producto.config.AlineadorSecuencias;
+import com.linktic.producto.dto.FormatoImportacion;
+import com.linktic.producto.dto.ResumenImportacionDto;
+import com.linktic.producto.model.Producto;
+import com.linktic.producto.repository.OutboxInventarioRepository;
+import com.linktic.producto.repository.ProductoRepository;
+import com.linktic.producto.service.ImportacionService;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Contra H2 real: valida el batching por lotes, el outbox y el generador de ids por tabla.
+@SpringBootTest(properties = {"producto.importacion.tamano-lote=500", "outbox.relay.intervalo-ms=3600000"})
+class ImportacionServiceImplTest {
+
+    @Autowired
+    private ImportacionService importacionService;
+
+    @Autowired
+    private ProductoRepository productoRepository;
+
+    @Autowired
+    private OutboxInventarioRepository outboxRepository;
+
+    @Autowired
+    private AlineadorSecuencias alineadorSecuencias;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        outboxRepository.deleteAllInBatch();
+        productoRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void testImportarNdjson_InsertaPorLotesYEncolaInventarios() {
+        String contenido = IntStream.rangeClosed(1, 1_250)
+                .mapToObj(i -> "{\"nombre\":\"Producto " + i + "\",\"precio\":" + i + ".5,\"cantidad\":" + i + "}")
+                .collect(Collectors.joining("\n"))
+                + "\n{\"nombre\":\"Sin precio\",\"cantidad\":1}\n{no es json\n";
+
+        ResumenImportacionDto resumen = importar(contenido, FormatoImportacion.NDJSON);
+
+        assertEquals(1_250, resumen.getImportados());
+        assertEquals(2, resumen.getRechazados());
+        assertTrue(resumen.getErrores().get(0).startsWith("Línea 1251"));
+        assertEquals(1_250, productoRepository.count());
+        assertEquals(1_250, outboxRepository.count());
+    }
+
+    @Test
+    void testImportarCsv_AceptaCabeceraYComillasYRechazaFilasInvalidas() {
+        String contenido = "nombre,precio,cantidad\n"
+                + "\"Tornillo, 5mm\",0.25,1000\n"
+                + "Tuerca,abc,10\n"
+                + "Arandela,0.10,-1\n"
+                + "Llave \"\"inglesa\"\",12.5,3\n";
+
+        ResumenImportacionDto resumen = importar(contenido, FormatoImportacion.CSV);
+
+        assertEquals(2, resumen.getImportados());
+        assertEquals(2, resumen.getRechazados());
+        assertTrue(productoRepository.findAll().stream().anyMatch(p -> p.getNombre().equals("Tornillo, 5mm")));
+        assertEquals(2, outboxRepository.count());
+    }
+
+    @Test
+    void testAlinearSecuencias_NuevosIdsNoChocanConFilasExistentes() {
+        jdbcTemplate.update("INSERT INTO producto (id, nombre, precio, cantidad, version) VALUES (50000, 'Heredado', 1, 1, 0)");
+
+        alineadorSecuencias.alinear();
+
+        Producto producto = new Producto();
+        producto.setNombre("Nuevo");
+        producto.setPrecio(BigDecimal.ONE);
+        producto.setCantidad(1);
+        assertTrue(productoRepository.save(producto).getId() > 50000);
+    }
+
+    private ResumenImportacionDto importar(String contenido, FormatoImportacion formato) {
+        return importacionService.importarProductos(
+                new ByteArrayInputStream(contenido.getBytes(StandardCharsets.UTF_8)), formato);
+    }
+}
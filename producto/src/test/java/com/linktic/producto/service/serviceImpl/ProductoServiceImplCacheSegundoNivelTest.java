@@ -0,0 +1,136 @@
+package com.linktic.producto.service.serviceImpl;
+
+import com.linktic.producto.client.InventarioServiceClient;
+import com.linktic.producto.config.CacheSegundoNivelEndpoint;
+import com.linktic.producto.exception.ResourceNotFoundException;
+import com.linktic.producto.model.Producto;
+import com.linktic.producto.repository.OutboxInventarioRepository;
+import com.linktic.producto.repository.ProductoRepository;
+import com.linktic.producto.service.ProductoService;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import javax.persistence.EntityManagerFactory;
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Contra H2 real con la caché de segundo nivel habilitada: lecturas servidas sin SQL e invalidación
+// tras actualizar, eliminar o insertar.
+@SpringBootTest(properties = {
+        "cache.segundo-nivel.habilitado=true",
+        "spring.datasource.url=jdbc:h2:mem:cachesegundonivel",
+        "outbox.relay.intervalo-ms=3600000"})
+class ProductoServiceImplCacheSegundoNivelTest {
+
+    @Autowired
+    private ProductoService productoService;
+
+    @Autowired
+    private ProductoRepository productoRepository;
+
+    @Autowired
+    private OutboxInventarioRepository outboxRepository;
+
+    @Autowired
+    private CacheSegundoNivelEndpoint cacheSegundoNivelEndpoint;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @MockBean
+    private InventarioServiceClient inventarioServiceClient;
+
+    private Statistics estadisticas;
+
+    @BeforeEach
+    void setUp() {
+        outboxRepository.deleteAllInBatch();
+        productoRepository.deleteAllInBatch();
+        estadisticas = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    void testObtenerProductoPorId_SegundaLecturaSinSqlEInvalidadaAlActualizarYEliminar() {
+        Long id = productoService.crearProducto(producto("Tornillo", "0.25")).getId();
+        productoService.obtenerProductoPorId(id);
+
+        estadisticas.clear();
+        assertEquals("Tornillo", productoService.obtenerProductoPorId(id).getNombre());
+        assertEquals(0, estadisticas.getPrepareStatementCount());
+        assertEquals(1, estadisticas.getSecondLevelCacheHitCount());
+
+        productoService.actualizarProducto(id, producto("Tornillo M5", "0.30"));
+        assertEquals("Tornillo M5", productoService.obtenerProductoPorId(id).getNombre());
+
+        productoService.eliminarProducto(id);
+        assertThrows(ResourceNotFoundException.class, () -> productoService.obtenerProductoPorId(id));
+    }
+
+    @Test
+    void testObtenerProductosPorIds_ResuelveDesdeLaCacheYDescartaInexistentes() {
+        Long a = productoService.crearProducto(producto("A", "1.00")).getId();
+        Long b = productoService.crearProducto(producto("B", "2.00")).getId();
+        productoService.obtenerProductosPorIds(List.of(a, b));
+
+        estadisticas.clear();
+        List<Producto> productos = productoService.obtenerProductosPorIds(List.of(a, b));
+
+        assertEquals(List.of(a, b), productos.stream().map(Producto::getId).collect(Collectors.toList()));
+        assertEquals(0, estadisticas.getPrepareStatementCount());
+        assertTrue(productoService.obtenerProductosPorIds(List.of(a, -1L)).stream().allMatch(p -> p.getId().equals(a)));
+    }
+
+    @Test
+    void testListarTodosLosProductos_CacheDeConsultasSeInvalidaAlInsertar() {
+        productoService.crearProducto(producto("A", "1.00"));
+        PageRequest pagina = PageRequest.of(0, 20, Sort.by("id"));
+        productoService.listarTodosLosProductos(pagina);
+
+        estadisticas.clear();
+        assertEquals(1, productoService.listarTodosLosProductos(pagina).getTotalElements());
+        assertEquals(0, estadisticas.getPrepareStatementCount());
+
+        productoService.crearProducto(producto("B", "2.00"));
+        Page<Producto> trasInsertar = productoService.listarTodosLosProductos(pagina);
+
+        assertEquals(2, trasInsertar.getTotalElements());
+        assertEquals(2, trasInsertar.getContent().size());
+    }
+
+    @Test
+    void testEndpointCacheRegiones_ExponeTasaDeAciertosPorRegion() {
+        Long id = productoService.crearProducto(producto("A", "1.00")).getId();
+        estadisticas.clear();
+        productoService.obtenerProductoPorId(id);
+        productoService.obtenerProductoPorId(id);
+
+        Map<String, Map<String, Object>> regiones = cacheSegundoNivelEndpoint.regiones();
+
+        assertEquals(List.of("producto", "default-query-results-region", "default-update-timestamps-region"),
+                List.copyOf(regiones.keySet()));
+        assertEquals(2L, regiones.get("producto").get("aciertos"));
+        assertEquals(1.0, regiones.get("producto").get("tasaAciertos"));
+        assertTrue((Long) regiones.get("producto").get("elementos") >= 1);
+    }
+
+    private Producto producto(String nombre, String precio) {
+        Producto producto = new Producto();
+        producto.setNombre(nombre);
+        producto.setPrecio(new BigDecimal(precio));
+        producto.setCantidad(10);
+        return producto;
+    }
+}
@@ -0,0 +1,123 @@
+package com.linktic.producto.service.serviceImpl;
+
+import com.linktic.producto.client.InventarioServiceClient;
+import com.linktic.producto.config.EnrutadorLecturaDataSource;
+import com.linktic.producto.model.Producto;
+import com.linktic.producto.repository.OutboxInventarioRepository;
+import com.linktic.producto.repository.ProductoRepository;
+import com.linktic.producto.service.ProductoService;
+
+import org.h2.tools.Server;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Primario en memoria y réplica en un servidor H2 por TCP con el mismo esquema y otro nombre para el mismo
+// producto: así se ve a qué base ha ido cada lectura, y qué pasa cuando la réplica se cae.
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:replicas-primario",
+        "datasource.replicas.habilitado=true",
+        "datasource.replicas.intervalo-verificacion-ms=3600000",
+        "outbox.relay.intervalo-ms=3600000"})
+class ProductoServiceImplReplicasTest {
+
+    private static Server servidorReplica;
+    private static String urlReplica;
+
+    @Autowired
+    private ProductoService productoService;
+
+    @Autowired
+    private ProductoRepository productoRepository;
+
+    @Autowired
+    private OutboxInventarioRepository outboxRepository;
+
+    @Autowired
+    private EnrutadorLecturaDataSource enrutadorLectura;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @MockBean
+    private InventarioServiceClient inventarioServiceClient;
+
+    private Long id;
+
+    @DynamicPropertySource
+    static void replica(DynamicPropertyRegistry registro) throws SQLException {
+        servidorReplica = Server.createTcpServer("-tcpPort", "0", "-ifNotExists").start();
+        urlReplica = "jdbc:h2:tcp://localhost:" + servidorReplica.getPort() + "/mem:replica;DB_CLOSE_DELAY=-1";
+        registro.add("datasource.replicas.urls", () -> urlReplica);
+    }
+
+    @AfterAll
+    static void detenerReplica() {
+        servidorReplica.stop();
+    }
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        outboxRepository.deleteAllInBatch();
+        productoRepository.deleteAllInBatch();
+        Producto producto = new Producto();
+        producto.setNombre("Primario");
+        producto.setPrecio(new BigDecimal("1.50"));
+        producto.setCantidad(10);
+        id = productoRepository.save(producto).getId();
+
+        List<String> esquema = jdbcTemplate.queryForList("SCRIPT NODATA", String.class);
+        try (Connection conexion = DriverManager.getConnection(urlReplica, "sa", "");
+             Statement sentencia = conexion.createStatement()) {
+            sentencia.execute("DROP ALL OBJECTS");
+            for (String ddl : esquema) {
+                sentencia.execute(ddl);
+            }
+            sentencia.execute("INSERT INTO producto (id, nombre, precio, cantidad, version) VALUES (" + id + ", 'Replica', 1.50, 10, 0)");
+        }
+    }
+
+    @Test
+    void testLecturas_VanALaReplicaVerificadaYLasDeRepositorioAlPrimario() {
+        enrutadorLectura.verificarReplicas();
+
+        assertEquals(1, enrutadorLectura.replicasDisponibles());
+        assertEquals("Replica", productoService.obtenerProductoPorId(id).getNombre());
+        assertEquals("Replica", productoService.listarTodosLosProductos(PageRequest.of(0, 10)).getContent().get(0).getNombre());
+        // Transacción implícita de Spring Data y escrituras: siempre al primario.
+        assertEquals("Primario", productoRepository.findById(id).orElseThrow().getNombre());
+        assertEquals("Primario", jdbcTemplate.queryForObject("SELECT nombre FROM producto WHERE id = ?", String.class, id));
+    }
+
+    @Test
+    void testReplicaCaida_LaLecturaVuelveAlPrimario() throws InterruptedException, SQLException {
+        enrutadorLectura.verificarReplicas();
+        assertEquals("Replica", productoService.obtenerProductoPorId(id).getNombre());
+
+        servidorReplica.stop();
+        // Hikari no revalida una conexión usada hace menos de 500 ms al prestarla.
+        Thread.sleep(600);
+
+        assertEquals("Primario", productoService.obtenerProductoPorId(id).getNombre());
+        enrutadorLectura.verificarReplicas();
+        assertEquals(0, enrutadorLectura.replicasDisponibles());
+
+        servidorReplica = Server.createTcpServer("-tcpPort", String.valueOf(servidorReplica.getPort()), "-ifNotExists").start();
+    }
+}
@@ -1,23 +1,39 @@
 package com.linktic.producto.service.serviceImpl;
 
 import com.linktic.producto.client.InventarioServiceClient;
-import com.linktic.producto.dto.InventarioRequestDto;
+import com.linktic.producto.dto.CursorPaginacion;
+import com.linktic.producto.dto.FiltroProductoDto;
+import com.linktic.producto.dto.PaginaCursor;
+import com.linktic.producto.dto.ProductoEventoDto;
+import com.linktic.producto.exception.FiltroInvalidoException;
 import com.linktic.producto.exception.ProductoNotFoundException;
+import com.linktic.producto.model.OutboxInventario;
 import com.linktic.producto.model.Producto;
+import com.linktic.producto.repository.OutboxInventarioRepository;
 import com.linktic.producto.repository.ProductoRepository;
 import com.linktic.producto.service.ServiceImpl.ProductoServiceImpl;
 
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
 
 import java.math.BigDecimal; // Import para BigDecimal
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -26,15 +42,21 @@ class ProductoServiceImplTest {
     @Mock
     private ProductoRepository productoRepository;
 
+    @Mock
+    private OutboxInventarioRepository outboxRepository;
+
     @Mock
     private InventarioServiceClient inventarioServiceClient;
 
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     @InjectMocks
     private ProductoServiceImpl productoService;
 
     // Prueba para "Creación de productos"
     @Test
-    void testCrearProducto_LlamaAInventario() {
+    void testCrearProducto_EncolaInventarioEnOutboxSinLlamarAInventario() {
         // --- Arrange ---
         Producto productoInput = new Producto();
         productoInput.setNombre("Producto Test");
@@ -56,7 +78,13 @@ class ProductoServiceImplTest {
         assertNotNull(resultado);
         assertEquals(1L, resultado.getId());
         verify(productoRepository, times(1)).save(any(Producto.class)); 
-        verify(inventarioServiceClient, times(1)).crearRegistroInventario(any(InventarioRequestDto.class));
+
+        ArgumentCaptor<OutboxInventario> outbox = ArgumentCaptor.forClass(OutboxInventario.class);
+        verify(outboxRepository).save(outbox.capture());
+        assertEquals(1L, outbox.getValue().getProductoId());
+        assertEquals(10, outbox.getValue().getCantidad());
+        assertNotNull(outbox.getValue().getClaveIdempotencia());
+        verifyNoInteractions(inventarioServiceClient);
     }
 
     // Prueba para "Manejo de errores" y "consistencia"
@@ -79,6 +107,20 @@ class ProductoServiceImplTest {
         verify(productoRepository, times(0)).deleteById(productoId); 
     }
     
+    @Test
+    void testEliminarProducto_DescartaElAltaPendienteEnOutboxAntesDeBorrarInventario() {
+        Long productoId = 1L;
+        Producto producto = new Producto();
+        when(productoRepository.findById(productoId)).thenReturn(Optional.of(producto));
+
+        productoService.eliminarProducto(productoId);
+
+        InOrder orden = inOrder(outboxRepository, inventarioServiceClient, productoRepository);
+        orden.verify(outboxRepository).eliminarPendientes(productoId);
+        orden.verify(inventarioServiceClient).eliminarRegistroInventario(productoId);
+        orden.verify(productoRepository).delete(producto);
+    }
+
     // Prueba para "Manejo de errores (Producto no encontrado)"
     @Test
     void testObtenerProductoPorId_NoEncontrado_LanzaExcepcion() {
@@ -126,4 +168,73 @@ class ProductoServiceImplTest {
         assertEquals(50, resultado.getCantidad());
         assertEquals(productoId, resultado.getId());
     }
-}
\ No newline at end of file
+
+    // Prueba para la publicación del evento de invalidación de caché
+    @Test
+    void testActualizarProducto_PublicaEventoProductoActualizado() {
+        // --- Arrange ---
+        Long productoId = 1L;
+        Producto productoExistente = new Producto();
+        productoExistente.setId(productoId);
+
+        Producto productoDetalles = new Producto();
+        productoDetalles.setNombre("Producto Nuevo");
+        productoDetalles.setPrecio(new BigDecimal("20.0"));
+
+        when(productoRepository.findById(productoId)).thenReturn(Optional.of(productoExistente));
+        when(productoRepository.save(any(Producto.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // --- Act ---
+        productoService.actualizarProducto(productoId, productoDetalles);
+
+        // --- Assert ---
+        ArgumentCaptor<ProductoEventoDto> captor = ArgumentCaptor.forClass(ProductoEventoDto.class);
+        verify(eventPublisher, times(1)).publishEvent(captor.capture());
+        assertEquals(ProductoEventoDto.TipoEvento.PRODUCTO_ACTUALIZADO, captor.getValue().getTipo());
+        assertEquals(productoId, captor.getValue().getProductoId());
+        assertEquals("Producto Nuevo", captor.getValue().getProducto().getNombre());
+    }
+
+    @Test
+    void testListarProductosPorCursor_UsaKeysetSinContar() {
+        when(productoRepository.findByIdGreaterThanOrderByIdAsc(eq(40L), any(Pageable.class)))
+                .thenReturn(List.of(producto(41L), producto(42L), producto(43L)));
+
+        PaginaCursor<Producto> pagina = productoService.listarProductosPorCursor(CursorPaginacion.despuesDe(40L).codificar(), 2);
+
+        assertEquals(List.of(41L, 42L), pagina.getContenido().stream().map(Producto::getId).collect(Collectors.toList()));
+        assertEquals(CursorPaginacion.despuesDe(42L), CursorPaginacion.decodificar(pagina.getSiguiente()));
+        assertEquals(CursorPaginacion.antesDe(41L), CursorPaginacion.decodificar(pagina.getAnterior()));
+        verify(productoRepository).findByIdGreaterThanOrderByIdAsc(40L, PageRequest.of(0, 3));
+        verify(productoRepository, never()).count();
+    }
+
+    @Test
+    void testBuscarProductos_RangoDePrecioInvertido_LanzaExcepcion() {
+        FiltroProductoDto filtro = new FiltroProductoDto();
+        filtro.setPrecioMin(new BigDecimal("10"));
+        filtro.setPrecioMax(new BigDecimal("5"));
+
+        assertThrows(FiltroInvalidoException.class, () -> productoService.buscarProductos(filtro, PageRequest.of(0, 20)));
+        verifyNoInteractions(productoRepository);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testBuscarProductos_DelegaEnElRepositorioConLaPaginacion() {
+        FiltroProductoDto filtro = new FiltroProductoDto();
+        filtro.setNombre("Torn");
+        Pageable pageable = PageRequest.of(2, 10);
+        when(productoRepository.findAll(any(Specification.class), eq(pageable))).thenReturn(Page.empty(pageable));
+
+        productoService.buscarProductos(filtro, pageable);
+
+        verify(productoRepository).findAll(any(Specification.class), eq(pageable));
+    }
+
+    private Producto producto(Long id) {
+        Producto producto = new Producto();
+        producto.setId(id);
+        return producto;
+    }
+}